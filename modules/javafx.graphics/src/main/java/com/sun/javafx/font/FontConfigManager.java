@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -154,6 +154,23 @@ class FontConfigManager {
             fontArr[i].style = i % 4; // depends on array order.
         }
 
+        String cacheKey = getCacheKey(getFCLocaleStr());
+        if (FontIndexCache.isEnabled()) {
+            FcCompFont[] cached = FontIndexCache.loadLogicalFonts(cacheKey);
+            if (cached != null && cached.length == fontArr.length &&
+                cached.length > 0 && cached[0].firstFont != null)
+            {
+                fontConfigFonts = cached;
+                defaultFontFile = cached[0].firstFont.fontFile;
+                if (debugFonts) {
+                    long t1 = System.nanoTime();
+                    System.err.println("Time spent reading cached fontconfig="
+                                       + ((t1 - t0) / 1000000) + "ms.");
+                }
+                return;
+            }
+        }
+
         boolean foundFontConfig = false;
         if (useFontConfig) {
             foundFontConfig = getFontConfig(getFCLocaleStr(), fontArr, true);
@@ -199,6 +216,13 @@ class FontConfigManager {
 
         fontConfigFonts = fontArr;
 
+        /* Only a complete result is worth caching: after a failure the
+         * next run should ask fontconfig again.
+         */
+        if (!fontConfigFailed && FontIndexCache.isEnabled()) {
+            FontIndexCache.storeLogicalFonts(cacheKey, fontArr);
+        }
+
         if (debugFonts) {
 
             long t1 = System.nanoTime();
@@ -236,6 +260,14 @@ class FontConfigManager {
          HashMap<String,ArrayList<String>> familyToFontListMap,
          Locale locale) {
 
+        String cacheKey = getCacheKey(locale.toString());
+        if (FontIndexCache.isEnabled() &&
+            FontIndexCache.loadMaps(cacheKey, fontToFileMap,
+                                    fontToFamilyNameMap, familyToFontListMap))
+        {
+            return;
+        }
+
         boolean pnm = false;
         if (useFontConfig && !fontConfigFailed) {
             pnm = populateMapsNative(fontToFileMap, fontToFamilyNameMap,
@@ -250,6 +282,21 @@ class FontConfigManager {
                                              fontToFamilyNameMap,
                                              familyToFontListMap, locale);
         }
+
+        if (FontIndexCache.isEnabled() && !fontToFileMap.isEmpty()) {
+            FontIndexCache.storeMaps(cacheKey, fontToFileMap,
+                                     fontToFamilyNameMap, familyToFontListMap);
+        }
+    }
+
+    /* The cached fonts depend on the locale as well as on the way the
+     * fonts were located, so both are part of the key.
+     */
+    private static String getCacheKey(String locale) {
+        return locale +
+            (useFontConfig ? "-fc" : "") +
+            (fontConfigFailed ? "-failed" : "") +
+            (useEmbeddedFontSupport ? "-embedded" : "");
     }
 
     private static String mapFxToFcLogicalFamilyName(String fxName) {
@@ -32,6 +32,7 @@ public interface FontConstants {
     public static final int trueTag = 0x74727565; // 'true' - Version 2 TT font
     public static final int ottoTag = 0x4f54544f; // 'otto' - OpenType CFF font
     public static final int woffTag = 0x774F4646; // 'wOFF' - WOFF File Format
+    public static final int woff2Tag = 0x774F4632; // 'wOF2' - WOFF 2.0 File Format
     public static final int cmapTag = 0x636D6170; // 'cmap'
     public static final int headTag = 0x68656164; // 'head'
     public static final int hheaTag = 0x68686561; // 'hhea'
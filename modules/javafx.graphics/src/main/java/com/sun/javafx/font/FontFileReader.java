@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,12 +25,18 @@
 
 package com.sun.javafx.font;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
+import java.util.HashMap;
+import java.util.Map;
 
 /*
  * Utility class to read font files.
@@ -40,8 +46,85 @@ class FontFileReader implements FontConstants {
     long filesize;
     RandomAccessFile raFile;
 
+    /* Read-only view of the whole file when it is memory mapped. The
+     * mapping is shared by all the readers of the file and is kept for the
+     * life of this reader, as it holds no file descriptor. */
+    private final boolean map;
+    private ByteBuffer mappedFile;
+
     public FontFileReader(String filename) {
+        this(filename, false);
+    }
+
+    /**
+     * @param map whether the file can be memory mapped. Only the files of
+     * the system fonts should be: a mapped file cannot be deleted or
+     * replaced on Windows until the mapping is collected, and reading a
+     * mapped file which has been truncated faults rather than failing
+     * with an IOException.
+     */
+    public FontFileReader(String filename, boolean map) {
         this.filename = filename;
+        this.map = map && mapFontFiles;
+    }
+
+    /* -Dprism.mapfonts=false reads all the font files with a
+     * RandomAccessFile */
+    @SuppressWarnings("removal")
+    private static final boolean mapFontFiles = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () ->
+                    !"false".equals(System.getProperty("prism.mapfonts")));
+
+    private static final class MappedFile extends WeakReference<ByteBuffer> {
+        final long length;
+        final long lastModified;
+
+        MappedFile(ByteBuffer buffer, long length, long lastModified) {
+            super(buffer);
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final Map<String, MappedFile> mappedFiles = new HashMap<>();
+
+    /**
+     * Returns the mapping of the file, shared with the other readers of the
+     * same file as long as one of them uses it, or null if the file cannot
+     * be mapped.
+     */
+    @SuppressWarnings("removal")
+    private static ByteBuffer getMappedFile(String filename) {
+        return AccessController.doPrivileged(
+                (PrivilegedAction<ByteBuffer>) () -> {
+                    File file = new File(filename);
+                    long length = file.length();
+                    long lastModified = file.lastModified();
+                    if (length <= 0 || length > Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    synchronized (mappedFiles) {
+                        MappedFile ref = mappedFiles.get(filename);
+                        ByteBuffer buffer = ref != null ? ref.get() : null;
+                        if (buffer != null && ref.length == length &&
+                            ref.lastModified == lastModified) {
+                            return buffer;
+                        }
+                        mappedFiles.values().removeIf(r -> r.get() == null);
+                        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                             FileChannel channel = raf.getChannel()) {
+                            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+                        } catch (IOException e) {
+                            if (PrismFontFactory.debugFonts) {
+                                e.printStackTrace();
+                            }
+                            return null;
+                        }
+                        mappedFiles.put(filename, new MappedFile(buffer, length, lastModified));
+                        return buffer;
+                    }
+                }
+        );
     }
 
     public String getFilename() {
@@ -56,9 +139,16 @@ class FontFileReader implements FontConstants {
      */
     @SuppressWarnings("removal")
     public synchronized boolean openFile() throws PrivilegedActionException {
-        if (raFile != null) {
+        if (raFile != null || mappedFile != null) {
             return false;
         }
+        if (map) {
+            mappedFile = getMappedFile(filename);
+            if (mappedFile != null) {
+                filesize = mappedFile.limit();
+                return true;
+            }
+        }
         raFile = AccessController.doPrivileged(
                 (PrivilegedAction<RandomAccessFile>) () -> {
                     try {
@@ -86,6 +176,13 @@ class FontFileReader implements FontConstants {
         }
     }
 
+    /**
+     * Returns whether the tables are read from a memory mapping of the file.
+     */
+    synchronized boolean isMapped() {
+        return mappedFile != null;
+    }
+
     public synchronized long getLength() {
         return filesize;
     }
@@ -97,7 +194,7 @@ class FontFileReader implements FontConstants {
     }
 
     static class Buffer {
-        byte[] data;
+        ByteBuffer data;
         int pos;
         int orig;
 
@@ -109,61 +206,47 @@ class FontFileReader implements FontConstants {
          * assumed to be careful.
          */
         Buffer(byte[] data, int bufStart) {
+            this(ByteBuffer.wrap(data), bufStart);
+        }
+
+        /**
+         * @param data the buffer, in big endian order. Only absolute reads
+         * are used, so the buffer can be shared by several threads.
+         * @param bufStart the starting position within the data.
+         */
+        Buffer(ByteBuffer data, int bufStart) {
             this.orig = this.pos = bufStart;
             this.data = data;
         }
 
         int getInt(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return val;
+            return data.getInt(orig + tpos);
         }
 
         int getInt() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
+            int val = data.getInt(pos);
+            pos += 4;
             return val;
         }
 
         short getShort(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return (short)val;
+            return data.getShort(orig + tpos);
         }
 
         short getShort() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            return (short)val;
+            short val = data.getShort(pos);
+            pos += 2;
+            return val;
         }
 
         char getChar(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return (char)val;
+            return data.getChar(orig + tpos);
         }
 
         char getChar() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            return (char)(val);
+            char val = data.getChar(pos);
+            pos += 2;
+            return val;
         }
 
         void position(int newPos) {
@@ -171,16 +254,15 @@ class FontFileReader implements FontConstants {
         }
 
         int capacity() {
-            return data.length-orig;
+            return data.limit()-orig;
         }
 
         byte get() {
-            return data[pos++];
+            return data.get(pos++);
         }
 
         byte get(int tpos) {
-            tpos += orig;
-            return data[tpos];
+            return data.get(orig + tpos);
         }
 
         void skip(int nbytes) {
@@ -188,7 +270,20 @@ class FontFileReader implements FontConstants {
         }
 
         void get(int startPos, byte[] dest, int destPos, int destLen) {
-            System.arraycopy(data, orig+startPos, dest, destPos, destLen);
+            ByteBuffer src = data.duplicate();
+            src.position(orig + startPos);
+            src.get(dest, destPos, destLen);
+        }
+
+        /**
+         * Returns a view of {@code len} bytes of this Buffer, starting at
+         * {@code startPos}, without copying them.
+         */
+        ByteBuffer slice(int startPos, int len) {
+            ByteBuffer src = data.duplicate();
+            src.position(orig + startPos);
+            src.limit(orig + startPos + len);
+            return src.slice();
         }
     }
 
@@ -231,6 +326,29 @@ class FontFileReader implements FontConstants {
     private int readBufferLen;
     private int readBufferStart;
     synchronized public Buffer readBlock(int offset, int len) {
+        if (mappedFile != null) {
+            if (offset >= 0 && len >= 0 && (long)offset + len <= filesize) {
+                /* No copy, the block is a view of the mapping. Small blocks
+                 * extend like the read cache does, as some callers rely on
+                 * reading a little past the block. */
+                int end = offset + len;
+                if (len <= READBUFFERSIZE) {
+                    end = Math.max(end, (int)Math.min(filesize, offset + READBUFFERSIZE));
+                }
+                ByteBuffer block = mappedFile.duplicate();
+                block.position(offset);
+                block.limit(end);
+                return new Buffer(block.slice(), 0);
+            }
+            /* Past the end of the file, the missing bytes read as zero */
+            byte[] data = new byte[Math.max(len, 0)];
+            if (offset >= 0 && offset < filesize) {
+                ByteBuffer src = mappedFile.duplicate();
+                src.position(offset);
+                src.get(data, 0, Math.min(data.length, (int)filesize - offset));
+            }
+            return new Buffer(data, 0);
+        }
         if (readBuffer == null) {
             readBuffer = new byte[READBUFFERSIZE];
             readBufferLen = 0; // length of valid contents.
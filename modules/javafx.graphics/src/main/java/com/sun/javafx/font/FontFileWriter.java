@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -155,7 +155,7 @@ class FontFileWriter implements FontConstants {
         return tracker != null;
     }
 
-    private void checkTracker(int size) throws IOException {
+    void checkTracker(int size) throws IOException {
         if (tracker != null) {
             if (size < 0 || pos > FontTracker.MAX_FILE_SIZE - size) {
                 throw new IOException("File too big.");
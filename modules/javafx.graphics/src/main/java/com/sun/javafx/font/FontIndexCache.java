@@ -0,0 +1,588 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.javafx.font.FontConfigManager.FcCompFont;
+import com.sun.javafx.font.FontConfigManager.FontConfigFont;
+
+/**
+ * A persistent index of the fonts located by {@link FontConfigManager}.
+ * Enumerating the installed fonts through fontconfig, or opening every file
+ * of the embedded font directory, is one of the larger costs of starting an
+ * application on Linux, and the result hardly ever changes between runs.
+ * When enabled with {@code -Dprism.fontcache=true} (or with the path of a
+ * directory in place of {@code true}) the results are written to disk and
+ * reused by the next run.
+ * <p>
+ * Each cache file records the modification time of the fontconfig
+ * configuration files, of every font directory they configure and of the
+ * directories below them, and of the directories holding the fonts it lists
+ * and of their parents. The file is discarded as soon as
+ * any of these changes, so that installing or removing a font causes the
+ * fonts to be enumerated again.
+ */
+final class FontIndexCache {
+
+    private static final int MAGIC = 0x4a464958; // "JFIX"
+    private static final int VERSION = 1;
+
+    private static final String LOGICAL_FONTS = "logicalfonts";
+    private static final String FONT_MAPS = "fontmaps";
+
+    /* The depth to which the configured font directories are walked */
+    private static final int MAX_DEPTH = 16;
+
+    /* The largest count accepted when reading a cache file */
+    private static final int MAX_COUNT = 1 << 20;
+
+    static File cacheDir;
+
+    static {
+        @SuppressWarnings("removal")
+        var dummy = AccessController.doPrivileged(
+                (PrivilegedAction<Void>) () -> {
+                    String prop = System.getProperty("prism.fontcache", "");
+                    if (prop.isEmpty() || "false".equals(prop)) {
+                        return null;
+                    }
+                    if ("true".equals(prop)) {
+                        String jfxVersion = System.getProperty("javafx.version", "versionless");
+                        String userCache = System.getProperty("javafx.cachedir", "");
+                        if (userCache.isEmpty()) {
+                            userCache = System.getProperty("user.home") + "/.openjfx/cache/" + jfxVersion;
+                        }
+                        cacheDir = new File(userCache, "fonts");
+                    } else {
+                        cacheDir = new File(prop);
+                    }
+                    return null;
+                }
+        );
+    }
+
+    private FontIndexCache() {
+    }
+
+    static boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Returns the logical fonts cached for the given key, or null if there
+     * is no valid cache. Every font returned has a first font with a file.
+     */
+    static FcCompFont[] loadLogicalFonts(String key) {
+        DataInputStream in = open(LOGICAL_FONTS, key);
+        if (in == null) {
+            return null;
+        }
+        try (in) {
+            int count = readCount(in);
+            FcCompFont[] fonts = new FcCompFont[count];
+            for (int i = 0; i < count; i++) {
+                FcCompFont font = new FcCompFont();
+                font.fcName = readString(in);
+                font.fcFamily = readString(in);
+                font.style = in.readInt();
+                font.firstFont = readFont(in);
+                if (font.firstFont == null || font.firstFont.fontFile == null) {
+                    throw new IOException("No font file for " + font.fcName);
+                }
+                int all = in.readInt();
+                if (all != -1) {
+                    all = checkCount(all);
+                    font.allFonts = new FontConfigFont[all];
+                    for (int f = 0; f < all; f++) {
+                        font.allFonts[f] = readFont(in);
+                    }
+                }
+                fonts[i] = font;
+            }
+            return fonts;
+        } catch (IOException e) {
+            logError(e);
+            return null;
+        }
+    }
+
+    static void storeLogicalFonts(String key, FcCompFont[] fonts) {
+        ArrayList<String> files = new ArrayList<>();
+        for (FcCompFont font : fonts) {
+            if (font.firstFont != null) {
+                files.add(font.firstFont.fontFile);
+            }
+            if (font.allFonts != null) {
+                for (FontConfigFont f : font.allFonts) {
+                    files.add(f.fontFile);
+                }
+            }
+        }
+        store(LOGICAL_FONTS, key, files, out -> {
+            out.writeInt(fonts.length);
+            for (FcCompFont font : fonts) {
+                writeString(out, font.fcName);
+                writeString(out, font.fcFamily);
+                out.writeInt(font.style);
+                writeFont(out, font.firstFont);
+                if (font.allFonts == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(font.allFonts.length);
+                    for (FontConfigFont f : font.allFonts) {
+                        writeFont(out, f);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Fills the maps from the cache for the given key. Returns false, and
+     * leaves the maps untouched, if there is no valid cache.
+     */
+    static boolean loadMaps(String key,
+                            HashMap<String,String> fontToFileMap,
+                            HashMap<String,String> fontToFamilyNameMap,
+                            HashMap<String,ArrayList<String>> familyToFontListMap) {
+        DataInputStream in = open(FONT_MAPS, key);
+        if (in == null) {
+            return false;
+        }
+        HashMap<String,String> files = new HashMap<>();
+        HashMap<String,String> families = new HashMap<>();
+        HashMap<String,ArrayList<String>> lists = new HashMap<>();
+        try (in) {
+            for (int i = readCount(in); i > 0; i--) {
+                files.put(readString(in), readString(in));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                families.put(readString(in), readString(in));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                String family = readString(in);
+                int count = readCount(in);
+                ArrayList<String> list = new ArrayList<>(count);
+                for (int f = 0; f < count; f++) {
+                    list.add(readString(in));
+                }
+                lists.put(family, list);
+            }
+        } catch (IOException e) {
+            logError(e);
+            return false;
+        }
+        fontToFileMap.putAll(files);
+        fontToFamilyNameMap.putAll(families);
+        familyToFontListMap.putAll(lists);
+        return true;
+    }
+
+    static void storeMaps(String key,
+                          HashMap<String,String> fontToFileMap,
+                          HashMap<String,String> fontToFamilyNameMap,
+                          HashMap<String,ArrayList<String>> familyToFontListMap) {
+        store(FONT_MAPS, key, fontToFileMap.values(), out -> {
+            out.writeInt(fontToFileMap.size());
+            for (Map.Entry<String,String> e : fontToFileMap.entrySet()) {
+                writeString(out, e.getKey());
+                writeString(out, e.getValue());
+            }
+            out.writeInt(fontToFamilyNameMap.size());
+            for (Map.Entry<String,String> e : fontToFamilyNameMap.entrySet()) {
+                writeString(out, e.getKey());
+                writeString(out, e.getValue());
+            }
+            out.writeInt(familyToFontListMap.size());
+            for (Map.Entry<String,ArrayList<String>> e : familyToFontListMap.entrySet()) {
+                writeString(out, e.getKey());
+                ArrayList<String> list = e.getValue();
+                out.writeInt(list.size());
+                for (String font : list) {
+                    writeString(out, font);
+                }
+            }
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static File getFile(String kind, String key) {
+        StringBuilder name = new StringBuilder(kind).append('-');
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            name.append(Character.isLetterOrDigit(c) && c < 0x80 ? c : '_');
+        }
+        return new File(cacheDir, name.append(".dat").toString());
+    }
+
+    /**
+     * Opens the cache file and checks its header and the recorded
+     * modification times. Returns a stream positioned at the payload, or
+     * null if the file is missing or stale.
+     */
+    @SuppressWarnings("removal")
+    private static DataInputStream open(String kind, String key) {
+        if (cacheDir == null) {
+            return null;
+        }
+        return AccessController.doPrivileged(
+                (PrivilegedAction<DataInputStream>) () -> {
+                    File file = getFile(kind, key);
+                    if (!file.isFile()) {
+                        return null;
+                    }
+                    DataInputStream in = null;
+                    try {
+                        in = new DataInputStream(new BufferedInputStream(
+                                new FileInputStream(file)));
+                        if (in.readInt() != MAGIC || in.readInt() != VERSION ||
+                            !key.equals(in.readUTF()))
+                        {
+                            in.close();
+                            return null;
+                        }
+                        for (int i = readCount(in); i > 0; i--) {
+                            String path = in.readUTF();
+                            long time = in.readLong();
+                            if (new File(path).lastModified() != time) {
+                                if (FontConfigManager.debugFonts) {
+                                    System.err.println("Font cache " + file +
+                                                       " is stale: " + path +
+                                                       " has changed");
+                                }
+                                in.close();
+                                return null;
+                            }
+                        }
+                        if (FontConfigManager.debugFonts) {
+                            System.err.println("Using font cache " + file);
+                        }
+                        return in;
+                    } catch (IOException e) {
+                        logError(e);
+                        if (in != null) {
+                            try {
+                                in.close();
+                            } catch (IOException ignored) {
+                            }
+                        }
+                        return null;
+                    }
+                }
+        );
+    }
+
+    /**
+     * Writes the cache file. The data is first written to a temporary file
+     * which then replaces the cache file, so that a concurrent reader never
+     * sees a partial file.
+     */
+    @SuppressWarnings("removal")
+    private static void store(String kind, String key,
+                              Iterable<String> fontFiles, Writer writer) {
+        if (cacheDir == null) {
+            return;
+        }
+        AccessController.doPrivileged(
+                (PrivilegedAction<Void>) () -> {
+                    File file = getFile(kind, key);
+                    File tmp = null;
+                    try {
+                        if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+                            if (FontConfigManager.debugFonts) {
+                                System.err.println("Can not create font cache at " + cacheDir);
+                            }
+                            return null;
+                        }
+                        Map<String,Long> stamps = getStamps(fontFiles);
+                        tmp = File.createTempFile(kind, ".tmp", cacheDir);
+                        try (DataOutputStream out = new DataOutputStream(
+                                new BufferedOutputStream(new FileOutputStream(tmp))))
+                        {
+                            out.writeInt(MAGIC);
+                            out.writeInt(VERSION);
+                            out.writeUTF(key);
+                            out.writeInt(stamps.size());
+                            for (Map.Entry<String,Long> e : stamps.entrySet()) {
+                                out.writeUTF(e.getKey());
+                                out.writeLong(e.getValue());
+                            }
+                            writer.write(out);
+                        }
+                        Files.move(tmp.toPath(), file.toPath(),
+                                   StandardCopyOption.REPLACE_EXISTING,
+                                   StandardCopyOption.ATOMIC_MOVE);
+                        tmp = null;
+                    } catch (IOException | UnsupportedOperationException e) {
+                        logError(e);
+                    } finally {
+                        if (tmp != null) {
+                            tmp.delete();
+                        }
+                    }
+                    return null;
+                }
+        );
+    }
+
+    /**
+     * Collects the modification times that validate a cache file: those of
+     * the standard fontconfig files, of every font directory they configure
+     * and of all the directories below them, and those of the directories of
+     * the given font files and of their parents, up to the home directory or
+     * the file system root. A missing file is recorded with a time of 0, so
+     * that creating it also invalidates the cache.
+     */
+    static Map<String,Long> getStamps(Iterable<String> fontFiles) {
+        LinkedHashMap<String,Long> stamps = new LinkedHashMap<>();
+        String home = System.getProperty("user.home", "");
+        String configHome = getConfigHome();
+        String[] roots = {
+            "/etc/fonts/fonts.conf",
+            "/etc/fonts/local.conf",
+            "/etc/fonts/conf.d",
+            configHome + "/fontconfig",
+            configHome + "/fontconfig/fonts.conf",
+            configHome + "/fontconfig/conf.d",
+            home + "/.fonts.conf",
+        };
+        for (String root : roots) {
+            stamps.put(root, new File(root).lastModified());
+        }
+        String config = System.getenv("FONTCONFIG_FILE");
+        if (config == null || config.isEmpty()) {
+            config = "/etc/fonts/fonts.conf";
+        }
+        ArrayList<String> dirs = getFontDirs(config);
+        dirs.add(home + "/.fonts");
+        dirs.add(getDataHome() + "/fonts");
+        dirs.add("/usr/share/fonts");
+        dirs.add("/usr/local/share/fonts");
+        dirs.add(System.getProperty("prism.fontdir"));
+        dirs.add(System.getProperty("java.home") + "/lib/fonts");
+        for (String dir : dirs) {
+            if (dir != null && !stamps.containsKey(dir)) {
+                stamps.put(dir, new File(dir).lastModified());
+                addSubdirectories(stamps, new File(dir), MAX_DEPTH);
+            }
+        }
+        for (String path : fontFiles) {
+            if (path == null) {
+                continue;
+            }
+            File dir = new File(path).getParentFile();
+            while (dir != null && dir.getParentFile() != null) {
+                String dirPath = dir.getPath();
+                if (dirPath.equals(home) || stamps.containsKey(dirPath)) {
+                    break;
+                }
+                stamps.put(dirPath, dir.lastModified());
+                dir = dir.getParentFile();
+            }
+        }
+        return stamps;
+    }
+
+    /* fontconfig scans its directories recursively, so a font added in any
+     * directory below a configured one must invalidate the cache. Symbolic
+     * links are not followed, which also keeps a link cycle from being walked.
+     */
+    private static void addSubdirectories(Map<String,Long> stamps, File dir, int depth) {
+        File[] files = dir.listFiles();
+        if (files == null || depth == 0) {
+            return;
+        }
+        for (File f : files) {
+            if (f.isDirectory() && !Files.isSymbolicLink(f.toPath()) &&
+                !stamps.containsKey(f.getPath()))
+            {
+                stamps.put(f.getPath(), f.lastModified());
+                addSubdirectories(stamps, f, depth - 1);
+            }
+        }
+    }
+
+    private static String getConfigHome() {
+        String configHome = System.getenv("XDG_CONFIG_HOME");
+        if (configHome == null || configHome.isEmpty()) {
+            configHome = System.getProperty("user.home", "") + "/.config";
+        }
+        return configHome;
+    }
+
+    private static String getDataHome() {
+        String dataHome = System.getenv("XDG_DATA_HOME");
+        if (dataHome == null || dataHome.isEmpty()) {
+            dataHome = System.getProperty("user.home", "") + "/.local/share";
+        }
+        return dataHome;
+    }
+
+    private static final Pattern ELEMENT = Pattern.compile(
+            "<(dir|include)(\\s[^>]*)?>\\s*([^<]*?)\\s*</\\1>");
+    private static final Pattern PREFIX = Pattern.compile(
+            "prefix\\s*=\\s*[\"']([a-z]*)[\"']");
+
+    /**
+     * Returns the font directories configured by the given fontconfig file,
+     * following its {@code <include>} elements. Only the elements themselves
+     * are read, which is all that is needed to know where fontconfig looks
+     * for fonts; a file that cannot be read simply adds no directory.
+     */
+    static ArrayList<String> getFontDirs(String config) {
+        ArrayList<String> dirs = new ArrayList<>();
+        readFontDirs(new File(config), dirs, new HashSet<>());
+        return dirs;
+    }
+
+    private static void readFontDirs(File config, ArrayList<String> dirs, Set<File> visited) {
+        try {
+            config = config.getAbsoluteFile().toPath().normalize().toFile();
+        } catch (InvalidPathException e) {
+            return;
+        }
+        if (!visited.add(config)) {
+            return;
+        }
+        if (config.isDirectory()) {
+            File[] files = config.listFiles((d, name) -> name.endsWith(".conf"));
+            if (files != null) {
+                Arrays.sort(files);
+                for (File f : files) {
+                    readFontDirs(f, dirs, visited);
+                }
+            }
+            return;
+        }
+        String text;
+        try {
+            text = new String(Files.readAllBytes(config.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return;
+        }
+        Matcher m = ELEMENT.matcher(text);
+        while (m.find()) {
+            String path = m.group(3);
+            if (path.isEmpty()) {
+                continue;
+            }
+            String attrs = m.group(2);
+            Matcher prefix = PREFIX.matcher(attrs == null ? "" : attrs);
+            if (prefix.find() && "xdg".equals(prefix.group(1))) {
+                path = (m.group(1).equals("dir") ? getDataHome() : getConfigHome()) + "/" + path;
+            } else if (path.startsWith("~")) {
+                path = System.getProperty("user.home", "") + path.substring(1);
+            } else if (!new File(path).isAbsolute()) {
+                path = new File(config.getParentFile(), path).getPath();
+            }
+            if (m.group(1).equals("dir")) {
+                dirs.add(path);
+            } else {
+                readFontDirs(new File(path), dirs, visited);
+            }
+        }
+    }
+
+    private static void writeFont(DataOutputStream out, FontConfigFont font)
+        throws IOException
+    {
+        out.writeBoolean(font != null);
+        if (font != null) {
+            writeString(out, font.familyName);
+            writeString(out, font.styleStr);
+            writeString(out, font.fullName);
+            writeString(out, font.fontFile);
+        }
+    }
+
+    private static FontConfigFont readFont(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        FontConfigFont font = new FontConfigFont();
+        font.familyName = readString(in);
+        font.styleStr = readString(in);
+        font.fullName = readString(in);
+        font.fontFile = readString(in);
+        return font;
+    }
+
+    private static void writeString(DataOutputStream out, String s)
+        throws IOException
+    {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        return checkCount(in.readInt());
+    }
+
+    private static int checkCount(int count) throws IOException {
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IOException("Invalid count " + count);
+        }
+        return count;
+    }
+
+    private static void logError(Exception e) {
+        if (FontConfigManager.debugFonts) {
+            System.err.println("Font cache error: " + e);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2010, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -54,4 +54,12 @@ public interface FontStrike {
     public float getCharAdvance(char ch);
     public Shape getOutline(GlyphList gl,
                             BaseTransform transform);
+
+    /**
+     * Rasterizes the given glyph ahead of its first use. This may be called
+     * on a background thread, so the glyph must only be published once its
+     * image is complete. Strikes which cannot do so ignore the request.
+     */
+    public default void prewarmGlyph(int glyphCode) {
+    }
 }
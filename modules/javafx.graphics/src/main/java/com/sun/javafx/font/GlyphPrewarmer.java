@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.javafx.geom.transform.BaseTransform;
+
+/**
+ * Rasterizes glyphs on a background thread so that the render thread finds
+ * their images ready the first time the text is drawn. The glyph codes are
+ * resolved on the calling thread, as the character to glyph mapping of
+ * composite fonts is not thread safe; the worker only creates strikes and
+ * glyph images, which are published through concurrent maps.
+ */
+final class GlyphPrewarmer {
+
+    private static ExecutorService executor;
+
+    /* The strikes are only weakly held by their font resource, the most
+     * recently prewarmed ones are kept here so that their glyphs are not
+     * collected before use. Only used on the prewarm thread. */
+    private static final int MAX_RETAINED_STRIKES = 32;
+    static final Map<FontStrike, Boolean> strikes =
+            new LinkedHashMap<FontStrike, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<FontStrike, Boolean> eldest) {
+                    return size() > MAX_RETAINED_STRIKES;
+                }
+            };
+
+    private GlyphPrewarmer() {
+    }
+
+    static void prewarm(PGFont font, String chars, float[] sizes) {
+        if (font == null || chars == null || chars.isEmpty()
+                || sizes == null || sizes.length == 0) {
+            return;
+        }
+        FontResource fr = font.getFontResource();
+        CharToGlyphMapper mapper = fr.getGlyphMapper();
+        int[] glyphs = chars.codePoints()
+                            .map(mapper::charToGlyph)
+                            .distinct()
+                            .toArray();
+        float[] sz = sizes.clone();
+        getExecutor().execute(() -> rasterize(fr, glyphs, sz));
+    }
+
+    static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Prism Font Prewarm");
+                t.setContextClassLoader(null);
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    private static void rasterize(FontResource fr, int[] glyphs, float[] sizes) {
+        CompositeFontResource composite = fr instanceof CompositeFontResource
+                                          ? (CompositeFontResource) fr : null;
+        for (float size : sizes) {
+            if (!(size > 0)) {
+                continue;
+            }
+            for (int gc : glyphs) {
+                FontResource slotResource = fr;
+                int glyphCode = gc;
+                if (composite != null) {
+                    slotResource = composite.getSlotResource(gc >>> 24);
+                    glyphCode = gc & CompositeGlyphMapper.GLYPHMASK;
+                }
+                if (slotResource == null) {
+                    continue;
+                }
+                FontStrike strike = slotResource.getStrike(size,
+                                        BaseTransform.IDENTITY_TRANSFORM,
+                                        FontResource.AA_GREYSCALE);
+                if (strike != null) {
+                    strikes.put(strike, Boolean.TRUE);
+                    strike.prewarmGlyph(glyphCode);
+                }
+            }
+        }
+        if (PrismFontFactory.debugFonts) {
+            System.err.println("Prewarmed " + glyphs.length + " glyphs of "
+                               + fr.getFullName() + " for "
+                               + sizes.length + " sizes");
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -61,6 +61,7 @@ public abstract class PrismFontFactory implements FontFactory {
     public static final int SUB_PIXEL_Y = 2;
     public static final int SUB_PIXEL_NATIVE = 4;
     private static float fontSizeLimit = 80f;
+    private static float[] prewarmSizes;
 
     private static boolean lcdEnabled;
     private static float lcdContrast = -1;
@@ -138,6 +139,22 @@ public abstract class PrismFontFactory implements FontFactory {
                     String lcdProp = System.getProperty("prism.lcdtext", defLCDProp);
                     lcdEnabled = lcdProp.equals("true");
 
+                    s = System.getProperty("prism.prewarmfonts");
+                    // Only FreeType glyphs keep the images they rasterize
+                    if (s != null && FT_FACTORY.equals(getNativeFactoryName())) {
+                        try {
+                            String[] tokens = s.split(",");
+                            float[] sizes = new float[tokens.length];
+                            for (int i = 0; i < tokens.length; i++) {
+                                sizes[i] = Float.parseFloat(tokens[i].trim());
+                            }
+                            prewarmSizes = sizes;
+                        } catch (NumberFormatException nfe) {
+                            System.err.println("Cannot parse prewarm font sizes '"
+                                    + s + "'");
+                        }
+                    }
+
                     s = System.getProperty("prism.cacheLayoutSize");
                     if (s != null) {
                         try {
@@ -174,6 +191,15 @@ public abstract class PrismFontFactory implements FontFactory {
         return fontSizeLimit;
     }
 
+    /**
+     * Returns the sizes at which the Latin-1 glyphs of the system font are
+     * rasterized in the background at startup, or null. Glyphs are only
+     * prewarmed with FreeType.
+     */
+    static float[] getPrewarmSizes() {
+        return prewarmSizes;
+    }
+
     private static PrismFontFactory theFontFactory = null;
     public static synchronized PrismFontFactory getFontFactory() {
         if (theFontFactory != null) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -470,7 +470,9 @@ public abstract class PrismFontFile implements FontResource, FontConstants {
      * Throws an exception if it doesn't like what it finds.
      */
     private void init(String name, int fIndex) throws Exception {
-        filereader = new FontFileReader(filename);
+        /* Only the system fonts are memory mapped, the files of the fonts
+         * loaded by the application may be deleted or changed while in use */
+        filereader = new FontFileReader(filename, !isEmbedded && !isCopy);
         WoffDecoder decoder = null;
         try {
             if (!filereader.openFile()) {
@@ -483,8 +485,15 @@ public abstract class PrismFontFile implements FontResource, FontConstants {
             /* Handle wOFF files */
             if (sfntTag == woffTag) {
                 decoder = new WoffDecoder();
+                byte[] sfnt = decoder.decode(filereader);
+
+                /* The native rasterizers (FreeType, DirectWrite, CoreText)
+                 * load fonts by path, so the decoded font is written to a
+                 * file, which is then read like any other font file rather
+                 * than keeping the decoded font in memory as well.
+                 */
                 File file = decoder.openFile();
-                decoder.decode(filereader);
+                decoder.writeFile(sfnt);
                 decoder.closeFile();
 
                 /* Create a new reader with the decoded file */
@@ -496,6 +505,9 @@ public abstract class PrismFontFile implements FontResource, FontConstants {
                 }
                 buffer = filereader.readBlock(0, TTCHEADERSIZE);
                 sfntTag = buffer.getInt();
+            } else if (sfntTag == woff2Tag) {
+                throw new Exception("WOFF 2.0 fonts are not supported: "
+                                    + filename);
             }
 
             filesize = (int)filereader.getLength();
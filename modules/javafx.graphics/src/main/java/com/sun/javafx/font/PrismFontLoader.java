@@ -46,6 +46,21 @@ public class PrismFontLoader extends FontLoader {
      */
     private boolean embeddedFontsLoaded = false;
 
+    /**
+     * Flag to keep track whether the glyphs listed by prism.prewarmfonts
+     * have been submitted for rasterization.
+     */
+    private boolean startupFontsPrewarmed = false;
+
+    /* The printable characters of Latin-1 */
+    private static final String LATIN_1;
+    static {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 0x20; c < 0x7F; c++) sb.append(c);
+        for (char c = 0xA0; c <= 0xFF; c++) sb.append(c);
+        LATIN_1 = sb.toString();
+    }
+
     Properties loadEmbeddedFontDefinitions() {
         Properties map = new Properties();
         // locate the META-INF directory and search for a fonts.mf
@@ -89,6 +104,18 @@ public class PrismFontLoader extends FontLoader {
         }
     }
 
+    private void prewarmStartupFonts(FontFactory fontFactory) {
+        if (!startupFontsPrewarmed) {
+            startupFontsPrewarmed = true;
+            float[] sizes = PrismFontFactory.getPrewarmSizes();
+            if (sizes != null && sizes.length > 0) {
+                PGFont font = fontFactory.createFont("System", false, false,
+                                                     sizes[0]);
+                GlyphPrewarmer.prewarm(font, LATIN_1, sizes);
+            }
+        }
+    }
+
     private Font[] createFonts(PGFont[] fonts) {
         if (fonts == null || fonts.length == 0) {
             return null;
@@ -215,6 +242,7 @@ public class PrismFontLoader extends FontLoader {
         if (!embeddedFontsLoaded && !fontFactory.isPlatformFont(fullName)) {
             loadEmbeddedFonts();
         }
+        prewarmStartupFonts(fontFactory);
 
         // find the native Prism Font object based on this JavaFX font. At the
         // conclusion of this method, be sure to set the name, family, and
@@ -25,8 +25,8 @@
 
 package com.sun.javafx.font;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.sun.javafx.geom.Path2D;
 import com.sun.javafx.geom.Point2D;
@@ -38,7 +38,7 @@ import com.sun.javafx.scene.text.GlyphList;
 public abstract class PrismFontStrike<T extends PrismFontFile> implements FontStrike {
     private DisposerRecord disposer;
     private T fontResource;
-    private Map<Integer,Glyph> glyphMap = new HashMap<Integer,Glyph>();
+    private Map<Integer,Glyph> glyphMap = new ConcurrentHashMap<Integer,Glyph>();
     private PrismMetrics metrics;
     protected boolean drawShapes = false;
     private float size;
@@ -169,11 +169,27 @@ public abstract class PrismFontStrike<T extends PrismFontFile> implements FontSt
         Glyph glyph = glyphMap.get(glyphCode);
         if (glyph == null) {
             glyph = createGlyph(glyphCode);
-            glyphMap.put(glyphCode, glyph);
+            Glyph prev = glyphMap.putIfAbsent(glyphCode, glyph);
+            if (prev != null) {
+                glyph = prev;
+            }
         }
         return glyph;
     }
 
+    /**
+     * Rasterizes the given glyph and publishes it once its image is complete,
+     * for the strikes whose glyphs keep the image they rasterize.
+     */
+    protected void prewarmGlyphImage(int glyphCode) {
+        if (drawShapes || glyphMap.containsKey(glyphCode)) {
+            return;
+        }
+        Glyph glyph = createGlyph(glyphCode);
+        glyph.getPixelData(0);
+        glyphMap.putIfAbsent(glyphCode, glyph);
+    }
+
     protected abstract Path2D createGlyphOutline(int glyphCode);
 
     public Shape getOutline(GlyphList gl, BaseTransform transform) {
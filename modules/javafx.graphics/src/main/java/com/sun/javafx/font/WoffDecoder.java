@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,6 +25,7 @@
 
 package com.sun.javafx.font;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.zip.Inflater;
@@ -38,7 +39,13 @@ class WoffDecoder extends FontFileWriter {
         super();
     }
 
-    public void decode(FontFileReader input) throws Exception {
+    /**
+     * Decodes the font into memory. Each table is inflated straight into its
+     * place in a single image of the sfnt font, no file needs to be open.
+     *
+     * @return the decoded font
+     */
+    public byte[] decode(FontFileReader input) throws Exception {
         input.reset();
         initWoffTables(input);
         if (woffHeader == null || woffTableDirectory == null) {
@@ -51,43 +58,59 @@ class WoffDecoder extends FontFileWriter {
 
         /* write header */
         short numTables = woffHeader.numTables;
-        setLength(woffHeader.totalSfntSize);
+        checkTracker(woffHeader.totalSfntSize);
         writeHeader(format, numTables);
 
         /* Tables should be written in the same order as the original file */
         Arrays.sort(woffTableDirectory, (o1, o2) -> o1.offset - o2.offset);
 
+        byte[] sfnt = new byte[woffHeader.totalSfntSize];
         Inflater decompressor = new Inflater();
-        int offset = TTCHEADERSIZE + numTables * DIRECTORYENTRYSIZE;
-        for (int i = 0; i < woffTableDirectory.length; i++) {
-            WoffDirectoryEntry table = woffTableDirectory[i];
-
-            /* write directory entry (in the same order as it appeared in the
-             * woff file).
-             */
-            writeDirectoryEntry(table.index, table.tag, table.origChecksum,
-                                offset, table.origLength);
-
-            /* write table */
-            Buffer buffer = input.readBlock(table.offset, table.comLength);
-            byte[] bytes = new byte[table.comLength];
-            buffer.get(0, bytes, 0, table.comLength);
-            if (table.comLength != table.origLength) {
-                decompressor.setInput(bytes);
-                byte[] output = new byte[table.origLength];
-                int length = decompressor.inflate(output);
-                if (length != table.origLength) {
-                    throw new Exception("WoffDecoder: failure expanding table");
+        int headerSize = TTCHEADERSIZE + numTables * DIRECTORYENTRYSIZE;
+        int offset = headerSize;
+        try {
+            for (int i = 0; i < woffTableDirectory.length; i++) {
+                WoffDirectoryEntry table = woffTableDirectory[i];
+
+                /* write directory entry (in the same order as it appeared
+                 * in the woff file).
+                 */
+                writeDirectoryEntry(table.index, table.tag, table.origChecksum,
+                                    offset, table.origLength);
+
+                /* decode table */
+                Buffer buffer = input.readBlock(table.offset, table.comLength);
+                if (table.comLength != table.origLength) {
+                    decompressor.setInput(buffer.slice(0, table.comLength));
+                    int length = decompressor.inflate(sfnt, offset, table.origLength);
+                    if (length != table.origLength) {
+                        throw new Exception("WoffDecoder: failure expanding table");
+                    }
+                    decompressor.reset();
+                } else {
+                    buffer.get(0, sfnt, offset, table.origLength);
                 }
-                decompressor.reset();
-                bytes = output;
-            }
-            seek(offset);
-            writeBytes(bytes);
 
-            offset += (table.origLength + 3) & ~3;
+                offset += (table.origLength + 3) & ~3;
+            }
+        } finally {
+            decompressor.end();
         }
-        decompressor.end();
+
+        System.arraycopy(header, 0, sfnt, 0, headerSize);
+        return sfnt;
+    }
+
+    /**
+     * Writes the font returned by {@link #decode} to the file opened with
+     * {@link #openFile()}, for the native rasterizers which load fonts from
+     * a file. The header is written by {@link #closeFile()}.
+     */
+    public void writeFile(byte[] sfnt) throws IOException {
+        int headerSize = header.length;
+        setLength(sfnt.length);
+        seek(headerSize);
+        writeBytes(sfnt, headerSize, sfnt.length - headerSize);
     }
 
     void initWoffTables(FontFileReader input) throws Exception {
@@ -135,7 +158,7 @@ class WoffDecoder extends FontFileWriter {
                 throw new Exception("WoffDecoder: invalid totalSfntSize");
             }
         }
-        if (size != header.totalSfntSize) {
+        if (size != header.totalSfntSize || size < 0) {
             throw new Exception("WoffDecoder: invalid totalSfntSize");
         }
         this.woffHeader = header;
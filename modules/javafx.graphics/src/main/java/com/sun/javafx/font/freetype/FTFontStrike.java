@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -72,6 +72,13 @@ class FTFontStrike extends PrismFontStrike<FTFontFile> {
         return new FTGlyph(this, glyphCode, drawShapes);
     }
 
+    /* FTGlyph keeps the image it rasterizes, which makes it worth
+     * rasterizing ahead of its first use. */
+    @Override
+    public void prewarmGlyph(int glyphCode) {
+        prewarmGlyphImage(glyphCode);
+    }
+
     @Override
     protected Path2D createGlyphOutline(int glyphCode) {
         FTFontFile fontResource = getFontResource();
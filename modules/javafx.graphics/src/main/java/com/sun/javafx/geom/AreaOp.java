@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 1998, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 1998, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -62,6 +62,128 @@ public abstract class AreaOp {
 
         public abstract boolean newClassification(boolean inLeft,
                                                   boolean inRight);
+
+        /*
+         * The sweep in pruneEdges visits every active edge for every
+         * band of the y range, so combining an area made of many sub-paths,
+         * such as a map that grows one region at a time, costs in
+         * proportion to all of its sub-paths even when the other area
+         * only touches a few of them.
+         *
+         * Both areas are made of closed, non-overlapping sub-paths, in
+         * which a sub-path is only ever nested in another. A sub-path
+         * whose bounds do not meet the bounds of the other area encloses
+         * no point of the other area, so its part of the result does not
+         * depend on the other area: it is kept as is if the operation
+         * keeps the points that are only in its area, else it is dropped.
+         * Only the remaining sub-paths go through the sweep. The sub-paths
+         * enclosing one of them also go through the sweep, as their bounds
+         * contain its bounds, so the swept sub-paths still describe a
+         * proper area and the nested sub-paths that are kept as is still
+         * cut out, or fill in, their own part of it.
+         */
+        @Override
+        public Vector calculate(Vector left, Vector right) {
+            if (left.isEmpty() || right.isEmpty()) {
+                return super.calculate(left, right);
+            }
+            SubPaths lsubs = new SubPaths(left);
+            SubPaths rsubs = new SubPaths(right);
+            lsubs.markSwept(rsubs.xmin, rsubs.ymin, rsubs.xmax, rsubs.ymax);
+            rsubs.markSwept(lsubs.xmin, lsubs.ymin, lsubs.xmax, lsubs.ymax);
+            if (lsubs.numSwept == lsubs.count && rsubs.numSwept == rsubs.count) {
+                return super.calculate(left, right);
+            }
+            // The result of the sweep is made of the curves it was given
+            @SuppressWarnings("unchecked")
+            Vector<Curve> ret = super.calculate(lsubs.getCurves(true),
+                                                rsubs.getCurves(true));
+            if (newClassification(true, false)) {
+                ret.addAll(lsubs.getCurves(false));
+            }
+            if (newClassification(false, true)) {
+                ret.addAll(rsubs.getCurves(false));
+            }
+            return ret;
+        }
+    }
+
+    /*
+     * The closed sub-paths of an area, with their bounds, each of which
+     * starts with an Order0 moveto in the list of curves.
+     */
+    private static final class SubPaths {
+        final Vector<?> curves;
+        int count;
+        int[] starts;
+        double[] bounds;
+        boolean[] swept;
+        int numSwept;
+        double xmin, ymin, xmax, ymax;
+
+        SubPaths(Vector<?> curves) {
+            this.curves = curves;
+            int size = curves.size();
+            starts = new int[8];
+            bounds = new double[32];
+            xmin = ymin = Double.POSITIVE_INFINITY;
+            xmax = ymax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                Curve c = (Curve) curves.get(i);
+                if (c.getOrder() == 0 || count == 0) {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                        bounds = Arrays.copyOf(bounds, count * 8);
+                    }
+                    starts[count] = i;
+                    bounds[count * 4] = bounds[count * 4 + 1] =
+                        Double.POSITIVE_INFINITY;
+                    bounds[count * 4 + 2] = bounds[count * 4 + 3] =
+                        Double.NEGATIVE_INFINITY;
+                    count++;
+                }
+                int b = (count - 1) * 4;
+                bounds[b] = Math.min(bounds[b], c.getXMin());
+                bounds[b + 1] = Math.min(bounds[b + 1], c.getYTop());
+                bounds[b + 2] = Math.max(bounds[b + 2], c.getXMax());
+                bounds[b + 3] = Math.max(bounds[b + 3], c.getYBot());
+            }
+            for (int i = 0; i < count; i++) {
+                xmin = Math.min(xmin, bounds[i * 4]);
+                ymin = Math.min(ymin, bounds[i * 4 + 1]);
+                xmax = Math.max(xmax, bounds[i * 4 + 2]);
+                ymax = Math.max(ymax, bounds[i * 4 + 3]);
+            }
+            swept = new boolean[count];
+        }
+
+        /*
+         * Marks the sub-paths whose bounds meet the given bounds.
+         */
+        void markSwept(double x0, double y0, double x1, double y1) {
+            for (int i = 0; i < count; i++) {
+                int b = i * 4;
+                if (bounds[b] <= x1 && x0 <= bounds[b + 2] &&
+                    bounds[b + 1] <= y1 && y0 <= bounds[b + 3])
+                {
+                    swept[i] = true;
+                    numSwept++;
+                }
+            }
+        }
+
+        Vector<Curve> getCurves(boolean wantSwept) {
+            Vector<Curve> ret = new Vector<>();
+            for (int i = 0; i < count; i++) {
+                if (swept[i] == wantSwept) {
+                    int end = (i + 1 < count) ? starts[i + 1] : curves.size();
+                    for (int j = starts[i]; j < end; j++) {
+                        ret.add((Curve) curves.get(j));
+                    }
+                }
+            }
+            return ret;
+        }
     }
 
     public static class AddOp extends CAGOp {
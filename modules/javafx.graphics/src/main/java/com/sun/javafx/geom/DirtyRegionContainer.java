@@ -90,6 +90,20 @@ public final class DirtyRegionContainer {
         return this;
     }
 
+    /**
+     * Replaces the dirty regions of this container with {@code count} dirty
+     * regions of the other container, starting at index {@code from}.
+     */
+    public DirtyRegionContainer deriveWithNewContainer(DirtyRegionContainer other, int from, int count) {
+        if (count > maxSpace()) {
+            initDirtyRegions(count);
+        }
+
+        regioncopy(other.dirtyRegions, from, dirtyRegions, 0, count);
+        emptyIndex = count;
+        return this;
+    }
+
     public DirtyRegionContainer deriveWithNewContainer(DirtyRegionContainer other) {
         if (other == null ||
             other.maxSpace() == 0) {
@@ -146,6 +160,11 @@ public final class DirtyRegionContainer {
             if (region.isEmpty())
                 return;
 
+            if (tileSize > 0) {
+                markDirtyTiles(region);
+                return;
+            }
+
             RectBounds dr, tmp;
             int tempIndex = 0;
             int regionCount = emptyIndex;
@@ -189,6 +208,10 @@ public final class DirtyRegionContainer {
 
     public void reset() {
         emptyIndex = 0;
+        if (dirtyTileCount > 0) {
+            Arrays.fill(dirtyTiles, false);
+            dirtyTileCount = 0;
+        }
     }
 
     private RectBounds compress(final RectBounds region) {
@@ -252,6 +275,145 @@ public final class DirtyRegionContainer {
         return sb.toString();
     }
 
+    /***************************************************************************
+     * Tile mode
+     *
+     * Instead of merging the added regions into at most maxSpace() rectangles,
+     * a container in tile mode marks the tiles of a regular grid which the
+     * regions touch. Scattered small regions therefore stay small instead of
+     * being merged into one large region. computeTileRegions() turns the
+     * dirty tiles into dirty regions afterwards.
+     ***************************************************************************/
+    private int tileSize;
+    private int tileColumns;
+    private int tileRows;
+    private boolean[] dirtyTiles;
+    private int dirtyTileCount;
+
+    /**
+     * Switches this container to tile mode, using a grid of square tiles of
+     * the given size which covers the area from (0, 0) to (width, height).
+     * The container is reset.
+     * @param tileSize the size of a tile, or 0 to leave tile mode
+     * @param width the width of the area covered by the grid
+     * @param height the height of the area covered by the grid
+     */
+    public void setTileGrid(int tileSize, int width, int height) {
+        this.tileSize = tileSize;
+        if (tileSize > 0) {
+            tileColumns = Math.max(0, (width + tileSize - 1) / tileSize);
+            tileRows = Math.max(0, (height + tileSize - 1) / tileSize);
+            final int n = tileColumns * tileRows;
+            if (dirtyTiles == null || dirtyTiles.length < n) {
+                dirtyTiles = new boolean[n];
+                dirtyTileCount = 0;
+            }
+        } else {
+            tileColumns = tileRows = 0;
+        }
+        reset();
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Gets the number of dirty tiles. Only meaningful in tile mode.
+     */
+    public int getDirtyTileCount() {
+        return dirtyTileCount;
+    }
+
+    private void markDirtyTiles(RectBounds region) {
+        if (region.isEmpty() ||
+            region.getMaxX() <= 0 || region.getMinX() >= tileColumns * tileSize ||
+            region.getMaxY() <= 0 || region.getMinY() >= tileRows * tileSize)
+        {
+            // The region lies completely outside of the tile grid
+            return;
+        }
+        final int c0 = Math.max(0, (int) Math.floor(region.getMinX()) / tileSize);
+        final int r0 = Math.max(0, (int) Math.floor(region.getMinY()) / tileSize);
+        final int c1 = Math.min(tileColumns - 1, ((int) Math.ceil(region.getMaxX()) - 1) / tileSize);
+        final int r1 = Math.min(tileRows - 1, ((int) Math.ceil(region.getMaxY()) - 1) / tileSize);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0, idx = r * tileColumns + c0; c <= c1; c++, idx++) {
+                if (!dirtyTiles[idx]) {
+                    dirtyTiles[idx] = true;
+                    dirtyTileCount++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the dirty regions of this container with rectangles covering
+     * exactly the dirty tiles. Each horizontal run of dirty tiles becomes one
+     * rectangle, which is extended over the following rows as long as they
+     * have the same run. The rectangles do not overlap and are clipped to
+     * the grid area given by {@code width} and {@code height}.
+     * @return the number of dirty regions
+     */
+    public int computeTileRegions(int width, int height) {
+        emptyIndex = 0;
+        if (dirtyTileCount == 0) {
+            return 0;
+        }
+        // The tiles are consumed as they are turned into regions
+        for (int r = 0; r < tileRows; r++) {
+            int c = 0;
+            while (c < tileColumns) {
+                final int idx = r * tileColumns;
+                if (!dirtyTiles[idx + c]) {
+                    c++;
+                    continue;
+                }
+                final int c0 = c;
+                while (c < tileColumns && dirtyTiles[idx + c]) {
+                    dirtyTiles[idx + c] = false;
+                    c++;
+                }
+                int r1 = r + 1;
+                while (r1 < tileRows && isTileRun(r1, c0, c)) {
+                    for (int i = r1 * tileColumns + c0, end = r1 * tileColumns + c; i < end; i++) {
+                        dirtyTiles[i] = false;
+                    }
+                    r1++;
+                }
+                if (!hasSpace()) {
+                    final RectBounds[] old = dirtyRegions;
+                    initDirtyRegions(old.length * 2 + 1);
+                    System.arraycopy(old, 0, dirtyRegions, 0, old.length);
+                    emptyIndex = old.length;
+                    heap = null;
+                }
+                dirtyRegions[emptyIndex++].setBounds(c0 * tileSize, r * tileSize,
+                        Math.min(c * tileSize, width), Math.min(r1 * tileSize, height));
+            }
+        }
+        dirtyTileCount = 0;
+        return emptyIndex;
+    }
+
+    /**
+     * Checks whether exactly the tiles from {@code c0} (inclusive) to
+     * {@code c1} (exclusive) of the given row are dirty within that range,
+     * and the run does not continue to either side.
+     */
+    private boolean isTileRun(int row, int c0, int c1) {
+        final int idx = row * tileColumns;
+        if ((c0 > 0 && dirtyTiles[idx + c0 - 1]) || (c1 < tileColumns && dirtyTiles[idx + c1])) {
+            return false;
+        }
+        for (int c = c0; c < c1; c++) {
+            if (!dirtyTiles[idx + c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /***************************************************************************
      * Shared for all compressing algorithms
      ***************************************************************************/
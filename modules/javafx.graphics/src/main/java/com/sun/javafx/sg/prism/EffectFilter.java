@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,11 +25,23 @@
 
 package com.sun.javafx.sg.prism;
 
+import com.sun.glass.ui.Screen;
 import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.prism.Graphics;
+import com.sun.prism.Texture;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.scenario.effect.Effect;
+import com.sun.scenario.effect.Filterable;
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.ImageData;
 import com.sun.scenario.effect.impl.prism.PrEffectHelper;
+import com.sun.scenario.effect.impl.prism.PrFilterContext;
+import com.sun.scenario.effect.impl.prism.PrTexture;
 
 /**
  */
@@ -37,6 +49,14 @@ public class EffectFilter {
     private Effect effect;
     private NodeEffectInput nodeInput;
 
+    // The output of the effect kept from a previous frame, rendered with
+    // cachedXform, whose translation is below one pixel, and the texture of
+    // which is unlocked between frames
+    private ImageData cachedImageData;
+    private FilterContext cachedFctx;
+    private final Affine2D cachedXform = new Affine2D();
+    private final Affine3D savedXform = new Affine3D();
+
     EffectFilter(Effect effect, NGNode node) {
         this.effect = effect;
         this.nodeInput = new NodeEffectInput(node);
@@ -46,6 +66,7 @@ public class EffectFilter {
     NodeEffectInput getNodeInput() { return nodeInput; }
 
     void dispose() {
+        invalidate();
         effect = null;
         nodeInput.setNode(null);
         nodeInput = null;
@@ -56,9 +77,136 @@ public class EffectFilter {
         return bounds.deriveWithNewBounds(r);
     }
 
+    /**
+     * Drops the output of the effect kept from a previous frame, called when
+     * the content of the node changes.
+     */
+    void invalidate() {
+        if (cachedImageData != null) {
+            Filterable implImage = cachedImageData.getUntransformedImage();
+            if (implImage != null) {
+                // The default unref assumes that the image is locked
+                implImage.lock();
+            }
+            cachedImageData.unref();
+            cachedImageData = null;
+            cachedFctx = null;
+        }
+    }
+
     void render(Graphics g) {
         NodeEffectInput nodeInput = getNodeInput();
-        PrEffectHelper.render(getEffect(), g, 0, 0, nodeInput);
+        if (!renderCached(g, nodeInput)) {
+            PrEffectHelper.render(getEffect(), g, 0, 0, nodeInput);
+        }
         nodeInput.flush();
     }
+
+    boolean isCached() {
+        return cachedImageData != null;
+    }
+
+    /*
+     * Returns true if the output of the effect kept from a previous frame
+     * was rendered in the given filter context with the given transform,
+     * but for a whole pixel translation.
+     */
+    boolean isCachedFor(FilterContext fctx, BaseTransform xform) {
+        return cachedImageData != null &&
+               cachedFctx == fctx &&
+               cachedXform.getMxx() == xform.getMxx() &&
+               cachedXform.getMyx() == xform.getMyx() &&
+               cachedXform.getMxy() == xform.getMxy() &&
+               cachedXform.getMyy() == xform.getMyy() &&
+               cachedXform.getMxt() == xform.getMxt() - Math.floor(xform.getMxt()) &&
+               cachedXform.getMyt() == xform.getMyt() - Math.floor(xform.getMyt());
+    }
+
+    /*
+     * Sets the transform of the output to keep, which is the given transform
+     * but for its whole pixel translation.
+     */
+    void setCachedTransform(BaseTransform xform) {
+        cachedXform.setTransform(xform.getMxx(), xform.getMyx(),
+                                 xform.getMxy(), xform.getMyy(),
+                                 xform.getMxt() - Math.floor(xform.getMxt()),
+                                 xform.getMyt() - Math.floor(xform.getMyt()));
+    }
+
+    /*
+     * Keeps the output of the effect, rendered in the given filter context
+     * with the transform set by setCachedTransform.
+     */
+    void setCached(ImageData imageData, FilterContext fctx) {
+        cachedImageData = imageData;
+        cachedFctx = fctx;
+    }
+
+    /*
+     * Draws the output of the effect kept from a previous frame if the node
+     * content has not changed and the transform has not changed but for a
+     * whole pixel translation, else renders the whole output of the effect
+     * and keeps it for the next frames. Returns false, without rendering
+     * anything, if the output cannot be kept.
+     */
+    private boolean renderCached(Graphics g, NodeEffectInput nodeInput) {
+        final int maxSize = PrismSettings.effectCacheMaxSize;
+        final BaseTransform xform = g.getTransformNoClone();
+        final Screen screen = g.getAssociatedScreen();
+        if (maxSize == 0 || screen == null || !xform.is2D() ||
+            (g.isDepthBuffer() && g.isDepthTest()))
+        {
+            return false;
+        }
+        final FilterContext fctx = PrFilterContext.getInstance(screen);
+        final double tx = Math.floor(xform.getMxt());
+        final double ty = Math.floor(xform.getMyt());
+
+        if (cachedImageData != null) {
+            if (!isCachedFor(fctx, xform)) {
+                invalidate();
+            } else {
+                Filterable implImage = cachedImageData.getUntransformedImage();
+                implImage.lock();
+                if (!cachedImageData.validate(fctx)) {
+                    implImage.unlock();
+                    invalidate();
+                }
+            }
+        }
+
+        if (cachedImageData == null) {
+            setCachedTransform(xform);
+            Rectangle bounds = new Rectangle(effect.getBounds(cachedXform, nodeInput));
+            if (bounds.isEmpty() || bounds.width > maxSize || bounds.height > maxSize) {
+                return false;
+            }
+            if (PulseLogger.PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("EffectFilter rebuilding");
+            }
+            ImageData res = effect.filter(fctx, cachedXform, bounds, null, nodeInput);
+            if (res == null) {
+                return true;
+            }
+            if (!res.validate(fctx)) {
+                res.unref();
+                return false;
+            }
+            setCached(res, fctx);
+        } else if (PulseLogger.PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("EffectFilter reused");
+        }
+
+        Filterable implImage = cachedImageData.getUntransformedImage();
+        Rectangle r = cachedImageData.getUntransformedBounds();
+        Texture tex = ((PrTexture) implImage).getTextureObject();
+        savedXform.setTransform(xform);
+        g.setTransform(null);
+        g.translate((float) tx, (float) ty);
+        g.transform(cachedImageData.getTransform());
+        g.drawTexture(tex, r.x, r.y, r.width, r.height);
+        g.setTransform(savedXform);
+        implImage.unlock();
+        return true;
+    }
 }
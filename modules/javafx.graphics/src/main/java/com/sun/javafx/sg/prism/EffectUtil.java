@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,8 +25,13 @@
 
 package com.sun.javafx.sg.prism;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import com.sun.prism.Graphics;
 import com.sun.prism.Image;
+import com.sun.prism.ResourceFactory;
 import com.sun.prism.Texture;
 import com.sun.prism.paint.Color;
 import com.sun.scenario.effect.Color4f;
@@ -40,14 +45,26 @@ class EffectUtil {
     // We must use a power-of-2 size so that we can get true CLAMP_TO_EDGE on all platforms
     private static final int TEX_SIZE = 256;
 
+    // The number of rounded corner shadow textures kept for each resource
+    // factory, the least recently used one is disposed when another one is
+    // needed
+    private static final int MAX_CORNER_TEXTURES = 16;
+
     private static Texture itex;
     private static Texture dtex;
+    // The rounded corner shadow textures of each resource factory, in the
+    // order of their use. Textures are only valid in the factory that created
+    // them, and a scene may be rendered by another thread, for instance when
+    // printing, so the map is only accessed while holding its lock.
+    private static final Map<ResourceFactory, LinkedHashMap<Long, Texture>> cornerTextures =
+            new HashMap<>();
 
     /**
      * If possible, uses an optimized codepath to render the an
      * effect (InnerShadow or DropShadow) on the given rectangular node
-     * (NGRectangle, NGImageView, etc).  If successful, returns true;
-     * otherwise returns false to indicate that the caller should fall
+     * (NGRectangle, NGRegion, etc), whose corners are rounded with a circular
+     * arc of radius {@code arc} when it is not 0.  If successful, returns
+     * true; otherwise returns false to indicate that the caller should fall
      * back on existing methods to render the effect.
      */
     static boolean renderEffectForRectangularNode(NGNode node,
@@ -55,7 +72,8 @@ class EffectUtil {
                                                   Effect effect,
                                                   float alpha, boolean aa,
                                                   float rx, float ry,
-                                                  float rw, float rh)
+                                                  float rw, float rh,
+                                                  float arc)
     {
         if (!g.getTransformNoClone().is2D() && g.isDepthBuffer() && g.isDepthTest()) {
             // TODO: Both of our optimizations below rely on layering of
@@ -91,7 +109,7 @@ class EffectUtil {
             // (RT-26982)
             return false;
         }
-        if (effect instanceof InnerShadow && !aa) {
+        if (effect instanceof InnerShadow && !aa && arc == 0f) {
             // TODO: Handle AA, or at least case when rectangle is pixel aligned...
             // (RT-26982)
             InnerShadow shadow = (InnerShadow)effect;
@@ -111,13 +129,17 @@ class EffectUtil {
             DropShadow shadow = (DropShadow)effect;
             float radius = shadow.getRadius();
             if (radius > 0f &&
-                radius < rw/2 &&
-                radius < rh/2 &&
+                radius + arc < rw/2 &&
+                radius + arc < rh/2 &&
                 shadow.getSpread() == 0f &&
                 shadow.getShadowSourceInput() == null &&
                 shadow.getContentInput() == null)
             {
-                EffectUtil.renderRectDropShadow(g, shadow, alpha, rx, ry, rw, rh);
+                if (arc == 0f) {
+                    EffectUtil.renderRectDropShadow(g, shadow, alpha, rx, ry, rw, rh);
+                } else {
+                    EffectUtil.renderRoundRectDropShadow(g, shadow, alpha, rx, ry, rw, rh, arc);
+                }
                 node.renderContent(g);
                 return true;
             }
@@ -295,6 +317,180 @@ class EffectUtil {
                          t2,   t2,   t2,   t1); // bottom edge
     }
 
+    /**
+     * Renders the drop shadow of a rectangle whose corners are rounded with a
+     * circular arc of radius {@code arc}, as 9 slices of a texture holding
+     * the shadow of one corner.  The caller ensures that the corners do not
+     * overlap, that is {@code radius + arc < rw/2} and {@code rh/2}.
+     */
+    static void renderRoundRectDropShadow(Graphics g, DropShadow shadow, float alpha,
+                                          float rx, float ry, float rw, float rh,
+                                          float arc)
+    {
+        float r = shadow.getRadius();
+        Texture ctex = getCornerTexture(g.getResourceFactory(), r, arc);
+        if (ctex == null) {
+            return;
+        }
+        int texsize = ctex.getPhysicalWidth();
+        int cx1 = ctex.getContentX();
+        int cx2 = cx1 + ctex.getContentWidth();
+        float t1 = (cx1 + 0.5f) / texsize;
+        float t2 = (cx2 - 0.5f) / texsize; // end of image
+        // The texture spans from r outside of the rectangle to r beyond the
+        // end of the arc, where the shadow no longer depends on the corner
+        float c = arc + r;
+        float x1 = rx + shadow.getOffsetX();
+        float y1 = ry + shadow.getOffsetY();
+        float x2 = x1 + rw;
+        float y2 = y1 + rh;
+        g.setPaint(toPrismColor(shadow.getColor(), alpha));
+        g.drawTextureRaw(ctex,
+                         x1-r, y1-r, x1+c, y1+c,
+                         t1,   t1,   t2,   t2); // top-left corner
+        g.drawTextureRaw(ctex,
+                         x2-c, y1-r, x2+r, y1+c,
+                         t2,   t1,   t1,   t2); // top-right corner
+        g.drawTextureRaw(ctex,
+                         x2-c, y2-c, x2+r, y2+r,
+                         t2,   t2,   t1,   t1); // bot-right corner
+        g.drawTextureRaw(ctex,
+                         x1-r, y2-c, x1+c, y2+r,
+                         t1,   t2,   t2,   t1); // bot-left corner
+        g.drawTextureRaw(ctex,
+                         x1+c, y1+c, x2-c, y2-c,
+                         t2,   t2,   t2,   t2); // center section
+        g.drawTextureRaw(ctex,
+                         x1-r, y1+c, x1+c, y2-c,
+                         t1,   t2,   t2,   t2); // left edge
+        g.drawTextureRaw(ctex,
+                         x2-c, y1+c, x2+r, y2-c,
+                         t2,   t2,   t1,   t2); // right edge
+        g.drawTextureRaw(ctex,
+                         x1+c, y1-r, x2-c, y1+c,
+                         t2,   t1,   t2,   t2); // top edge
+        g.drawTextureRaw(ctex,
+                         x1+c, y2-c, x2-c, y2+r,
+                         t2,   t2,   t2,   t1); // bottom edge
+    }
+
+    static Texture getCornerTexture(ResourceFactory factory, float r, float arc) {
+        Long key = ((long) Float.floatToIntBits(r) << 32) |
+                   (Float.floatToIntBits(arc) & 0xffffffffL);
+        synchronized (cornerTextures) {
+            // The textures of a disposed factory were disposed with it
+            cornerTextures.keySet().removeIf(ResourceFactory::isDisposed);
+            LinkedHashMap<Long, Texture> textures = cornerTextures.computeIfAbsent(factory,
+                    f -> new LinkedHashMap<>(MAX_CORNER_TEXTURES, 0.75f, true));
+            Texture ctex = textures.get(key);
+            if (ctex != null && !ctex.isSurfaceLost()) {
+                return ctex;
+            }
+            if (ctex != null) {
+                textures.remove(key);
+                ctex.dispose();
+            }
+            // About 2 texels per unit, enough for the arc on hi-dpi screens
+            int dim = 16;
+            while (dim < 128 && dim < (arc + r + r) * 2) {
+                dim *= 2;
+            }
+            byte[] sdata = new byte[dim * dim];
+            fillRoundCornerGaussian(sdata, dim, r, arc);
+            Image img = Image.fromByteAlphaData(sdata, dim, dim);
+            ctex = factory.createTexture(img,
+                                         Texture.Usage.STATIC,
+                                         Texture.WrapMode.CLAMP_TO_EDGE);
+            if (ctex == null) {
+                return null;
+            }
+            ctex.contentsUseful();
+            ctex.makePermanent();
+            if (textures.size() >= MAX_CORNER_TEXTURES) {
+                Iterator<Map.Entry<Long, Texture>> it = textures.entrySet().iterator();
+                it.next().getValue().dispose();
+                it.remove();
+            }
+            textures.put(key, ctex);
+            return ctex;
+        }
+    }
+
+    /**
+     * Fills {@code pixels} with the Gaussian shadow of the top left corner of
+     * a rectangle rounded with a circular arc of radius {@code arc}, from
+     * {@code r} outside of the rectangle to {@code r} beyond the end of the
+     * arc.  Each horizontal span of the corner is blurred with the closed
+     * form of the Gaussian, the integral of which is the error function, and
+     * the results are then blurred vertically.
+     */
+    static void fillRoundCornerGaussian(byte[] pixels, int dim,
+                                        float r, float arc)
+    {
+        // As for the Decora Gaussian, sigma is a third of the radius and
+        // the kernel is cut and normalized beyond the radius
+        double sigma = r / 3.0;
+        double size = arc + r + r;
+        double step = size / (dim - 1);
+        int n = (int) Math.ceil(r / Math.min(step, sigma / 2));
+        double[] voff = new double[n + n + 1];
+        double[] vweight = new double[n + n + 1];
+        double total = 0.0;
+        for (int k = -n; k <= n; k++) {
+            double v = r * k / n;
+            voff[k + n] = v;
+            vweight[k + n] = Math.exp(-(v * v) / (2 * sigma * sigma));
+            total += vweight[k + n];
+        }
+        for (int k = 0; k < vweight.length; k++) {
+            vweight[k] /= total;
+        }
+        double phiMin = phi(-3.0);
+        double phiRange = phi(3.0) - phiMin;
+        for (int y = 0; y < dim; y++) {
+            double py = y * step - r;
+            for (int x = 0; x <= y; x++) {
+                double px = x * step - r;
+                double v = 0.0;
+                for (int k = 0; k < voff.length; k++) {
+                    // The start of the span of the corner at this height
+                    double sy = py - voff[k];
+                    double sx;
+                    if (sy < 0) {
+                        continue;
+                    } else if (sy < arc) {
+                        double d = arc - sy;
+                        sx = arc - Math.sqrt(arc * arc - d * d);
+                    } else {
+                        sx = 0;
+                    }
+                    double h = (phi((px - sx) / sigma) - phiMin) / phiRange;
+                    v += vweight[k] * Math.min(Math.max(h, 0.0), 1.0);
+                }
+                int a = (int) (v * 255 + 0.5);
+                if (a < 0) a = 0; else if (a > 255) a = 255;
+                // The corner is symmetric about its diagonal
+                pixels[y*dim+x] = pixels[x*dim+y] = (byte)a;
+            }
+        }
+    }
+
+    /**
+     * Returns the cumulative distribution function of the standard normal
+     * distribution, with the error function approximation of Abramowitz and
+     * Stegun (7.1.26), whose error is below 1.5e-7.
+     */
+    private static double phi(double t) {
+        double z = Math.abs(t) / Math.sqrt(2.0);
+        double k = 1.0 / (1.0 + 0.3275911 * z);
+        double erf = 1.0 - k * (0.254829592 +
+                            k * (-0.284496736 +
+                            k * (1.421413741 +
+                            k * (-1.453152027 +
+                            k * 1.061405429)))) * Math.exp(-z * z);
+        return (t < 0) ? 0.5 * (1.0 - erf) : 0.5 * (1.0 + erf);
+    }
+
     private static void fillGaussian(byte[] pixels, int dim,
                                      float r, float spread,
                                      boolean inner)
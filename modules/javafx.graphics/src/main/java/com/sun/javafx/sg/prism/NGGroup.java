@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2016, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,15 +26,20 @@
 package com.sun.javafx.sg.prism;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.DirtyRegionContainer;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.scene.NodeHelper;
 import com.sun.prism.Graphics;
+import com.sun.prism.impl.BaseGraphics;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.scenario.effect.Blend;
 import com.sun.scenario.effect.Blend.Mode;
 import com.sun.scenario.effect.FilterContext;
@@ -74,6 +79,58 @@ public class NGGroup extends NGNode {
      */
     private static final int REGION_INTERSECTS_MASK = 0x15555555;
 
+    /**
+     * Occlusion culling. While the children of a group are rendered, the opaque
+     * regions of the children which are rendered later (and so on top) are kept
+     * on a stack, in device space, and any child whose bounds are completely
+     * within one of them is skipped. The stack is shared by the nested groups,
+     * so that an opaque node also hides the descendants of its earlier siblings.
+     * Entries pushed by a group are ordered by decreasing child index, so that
+     * the ones which are no longer on top of the next child are on top of the
+     * stack and can be popped. The stack is kept in the NGTempState of the
+     * rendering thread, as a scene may be printed while it is rendered.
+     */
+    static final int MAX_OCCLUDERS = 32;
+
+    /**
+     * Batching. The children which do not overlap may be rendered in any
+     * order, so the children which issue the same kind of draws are rendered
+     * one after the other, letting the pipeline merge their draws. Each child
+     * is assigned a level, which is above the levels of all of the earlier
+     * children it overlaps unless they are of the same kind, and the children
+     * are rendered by level, then kind, then index.
+     */
+    private static final int MAX_BATCHED_CHILDREN = 256;
+
+    /**
+     * The maximum number of overlap tests done to batch the children of a
+     * group, beyond which the children are rendered in order, so that large
+     * groups do not pay a quadratic cost on each frame.
+     */
+    static final int MAX_BATCH_TESTS = 8192;
+
+    /**
+     * The arrays used to batch the children of a group, kept in the
+     * NGTempState of the rendering thread, one per level of nested groups
+     * being batched.
+     */
+    static final class BatchState {
+        final RectBounds childBounds = new RectBounds();
+        long[] order = new long[0];
+        float[] bounds;
+        int[] levels;
+        int[] kinds;
+
+        void ensureCapacity(int n) {
+            if (order.length < n) {
+                order = new long[n];
+                bounds = new float[n * 4];
+                levels = new int[n];
+                kinds = new int[n];
+            }
+        }
+    }
+
     /***************************************************************************
      *                                                                         *
      * Implementation of the PGGroup interface                                 *
@@ -258,17 +315,42 @@ public class NGGroup extends NGNode {
         if (blendMode == Blend.Mode.SRC_OVER ||
                 orderedChildren.size() < 2) {  // Blend modes only work "between" siblings
 
-            for (int i = startPos; i < orderedChildren.size(); i++) {
-                NGNode child;
-                try {
-                    child = orderedChildren.get(i);
-                } catch (Exception e) {
-                    child = null;
+            final boolean occlusion = PrismSettings.occlusionCullingEnabled && canCullOccluded(g);
+            final NGTempState ts = NGTempState.getInstance();
+            final int prevOccluderCount = ts.occluderCount;
+            final int prevFirstOccluder = ts.firstOccluder;
+            final Graphics prevOccluderGraphics = ts.occluderGraphics;
+            try {
+                if (occlusion) {
+                    if (ts.occluderGraphics != g) {
+                        ts.firstOccluder = ts.occluderCount;
+                        ts.occluderGraphics = g;
+                    }
+                    pushOccluders(ts, g, orderedChildren, startPos);
                 }
-                // minimal protection against concurrent update of the list.
-                if (child != null) {
-                    child.render(g);
+                if (startPos == 0 && renderBatched(g, orderedChildren, occlusion, prevOccluderCount)) {
+                    return;
                 }
+                for (int i = startPos; i < orderedChildren.size(); i++) {
+                    NGNode child;
+                    try {
+                        child = orderedChildren.get(i);
+                    } catch (Exception e) {
+                        child = null;
+                    }
+                    // minimal protection against concurrent update of the list.
+                    if (child != null) {
+                        if (occlusion && isOccluded(ts, g, child, i, prevOccluderCount)) {
+                            child.clearDirtyTree();
+                            continue;
+                        }
+                        child.render(g);
+                    }
+                }
+            } finally {
+                ts.occluderCount = prevOccluderCount;
+                ts.firstOccluder = prevFirstOccluder;
+                ts.occluderGraphics = prevOccluderGraphics;
             }
             return;
         }
@@ -314,6 +396,206 @@ public class NGGroup extends NGNode {
         }
     }
 
+    /**
+     * Renders the children reordered so that the ones of the same kind are
+     * rendered together, if there are enough of them to be worth it. Only the
+     * leaf children which are rendered directly are batched, the other ones
+     * keep their order with the siblings they overlap, and only when the
+     * transform keeps their device bounds axis aligned.
+     *
+     * @return false if the children were not rendered
+     */
+    private boolean renderBatched(Graphics g, List<NGNode> children,
+                                  boolean occlusion, int groupOccluders) {
+        final int n = children.size();
+        // Only the pipelines which merge the draws into vertex batches
+        // gain anything from the reordering
+        if (!PrismSettings.batchSiblings || !(g instanceof BaseGraphics) ||
+                n < 3 || n > MAX_BATCHED_CHILDREN ||
+                g.getRenderRoot() != null || g.isDepthBuffer()) {
+            return false;
+        }
+        final BaseTransform tx = g.getTransformNoClone();
+        if ((tx.getType() & ~(BaseTransform.TYPE_TRANSLATION | BaseTransform.TYPE_MASK_SCALE)) != 0) {
+            return false;
+        }
+        final NGTempState ts = NGTempState.getInstance();
+        if (ts.batchDepth == ts.batchStates.size()) {
+            ts.batchStates.add(new BatchState());
+        }
+        final BatchState state = ts.batchStates.get(ts.batchDepth++);
+        try {
+            return renderBatched(ts, state, g, tx, children, occlusion, groupOccluders);
+        } finally {
+            ts.batchDepth--;
+        }
+    }
+
+    private static boolean renderBatched(NGTempState ts, BatchState state,
+                                         Graphics g, BaseTransform tx,
+                                         List<NGNode> children,
+                                         boolean occlusion, int groupOccluders) {
+        final int n = children.size();
+        state.ensureCapacity(n);
+        final int[] kinds = state.kinds;
+        int kindsSeen = 0;
+        for (int i = 0; i < n; i++) {
+            final NGNode child = children.get(i);
+            int kind = child.getBatchKind();
+            // A nested group batches its own children, it is kept in order
+            // with the siblings it overlaps
+            if (child instanceof NGGroup ||
+                    child.getEffect() != null || child.getClipNode() != null ||
+                    child.getOpacity() < 1f || child.getNodeBlendMode() != null ||
+                    child.getCacheFilter() != null) {
+                kind = BATCH_NONE;
+            }
+            kinds[i] = kind;
+            kindsSeen |= 1 << kind;
+        }
+        if (Integer.bitCount(kindsSeen & ~(1 << BATCH_NONE)) < 2) {
+            // Nothing to gain, the children are already grouped by kind
+            return false;
+        }
+
+        // The device bounds of the children, with a margin for the pixels
+        // which are touched by antialiasing
+        final float[] bounds = state.bounds;
+        final int[] levels = state.levels;
+        final long[] order = state.order;
+        int count = 0;
+        int tests = 0;
+        for (int i = 0; i < n; i++) {
+            final NGNode child = children.get(i);
+            if (occlusion && isOccluded(ts, g, child, i, groupOccluders)) {
+                child.clearDirtyTree();
+                continue;
+            }
+            final int off = i * 4;
+            int level = 0;
+            BaseBounds b = child.computePadding(state.childBounds.deriveWithNewBounds(child.transformedBounds));
+            b = tx.transform(b, b);
+            if (!child.isVisible() || b.isEmpty()) {
+                // Renders nothing, so it overlaps nothing
+                bounds[off] = bounds[off + 1] = 0f;
+                bounds[off + 2] = bounds[off + 3] = -1f;
+            } else {
+                final float x0 = (float) Math.floor(b.getMinX()) - 1f;
+                final float y0 = (float) Math.floor(b.getMinY()) - 1f;
+                final float x1 = (float) Math.ceil(b.getMaxX()) + 1f;
+                final float y1 = (float) Math.ceil(b.getMaxY()) + 1f;
+                bounds[off] = x0;
+                bounds[off + 1] = y0;
+                bounds[off + 2] = x1;
+                bounds[off + 3] = y1;
+                tests += count;
+                if (tests > MAX_BATCH_TESTS) {
+                    return false;
+                }
+                for (int k = 0; k < count; k++) {
+                    final int j = (int) order[k];
+                    final int offj = j * 4;
+                    if (x0 < bounds[offj + 2] && bounds[offj] < x1 &&
+                            y0 < bounds[offj + 3] && bounds[offj + 1] < y1) {
+                        final boolean merge = kinds[i] == kinds[j] && kinds[i] != BATCH_NONE;
+                        level = Math.max(level, levels[j] + (merge ? 0 : 1));
+                    }
+                }
+            }
+            levels[i] = level;
+            order[count++] = i;
+        }
+        for (int k = 0; k < count; k++) {
+            final int i = (int) order[k];
+            order[k] = ((long) levels[i] << 40) | ((long) kinds[i] << 32) | i;
+        }
+        Arrays.sort(order, 0, count);
+
+        for (int k = 0; k < count; k++) {
+            children.get((int) (order[k] & 0xffffffffL)).render(g);
+        }
+        return true;
+    }
+
+    /**
+     * Occluders are only tracked as axis aligned rectangles in device space,
+     * and only when the render order decides what is visible.
+     */
+    private static boolean canCullOccluded(Graphics g) {
+        final BaseTransform tx = g.getTransformNoClone();
+        return !g.isDepthBuffer() && g.getExtraAlpha() == 1f &&
+                (tx.getType() & ~(BaseTransform.TYPE_TRANSLATION | BaseTransform.TYPE_MASK_SCALE)) == 0;
+    }
+
+    /**
+     * Pushes the opaque regions of the children, starting with the last one,
+     * in device space. Only the pixels fully covered by an opaque region count,
+     * the partially covered ones at its edges may be blended.
+     */
+    private static void pushOccluders(NGTempState ts, Graphics g, List<NGNode> children, int startPos) {
+        for (int i = children.size() - 1; i > startPos && ts.occluderCount < MAX_OCCLUDERS; i--) {
+            final NGNode child = children.get(i);
+            if (!child.isVisible()) {
+                continue;
+            }
+            final RectBounds opaqueRegion = child.getOpaqueRegion();
+            if (opaqueRegion == null) {
+                continue;
+            }
+            ts.occluderTx.setTransform(g.getTransformNoClone());
+            ts.occluderTx.concatenate(child.getTransform());
+            if ((ts.occluderTx.getType() & ~(BaseTransform.TYPE_TRANSLATION | BaseTransform.TYPE_MASK_SCALE)) != 0) {
+                continue;
+            }
+            final BaseBounds b = ts.occluderTx.transform(opaqueRegion, ts.occluderBounds);
+            final float x0 = (float) Math.ceil(b.getMinX());
+            final float y0 = (float) Math.ceil(b.getMinY());
+            final float x1 = (float) Math.floor(b.getMaxX());
+            final float y1 = (float) Math.floor(b.getMaxY());
+            if (x0 >= x1 || y0 >= y1) {
+                continue;
+            }
+            RectBounds occluder = ts.occluders[ts.occluderCount];
+            if (occluder == null) {
+                occluder = ts.occluders[ts.occluderCount] = new RectBounds();
+            }
+            occluder.setBounds(x0, y0, x1, y1);
+            ts.occluderIndex[ts.occluderCount++] = i;
+        }
+    }
+
+    /**
+     * Checks whether the child at the given index is hidden by one of the
+     * occluders which are rendered after it.
+     */
+    private static boolean isOccluded(NGTempState ts, Graphics g, NGNode child, int index, int groupOccluders) {
+        // The occluders of the children up to this one are not in front of it
+        while (ts.occluderCount > groupOccluders && ts.occluderIndex[ts.occluderCount - 1] <= index) {
+            ts.occluderCount--;
+        }
+        if (ts.occluderCount == ts.firstOccluder) {
+            return false;
+        }
+        // With the same padding as when the child is rendered, for the pixels
+        // touched outside of its bounds, such as the overhang of LCD text
+        BaseBounds b = child.computePadding(ts.occluderBounds.deriveWithNewBounds(child.transformedBounds));
+        b = g.getTransformNoClone().transform(b, b);
+        if (b.isEmpty()) {
+            return false;
+        }
+        for (int i = ts.firstOccluder; i < ts.occluderCount; i++) {
+            final RectBounds occluder = ts.occluders[i];
+            if (b.getMinX() >= occluder.getMinX() && b.getMinY() >= occluder.getMinY() &&
+                    b.getMaxX() <= occluder.getMaxX() && b.getMaxY() <= occluder.getMaxY()) {
+                if (PulseLogger.PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Nodes occluded");
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected boolean hasOverlappingContents() {
         if (blendMode != Mode.SRC_OVER) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,6 +26,7 @@
 package com.sun.javafx.sg.prism;
 
 import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
 import com.sun.prism.Graphics;
 import com.sun.prism.Image;
 import com.sun.prism.ResourceFactory;
@@ -118,11 +119,17 @@ public class NGImageView extends NGNode {
         ResourceFactory factory = g.getResourceFactory();
         int maxSize = maxSizeWrapper(factory);
         if (imgW <= maxSize && imgH <= maxSize) {
-            Texture texture = factory.getCachedTexture(image, Texture.WrapMode.CLAMP_TO_EDGE);
+            final Rectangle atlasBounds = NGTempState.getInstance().atlasBounds;
+            Texture texture = factory.getCachedAtlasTexture(image, atlasBounds);
+            if (texture == null) {
+                return;
+            }
+            final int u = atlasBounds.x;
+            final int v = atlasBounds.y;
             if (coords == null) {
-                g.drawTexture(texture, x, y, x + w, y + h, 0, 0, imgW, imgH);
+                g.drawTexture(texture, x, y, x + w, y + h, u, v, u + imgW, v + imgH);
             } else {
-                coords.draw(texture, g, x, y);
+                coords.draw(texture, g, x, y, u, v);
             }
             texture.unlock();
         } else {
@@ -140,6 +147,11 @@ public class NGImageView extends NGNode {
         return false;
     }
 
+    @Override
+    protected int getBatchKind() {
+        return BATCH_IMAGE;
+    }
+
     public void setImage(Object img) {
         Image newImage = (Image)img;
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2016, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -945,16 +945,23 @@ public abstract class NGNode {
         if (cacheFilter != null) {
             cacheFilter.invalidate();
         }
+        if (effectFilter != null) {
+            effectFilter.invalidate();
+        }
     }
 
     /**
      * Mark the cache as invalid due to a translation of a child. The cache filter
-     * might use this information for optimizations.
+     * might use this information for optimizations. The output of the effect
+     * depends on the position of the child, so it is invalid anyway.
      */
     protected final void invalidateCacheByTranslation(DirtyHint hint) {
         if (cacheFilter != null) {
             cacheFilter.invalidateByTranslation(hint.translateXDelta, hint.translateYDelta);
         }
+        if (effectFilter != null) {
+            effectFilter.invalidate();
+        }
     }
 
     /***************************************************************************
@@ -2122,7 +2129,8 @@ public abstract class NGNode {
         // The following is safe; curXform will not be mutated below
         BaseTransform curXform = g.getTransformNoClone();
 
-        BaseBounds clipBounds = getClippedBounds(new RectBounds(), curXform);
+        BaseBounds clipBounds = getClippedBounds(
+                NGTempState.getInstance().deviceBounds.makeEmpty(), curXform);
         if (clipBounds.isEmpty()) {
             clearDirtyTree();
             return;
@@ -2220,7 +2228,8 @@ public abstract class NGNode {
         // The following is safe; curXform will not be mutated below
         BaseTransform curXform = g.getTransformNoClone();
 
-        BaseBounds clipBounds = getClippedBounds(new RectBounds(), curXform);
+        BaseBounds clipBounds = getClippedBounds(
+                NGTempState.getInstance().deviceBounds.makeEmpty(), curXform);
         if (clipBounds.isEmpty()) {
             clearDirtyTree();
             return;
@@ -2341,7 +2350,8 @@ public abstract class NGNode {
 
         FilterContext fctx = getFilterContext(g);
         BaseTransform curXform = g.getTransformNoClone();
-        BaseBounds bounds = getContentBounds(new RectBounds(), curXform);
+        BaseBounds bounds = getContentBounds(
+                NGTempState.getInstance().deviceBounds.makeEmpty(), curXform);
         Rectangle r = new Rectangle(bounds);
         r.intersectWith(PrEffectHelper.getGraphicsClipNoClone(g));
         PrDrawable img = (PrDrawable)
@@ -2388,6 +2398,25 @@ public abstract class NGNode {
 
     protected abstract boolean hasOverlappingContents();
 
+    /**
+     * The kinds of draw operations returned by {@link #getBatchKind()}.
+     */
+    protected static final int BATCH_NONE = 0;
+    protected static final int BATCH_SHAPE = 1;
+    protected static final int BATCH_TEXT = 2;
+    protected static final int BATCH_IMAGE = 3;
+
+    /**
+     * Returns the kind of the draw operations issued by
+     * {@link #renderContent}, so that the parent group can render its
+     * children of the same kind together when that does not change the
+     * result, which lets the pipeline merge their draws.
+     * {@code BATCH_NONE} if unknown.
+     */
+    protected int getBatchKind() {
+        return BATCH_NONE;
+    }
+
     /***************************************************************************
      *                                                                         *
      *                       Static Helper Methods.                            *
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -108,7 +108,9 @@ public class NGRectangle extends NGShape {
     }
 
     private boolean renderEffectDirectly(Graphics g) {
-        if (mode != Mode.FILL || isRounded()) {
+        if (mode != Mode.FILL ||
+            (isRounded() && rrect.arcWidth != rrect.arcHeight))
+        {
             // TODO: Allow solid strokes that are square in the corners... (RT-26974)
             return false;
         }
@@ -123,7 +125,8 @@ public class NGRectangle extends NGShape {
         if (EffectUtil.renderEffectForRectangularNode(this, g, effect,
                                                       alpha, true /* antialiased */,
                                                       rrect.x, rrect.y,
-                                                      rrect.width, rrect.height))
+                                                      rrect.width, rrect.height,
+                                                      isRounded() ? rrect.arcWidth / 2 : 0f))
         {
             return true;
         }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -53,6 +53,7 @@ import java.util.WeakHashMap;
 import com.sun.glass.ui.Screen;
 import com.sun.javafx.PlatformUtil;
 import com.sun.javafx.application.PlatformImpl;
+import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.Path2D;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Rectangle;
@@ -73,6 +74,7 @@ import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.paint.ImagePattern;
 import com.sun.prism.paint.Paint;
 import com.sun.prism.PrinterGraphics;
+import com.sun.prism.RectShadowGraphics;
 import com.sun.scenario.effect.Offset;
 
 /**
@@ -579,6 +581,110 @@ public class NGRegion extends NGGroup {
         super.renderContent(g);
     }
 
+    @Override
+    protected void renderEffect(Graphics g) {
+        if (!(g instanceof RectShadowGraphics) || !renderEffectDirectly(g)) {
+            super.renderEffect(g);
+        }
+    }
+
+    /**
+     * Renders a drop shadow without blurring the content of the region, when
+     * that content has the outline of a single rounded rectangle: an opaque
+     * background fill with uniform circular corners, which holds the other
+     * fills and the children. Cards and popups styled with a few background
+     * fills and a drop shadow are rendered this way.
+     */
+    private boolean renderEffectDirectly(Graphics g) {
+        if (shape != null || !border.isEmpty() || !background.getImages().isEmpty() ||
+            !g.getTransformNoClone().is2D())
+        {
+            return false;
+        }
+        final List<BackgroundFill> fills = background.getFills();
+        // The outer fill is the one with the smallest insets on every side
+        int outer = -1;
+        Insets oi = null;
+        for (int i = 0, max = fills.size(); i < max; i++) {
+            final Insets insets = fills.get(i).getInsets();
+            if (oi == null ||
+                (insets.getTop() <= oi.getTop() && insets.getRight() <= oi.getRight() &&
+                 insets.getBottom() <= oi.getBottom() && insets.getLeft() <= oi.getLeft()))
+            {
+                outer = i;
+                oi = insets;
+            }
+        }
+        if (outer < 0 || !fills.get(outer).getFill().isOpaque()) {
+            return false;
+        }
+        final CornerRadii radii = getNormalizedFillRadii(outer);
+        final float arc = (float) radii.getTopLeftHorizontalRadius();
+        if (!radii.isUniform() || radii.getTopLeftVerticalRadius() != arc) {
+            return false;
+        }
+        final float l = (float) oi.getLeft(), t = (float) oi.getTop();
+        final float w = width - l - (float) oi.getRight();
+        final float h = height - t - (float) oi.getBottom();
+        if (w <= 0 || h <= 0) {
+            return false;
+        }
+
+        // A fill inset by d from the outer fill lies inside it if none of
+        // its corner radii is smaller than arc - d
+        for (int i = 0, max = fills.size(); i < max; i++) {
+            final Insets insets = fills.get(i).getInsets();
+            final double fw = width - insets.getLeft() - insets.getRight();
+            final double fh = height - insets.getTop() - insets.getBottom();
+            if (i == outer || fw <= 0 || fh <= 0) {
+                continue;
+            }
+            final double d = Math.min(Math.min(insets.getTop() - oi.getTop(),
+                                               insets.getRight() - oi.getRight()),
+                                      Math.min(insets.getBottom() - oi.getBottom(),
+                                               insets.getLeft() - oi.getLeft()));
+            if (d < 0 || getMinRadius(getNormalizedFillRadii(i), fw, fh) < arc - d) {
+                return false;
+            }
+        }
+
+        // The children must lie inside the outer fill, away from its corners
+        final List<NGNode> children = getChildren();
+        if (!children.isEmpty()) {
+            final float inset = 2 * arc * NGRectangle.HALF_MINUS_HALF_SQRT_HALF;
+            final float x1 = l + inset, y1 = t + inset;
+            final float x2 = l + w - inset, y2 = t + h - inset;
+            final RectBounds childBounds = NGTempState.getInstance().regionChildBounds;
+            for (int i = 0, max = children.size(); i < max; i++) {
+                final BaseBounds b = children.get(i).getCompleteBounds(childBounds,
+                        BaseTransform.IDENTITY_TRANSFORM);
+                if (!b.isEmpty() &&
+                    (b.getMinX() < x1 || b.getMinY() < y1 ||
+                     b.getMaxX() > x2 || b.getMaxY() > y2))
+                {
+                    return false;
+                }
+            }
+        }
+
+        return EffectUtil.renderEffectForRectangularNode(this, g, getEffect(),
+                                                         g.getExtraAlpha(), true,
+                                                         l, t, w, h, arc);
+    }
+
+    private static double getMinRadius(CornerRadii radii, double w, double h) {
+        double r = Math.min(Math.min(radii.getTopLeftHorizontalRadius(),
+                                     radii.getTopLeftVerticalRadius()),
+                            Math.min(radii.getTopRightHorizontalRadius(),
+                                     radii.getTopRightVerticalRadius()));
+        r = Math.min(r, Math.min(Math.min(radii.getBottomRightHorizontalRadius(),
+                                          radii.getBottomRightVerticalRadius()),
+                                 Math.min(radii.getBottomLeftHorizontalRadius(),
+                                          radii.getBottomLeftVerticalRadius())));
+        // Arcs larger than the fill are reduced to its size when drawn
+        return Math.min(r, Math.min(w, h) / 2);
+    }
+
     /**************************************************************************
      *                                                                        *
      * Drawing a region background and borders when the Region has been       *
@@ -876,11 +982,14 @@ public class NGRegion extends NGGroup {
                     // fill the entire space, there is no need to know the repeat or position or
                     // size width / height.
                     final float scale = Math.max(width / imgWidth,height / imgHeight);
+                    final Rectangle atlasBounds = NGTempState.getInstance().atlasBounds;
                     final Texture texture =
-                        g.getResourceFactory().getCachedTexture(prismImage, Texture.WrapMode.CLAMP_TO_EDGE);
+                        g.getResourceFactory().getCachedAtlasTexture(prismImage, atlasBounds);
+                    final int u = atlasBounds.x;
+                    final int v = atlasBounds.y;
                     g.drawTexture(texture,
                             0, 0, width, height,
-                            0, 0, width/scale, height/scale
+                            u, v, u + width/scale, v + height/scale
                     );
                     texture.unlock();
                 } else {
@@ -1972,10 +2081,13 @@ public class NGRegion extends NGGroup {
             }
 
             // paint loop
+            final Rectangle atlasBounds = NGTempState.getInstance().atlasBounds;
             final Texture texture =
-                g.getResourceFactory().getCachedTexture(img, Texture.WrapMode.CLAMP_TO_EDGE);
-            final int srcX2 = srcX + srcW;
-            final int srcY2 = srcY + srcH;
+                g.getResourceFactory().getCachedAtlasTexture(img, atlasBounds);
+            final int u = srcX + atlasBounds.x;
+            final int v = srcY + atlasBounds.y;
+            final int srcX2 = u + srcW;
+            final int srcY2 = v + srcH;
             final float regionX2 = regionX + regionWidth;
             final float regionY2 = regionY + regionHeight;
 
@@ -1999,8 +2111,8 @@ public class NGRegion extends NGGroup {
                     if (!skipRender) {
                         // We know that dstX, dstY, dstX2, dstY2 overlap the region drawing area. Now we need
                         // to compute the source rectangle, and then draw.
-                        float sx1 = dstX < regionX ? srcX + srcW * (-tileX / tileWidth) : srcX;
-                        float sy1 = dstY < regionY ? srcY + srcH * (-tileY / tileHeight) : srcY;
+                        float sx1 = dstX < regionX ? u + srcW * (-tileX / tileWidth) : u;
+                        float sy1 = dstY < regionY ? v + srcH * (-tileY / tileHeight) : v;
                         float sx2 = dstX2 > regionX2 ? srcX2 - srcW * ((dstX2 - regionX2) / tileWidth) : srcX2;
                         float sy2 = dstY2 > regionY2 ? srcY2 - srcH * ((dstY2 - regionY2) / tileHeight) : srcY2;
 //                        System.out.println("g.drawTexture(texture, " + dx1 + ", " + dy1 + ", " + dx2 + ", " + dy2 + ", " + sx1 + ", " + sy1 + ", " + sx2 + ", " + sy2 + ")");
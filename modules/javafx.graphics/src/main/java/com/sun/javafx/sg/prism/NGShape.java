@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -306,6 +306,11 @@ public abstract class NGShape extends NGNode {
         return mode == Mode.STROKE_FILL;
     }
 
+    @Override
+    protected int getBatchKind() {
+        return BATCH_SHAPE;
+    }
+
     protected Shape getStrokeShape() {
         return drawStroke.createStrokedShape(getShape());
     }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import java.util.ArrayList;
+import com.sun.javafx.geom.BoxBounds;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine3D;
+import com.sun.prism.Graphics;
+
+/**************************************************************************
+ *                                                                        *
+ * Temporary state, used to reduce the occurrence of temporary garbage    *
+ * while computing the bounds needed to render a node. The state is per   *
+ * thread as the scene graph is also rendered outside of the render       *
+ * thread, for instance when printing.                                    *
+ *                                                                        *
+ *************************************************************************/
+final class NGTempState {
+    /**
+     * A temporary bounds used by NGNode to compute the device bounds of
+     * the offscreen images of blend modes, clips and opacity. The bounds
+     * must be consumed before rendering any node.
+     */
+    final RectBounds deviceBounds = new RectBounds();
+
+    /**
+     * Temporary bounds used by NGText to compute the node bounds, the clip
+     * and the visible area of the text while it is rendered.
+     */
+    final RectBounds textNodeBounds = new RectBounds();
+    final RectBounds textClipBounds = new RectBounds();
+    final RectBounds textVisibleBounds = new RectBounds();
+
+    /**
+     * The location of an image in its texture, which may be shared with
+     * other images, set by getCachedAtlasTexture for NGImageView and the
+     * background images of NGRegion. It must be read before rendering any
+     * other image.
+     */
+    final Rectangle atlasBounds = new Rectangle();
+
+    /**
+     * A temporary bounds used by NGRegion for the bounds of its children
+     * when checking whether its drop shadow can be rendered directly.
+     */
+    final RectBounds regionChildBounds = new RectBounds();
+
+    /**
+     * The stack of occluders used by NGGroup to skip the children hidden by
+     * their opaque siblings, in device space, with the indices of the
+     * children they come from. Only the entries from firstOccluder up apply
+     * to occluderGraphics, the graphics being rendered to.
+     */
+    final RectBounds[] occluders = new RectBounds[NGGroup.MAX_OCCLUDERS];
+    final int[] occluderIndex = new int[NGGroup.MAX_OCCLUDERS];
+    int occluderCount;
+    int firstOccluder;
+    Graphics occluderGraphics;
+
+    /**
+     * A temporary transform and bounds used by NGGroup to find the device
+     * bounds of the occluders and of the children they may hide.
+     */
+    final Affine3D occluderTx = new Affine3D();
+    final BoxBounds occluderBounds = new BoxBounds();
+
+    /**
+     * The state used by NGGroup to batch the children of a group, one per
+     * level of nested groups being batched, batchDepth being in use.
+     */
+    final ArrayList<NGGroup.BatchState> batchStates = new ArrayList<>();
+    int batchDepth;
+
+    private static final ThreadLocal<NGTempState> tempStateRef =
+            new ThreadLocal<NGTempState>() {
+                @Override
+                protected NGTempState initialValue() {
+                    return new NGTempState();
+                }
+            };
+
+    private NGTempState() {
+    }
+
+    static NGTempState getInstance() {
+        return tempStateRef.get();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -36,6 +36,7 @@ import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.RoundRectangle2D;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.geom.transform.NoninvertibleTransformException;
 import com.sun.javafx.scene.text.GlyphList;
 import com.sun.javafx.text.TextRun;
 import com.sun.prism.Graphics;
@@ -115,6 +116,11 @@ public class NGText extends NGShape {
                                           region.getMaxZ());
     }
 
+    @Override
+    protected int getBatchKind() {
+        return BATCH_TEXT;
+    }
+
     private static double EPSILON = 0.01;
     private FontStrike fontStrike = null;
     private FontStrike identityStrike = null;
@@ -247,7 +253,8 @@ public class NGText extends NGShape {
              * setNodeBounds for LCD text rendering and is required for correct
              * proportional gradient.
              */
-            BaseBounds bds = getContentBounds(new RectBounds(), IDENT);
+            BaseBounds bds = getContentBounds(
+                    NGTempState.getInstance().textNodeBounds.makeEmpty(), IDENT);
             g.setNodeBounds((RectBounds)bds);
         }
 
@@ -259,7 +266,21 @@ public class NGText extends NGShape {
         BaseBounds clipBds = null;
         if (getClipNode() != null) {
             // Note: this clip does not including any clip in the ancestors.
-            clipBds = getClippedBounds(new RectBounds(), IDENT);
+            clipBds = getClippedBounds(
+                    NGTempState.getInstance().textClipBounds.makeEmpty(), IDENT);
+        }
+        if (!printing && tx.is2D()) {
+            /* Skip the runs outside of the clip of the ancestors as well
+             * (i.e. a scroll pane), so that rendering a large text costs in
+             * proportion to its visible part. */
+            BaseBounds visibleBds = getVisibleBounds(g, tx);
+            if (visibleBds != null) {
+                if (clipBds == null) {
+                    clipBds = visibleBds;
+                } else {
+                    clipBds.intersectWith(visibleBds);
+                }
+            }
         }
 
         // FILL or STROKE_FILL
@@ -290,9 +311,49 @@ public class NGText extends NGShape {
         g.setNodeBounds(null);
     }
 
+    /**
+     * Returns the device clip of the graphics in local coordinates, grown by
+     * the size of the font as glyphs can extend outside of their line.
+     */
+    private BaseBounds getVisibleBounds(Graphics g, BaseTransform tx) {
+        RectBounds deviceClip = g.getFinalClipNoClone();
+        if (deviceClip == null || deviceClip.isEmpty()) return null;
+        BaseBounds bds;
+        try {
+            bds = tx.inverseTransform(deviceClip,
+                    NGTempState.getInstance().textVisibleBounds);
+        } catch (NoninvertibleTransformException e) {
+            return null;
+        }
+        float margin = font != null ? font.getSize() : 0;
+        return bds.deriveWithNewBounds(bds.getMinX() - margin, bds.getMinY() - margin, 0,
+                                       bds.getMaxX() + margin, bds.getMaxY() + margin, 0);
+    }
+
+    /**
+     * Returns the index of the first run which line ends at or below minY,
+     * the runs are sorted by line.
+     */
+    private int getFirstRun(float minY) {
+        int low = 0;
+        int high = runs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            TextRun run = (TextRun)runs[mid];
+            float y = run.getLocation().y - layoutY;
+            if (y + run.getLineBounds().getHeight() < minY) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
     private void renderText(Graphics g, FontStrike strike, BaseBounds clipBds,
                             Color selectionColor, int op) {
-        for (int i = 0; i < runs.length; i++) {
+        int first = clipBds != null ? getFirstRun(clipBds.getMinY()) : 0;
+        for (int i = first; i < runs.length; i++) {
             TextRun run = (TextRun)runs[i];
             RectBounds lineBounds = run.getLineBounds();
             Point2D pt = run.getLocation();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,17 +25,167 @@
 
 package com.sun.javafx.text;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import com.sun.javafx.font.CharToGlyphMapper;
+import com.sun.javafx.font.FontResource;
 import com.sun.javafx.font.PGFont;
 
 class LayoutCache {
+
+    /**
+     * Identifies a layout: the text, the font and every property of the
+     * layout that changes its lines.
+     */
+    static final class Key {
+        private final char[] text;
+        private final PGFont font;
+        private final int flags;
+        private final float wrapWidth;
+        private final float spacing;
+        private final int tabSize;
+        private final int hash;
+
+        Key(char[] text, PGFont font, int flags, float wrapWidth,
+            float spacing, int tabSize) {
+            this.text = text;
+            this.font = font;
+            this.flags = flags;
+            this.wrapWidth = wrapWidth;
+            this.spacing = spacing;
+            this.tabSize = tabSize;
+            int h = Arrays.hashCode(text);
+            h = 31 * h + font.hashCode();
+            h = 31 * h + flags;
+            h = 31 * h + Float.floatToIntBits(wrapWidth);
+            h = 31 * h + Float.floatToIntBits(spacing);
+            h = 31 * h + tabSize;
+            hash = h;
+        }
+
+        int getLength() {
+            return text.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key)obj;
+            return hash == other.hash &&
+                   flags == other.flags &&
+                   tabSize == other.tabSize &&
+                   Float.floatToIntBits(wrapWidth) == Float.floatToIntBits(other.wrapWidth) &&
+                   Float.floatToIntBits(spacing) == Float.floatToIntBits(other.spacing) &&
+                   font.equals(other.font) &&
+                   Arrays.equals(text, other.text);
+        }
+    }
+
+    /**
+     * Layouts shared by all the instances of PrismTextLayout, in access
+     * order so that the least recently used are evicted first once the text
+     * of the layouts exceeds the given number of characters.
+     */
+    static final class SharedLayouts {
+        private final LinkedHashMap<Key, LayoutCache> layouts =
+                new LinkedHashMap<>(64, 0.75f, true);
+        private final int maxSize;
+        private int size;
+
+        SharedLayouts(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        synchronized LayoutCache get(Key key) {
+            return layouts.get(key);
+        }
+
+        synchronized void put(Key key, LayoutCache cache) {
+            if (layouts.put(key, cache) == null) {
+                size += key.getLength();
+            }
+            Iterator<Key> iter = layouts.keySet().iterator();
+            while (size > maxSize && iter.hasNext()) {
+                size -= iter.next().getLength();
+                iter.remove();
+            }
+        }
+
+        /**
+         * Returns the number of characters of the text of the layouts.
+         */
+        synchronized int getSize() {
+            return size;
+        }
+    }
+
     int[] glyphs;
     float[] advances;
     boolean valid;
     int analysis;
-    char[] text;
-    PGFont font;
     TextRun[] runs;
     int runCount;
     TextLine[] lines;
     float layoutWidth, layoutHeight;
+
+    /**
+     * Creates the glyphs and advances of a text from the ones of the
+     * previous text of a layout, so that only the characters that were
+     * edited are mapped again. Editing a large text then costs copying the
+     * arrays rather than shaping all of it. Returns null when the two texts
+     * have nothing in common.
+     */
+    static LayoutCache reuseShaping(LayoutCache oldCache, char[] oldText,
+                                    char[] chars, FontResource fr,
+                                    float fontSize) {
+        int oldLength = oldText.length;
+        int length = chars.length;
+        int max = Math.min(oldLength, length);
+        int prefix = 0;
+        while (prefix < max && oldText[prefix] == chars[prefix]) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < max - prefix &&
+               oldText[oldLength - suffix - 1] == chars[length - suffix - 1]) {
+            suffix++;
+        }
+        /* The glyphs of a surrogate pair depend on both characters, map the
+         * pairs broken by the edit again */
+        int end = length - suffix;
+        if (prefix > 0 && Character.isHighSurrogate(chars[prefix - 1])) {
+            prefix--;
+        }
+        if (end < length && Character.isLowSurrogate(chars[end])) {
+            end++;
+        }
+        suffix = length - end;
+        if (prefix == 0 && suffix == 0) return null;
+
+        LayoutCache cache = new LayoutCache();
+        cache.glyphs = new int[length];
+        cache.advances = new float[length];
+        System.arraycopy(oldCache.glyphs, 0, cache.glyphs, 0, prefix);
+        System.arraycopy(oldCache.advances, 0, cache.advances, 0, prefix);
+        System.arraycopy(oldCache.glyphs, oldLength - suffix, cache.glyphs, length - suffix, suffix);
+        System.arraycopy(oldCache.advances, oldLength - suffix, cache.advances, length - suffix, suffix);
+
+        if (prefix < end) {
+            CharToGlyphMapper mapper = fr.getGlyphMapper();
+            mapper.charsToGlyphs(prefix, end - prefix, chars, cache.glyphs, prefix);
+            for (int i = prefix; i < end; i++) {
+                cache.advances[i] = fr.getAdvance(cache.glyphs[i], fontSize);
+            }
+        }
+        cache.valid = true;
+        return cache;
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -50,7 +50,6 @@ import java.text.Bidi;
 import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Hashtable;
 
 public class PrismTextLayout implements TextLayout {
     private static final BaseTransform IDENTITY = BaseTransform.IDENTITY_TRANSFORM;
@@ -59,17 +58,18 @@ public class PrismTextLayout implements TextLayout {
     private static final int X_MAX_INDEX = 2;
     private static final int Y_MAX_INDEX = 3;
 
-    private static final Hashtable<Integer, LayoutCache> stringCache = new Hashtable<>();
-    private static final Object  CACHE_SIZE_LOCK = new Object();
-    private static int cacheSize = 0;
+    private static final int CACHE_KEY_MASK = ALIGN_MASK | BOUNDS_MASK | DIRECTION_MASK;
     private static final int MAX_STRING_SIZE = 256;
     private static final int MAX_CACHE_SIZE = PrismFontFactory.cacheLayoutSize;
+    /* Layouts of short strings shared by all the instances */
+    private static final LayoutCache.SharedLayouts stringCache =
+            new LayoutCache.SharedLayouts(MAX_CACHE_SIZE);
 
     private char[] text;
     private TextSpan[] spans;   /* Rich text  (null for single font text) */
     private PGFont font;        /* Single font text (null for rich text) */
     private FontStrike strike;  /* cached strike of font (identity) */
-    private Integer cacheKey;
+    private LayoutCache.Key cacheKey;
     private TextLine[] lines;
     private TextRun[] runs;
     private int runCount;
@@ -132,16 +132,20 @@ public class PrismTextLayout implements TextLayout {
     }
 
     public boolean setContent(String text, Object font) {
+        LayoutCache oldCache = layoutCache;
+        char[] oldText = this.text;
+        PGFont oldFont = this.font;
         reset();
         this.spans = null;
         this.font = (PGFont)font;
         this.strike = ((PGFont)font).getStrike(IDENTITY);
         this.text = text.toCharArray();
-        if (MAX_CACHE_SIZE > 0) {
-            int length = text.length();
-            if (0 < length && length <= MAX_STRING_SIZE) {
-                cacheKey = text.hashCode() * strike.hashCode();
-            }
+        this.cacheKey = null;
+        if (oldCache != null && oldCache.valid && this.font.equals(oldFont) &&
+            this.text.length > MAX_STRING_SIZE) {
+            layoutCache = LayoutCache.reuseShaping(oldCache, oldText, this.text,
+                                                   strike.getFontResource(),
+                                                   strike.getSize());
         }
         return true;
     }
@@ -681,51 +685,38 @@ public class PrismTextLayout implements TextLayout {
         return index;
     }
 
-    private boolean copyCache() {
-        int align = flags & ALIGN_MASK;
-        int boundsType = flags & BOUNDS_MASK;
-        /* Caching for boundsType == Center, bias towards  Modena */
-        return wrapWidth != 0 || align != ALIGN_LEFT || boundsType == 0 || isMirrored();
+    private boolean isCacheable() {
+        return MAX_CACHE_SIZE > 0 && spans == null &&
+               0 < text.length && text.length <= MAX_STRING_SIZE;
     }
 
     private void initCache() {
-        if (cacheKey != null) {
-            if (layoutCache == null) {
-                LayoutCache cache = stringCache.get(cacheKey);
-                if (cache != null && cache.font.equals(font) && Arrays.equals(cache.text, text)) {
-                    layoutCache = cache;
-                    runs = cache.runs;
-                    runCount = cache.runCount;
-                    flags |= cache.analysis;
-                }
-            }
-            if (layoutCache != null) {
-                if (copyCache()) {
-                    /* This instance has some property that requires it to
-                     * build its own lines (i.e. wrapping width). Thus, only use
-                     * the runs from the cache (and it needs to make a copy
-                     * before using it as they will be modified).
-                     * Note: the copy of the elements in the array happens in
-                     * reuseRuns().
-                     */
-                    if (layoutCache.runs == runs) {
-                        runs = new TextRun[runCount];
-                        System.arraycopy(layoutCache.runs, 0, runs, 0, runCount);
-                    }
-                } else {
-                    if (layoutCache.lines != null) {
-                        runs = layoutCache.runs;
-                        runCount = layoutCache.runCount;
-                        flags |= layoutCache.analysis;
-                        lines = layoutCache.lines;
-                        layoutWidth = layoutCache.layoutWidth;
-                        layoutHeight = layoutCache.layoutHeight;
-                        float ascent = lines[0].getBounds().getMinY();
-                        logicalBounds = logicalBounds.deriveWithNewBounds(0, ascent, 0,
-                                layoutWidth, layoutHeight + ascent, 0);
-                    }
-                }
-            }
+        cacheKey = null;
+        if (!isCacheable()) return;
+        cacheKey = new LayoutCache.Key(text, font, flags & CACHE_KEY_MASK,
+                                       wrapWidth, spacing, tabSize);
+        LayoutCache cache = stringCache.get(cacheKey);
+        if (cache != null) {
+            /* Whole layout shared with other instances */
+            layoutCache = cache;
+            runs = cache.runs;
+            runCount = cache.runCount;
+            flags |= cache.analysis;
+            lines = cache.lines;
+            layoutWidth = cache.layoutWidth;
+            layoutHeight = cache.layoutHeight;
+            float ascent = lines[0].getBounds().getMinY();
+            logicalBounds = logicalBounds.deriveWithNewBounds(0, ascent, 0,
+                    layoutWidth, layoutHeight + ascent, 0);
+        } else if (layoutCache != null && layoutCache.runs == runs) {
+            /* The runs are shared with the cached layout of this text for
+             * other properties (i.e. wrapping width). They are modified
+             * when the lines are built, so a copy is needed.
+             * Note: the copy of the elements in the array happens in
+             * reuseRuns().
+             */
+            runs = new TextRun[runCount];
+            System.arraycopy(layoutCache.runs, 0, runs, 0, runCount);
         }
     }
 
@@ -1292,31 +1283,32 @@ public class PrismTextLayout implements TextLayout {
 
 
         if (layoutCache != null) {
-            if (cacheKey != null && !layoutCache.valid && !copyCache()) {
+            if (cacheKey == null) {
+                layoutCache.valid = true;
+            } else {
                 /* After layoutCache is added to the stringCache it can be
                  * accessed by multiple threads. All the data in it must
-                 * be immutable. See copyCache() for the cases where the entire
-                 * layout is immutable.
+                 * be immutable. A layout taken from the cache is never
+                 * modified, changing any of the properties in the key
+                 * causes a new layout which is cached separately.
                  */
-                layoutCache.font = font;
-                layoutCache.text = text;
+                if (layoutCache.lines != null) {
+                    /* The glyphs and advances of the shared entry are
+                     * immutable and can be shared by the new entry too. */
+                    LayoutCache cache = new LayoutCache();
+                    cache.glyphs = layoutCache.glyphs;
+                    cache.advances = layoutCache.advances;
+                    layoutCache = cache;
+                }
+                layoutCache.valid = true;
                 layoutCache.runs = runs;
                 layoutCache.runCount = runCount;
                 layoutCache.lines = lines;
                 layoutCache.layoutWidth = layoutWidth;
                 layoutCache.layoutHeight = layoutHeight;
                 layoutCache.analysis = flags & ANALYSIS_MASK;
-                synchronized (CACHE_SIZE_LOCK) {
-                    int charCount = chars.length;
-                    if (cacheSize + charCount > MAX_CACHE_SIZE) {
-                        stringCache.clear();
-                        cacheSize = 0;
-                    }
-                    stringCache.put(cacheKey, layoutCache);
-                    cacheSize += charCount;
-                }
+                stringCache.put(cacheKey, layoutCache);
             }
-            layoutCache.valid = true;
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2010, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,13 +28,17 @@ package com.sun.javafx.tk.quantum;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -67,6 +71,13 @@ final class QuantumRenderer extends ThreadPoolExecutor  {
     private Throwable       _initThrowable = null;
     private CountDownLatch  initLatch = new CountDownLatch(1);
 
+    /*
+     * The timer which wakes up the render thread to flush the idle images of
+     * the effects once the scenes stop rendering, created when first needed
+     */
+    private volatile Timer  evictionTimer;
+    private final AtomicBoolean evictionScheduled = new AtomicBoolean(false);
+
     private QuantumRenderer() {
         super(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
         setThreadFactory(new QuantumThreadFactory());
@@ -195,6 +206,10 @@ final class QuantumRenderer extends ThreadPoolExecutor  {
 
     @SuppressWarnings("removal")
     protected void stopRenderer() {
+        Timer timer = evictionTimer;
+        if (timer != null) {
+            timer.cancel();
+        }
         AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
             shutdown();
             return null;
@@ -236,6 +251,42 @@ final class QuantumRenderer extends ThreadPoolExecutor  {
             Renderer renderer = Renderer.getRenderer(PrFilterContext.getInstance(screen));
             renderer.releasePurgatory();
         }
+
+        /*
+         * flush the images of the effects which are no longer used, and wake
+         * up later to flush those still pooled in case nothing else renders
+         */
+        long delay = Renderer.evictIdleImages();
+        if (delay >= 0L) {
+            scheduleEviction(delay);
+        }
+    }
+
+    @SuppressWarnings("removal")
+    private void scheduleEviction(long delayNanos) {
+        if (isShutdown() || !evictionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (evictionTimer == null) {
+            evictionTimer = AccessController.doPrivileged(
+                    (PrivilegedAction<Timer>) () -> new Timer("QuantumRenderer-eviction", true));
+        }
+        final TimerTask task = new TimerTask() {
+            @Override public void run() {
+                evictionScheduled.set(false);
+                try {
+                    // the images are flushed after this job, on the render thread
+                    submit(new RenderJob(() -> {}));
+                } catch (RejectedExecutionException e) {
+                    // the renderer has been shut down
+                }
+            }
+        };
+        try {
+            evictionTimer.schedule(task, TimeUnit.NANOSECONDS.toMillis(delayNanos) + 1);
+        } catch (IllegalStateException e) {
+            // the timer has been cancelled as the renderer is shutting down
+        }
     }
 
     void checkRendererIdle() {
@@ -66,6 +66,14 @@ abstract class ViewPainter implements Runnable {
      */
     private static NodePath[] ROOT_PATHS = new NodePath[PrismSettings.dirtyRegionCount];
 
+    /**
+     * The maximum number of batches of dirty regions painted in a single pulse when
+     * the dirty area is tracked on a tile grid. Beyond that, the dirty tiles are
+     * merged into PrismSettings.dirtyRegionCount regions as usual, because each
+     * batch costs a pass over the scene graph.
+     */
+    private static final int MAX_TILE_BATCHES = 4;
+
     /*
      * This could be a per-scene lock but there is no guarantee that the
      * FX handlers called in GlassViewEventHandler would not modify other scenes.
@@ -103,6 +111,8 @@ abstract class ViewPainter implements Runnable {
     private RectBounds dirtyRegionTemp;
     private DirtyRegionPool dirtyRegionPool;
     private DirtyRegionContainer dirtyRegionContainer;
+    private DirtyRegionContainer dirtyTileContainer;
+    private long paintedPixels;
     private Affine3D tx;
     private Affine3D scaleTx;
     private GeneralTransform3D viewProjTx;
@@ -139,6 +149,9 @@ abstract class ViewPainter implements Runnable {
             dirtyRegionTemp = new RectBounds();
             dirtyRegionPool = new DirtyRegionPool(PrismSettings.dirtyRegionCount);
             dirtyRegionContainer = dirtyRegionPool.checkOut();
+            if (PrismSettings.dirtyTileSize > 0) {
+                dirtyTileContainer = new DirtyRegionContainer(PrismSettings.dirtyRegionCount);
+            }
         }
     }
 
@@ -232,6 +245,10 @@ abstract class ViewPainter implements Runnable {
 
         // The status will be set only if we're rendering with dirty regions
         int status = -1;
+        // The number of regions covering the dirty tiles, if the dirty area is tracked
+        // on a tile grid. These are painted in batches of dirtyRegionCount regions.
+        int tileRegionCount = 0;
+        paintedPixels = 0;
 
         // If we're rendering with dirty regions, then we'll call the root node to accumulate
         // the dirty regions and then again to do the pre culling.
@@ -245,11 +262,29 @@ abstract class ViewPainter implements Runnable {
             tx.setToIdentity();
             projTx.setIdentity();
             adjustPerspective(sceneState.getCamera());
-            status = root.accumulateDirtyRegions(clip, dirtyRegionTemp,
-                                                     dirtyRegionPool, dirtyRegionContainer,
-                                                     tx, projTx);
+            if (dirtyTileContainer != null) {
+                dirtyTileContainer.setTileGrid(PrismSettings.dirtyTileSize, width, height);
+                status = root.accumulateDirtyRegions(clip, dirtyRegionTemp,
+                                                         dirtyRegionPool, dirtyTileContainer,
+                                                         tx, projTx);
+                if (status == DirtyRegionContainer.DTR_OK) {
+                    tileRegionCount = dirtyTileContainer.computeTileRegions(width, height);
+                    // Overdraw is computed from the culling bits of a single pass, so
+                    // the tiles cannot be painted in several batches in that case.
+                    if (tileRegionCount > PrismSettings.dirtyRegionCount &&
+                            (PrismSettings.showOverdraw ||
+                             tileRegionCount > MAX_TILE_BATCHES * PrismSettings.dirtyRegionCount)) {
+                        dirtyRegionContainer.merge(dirtyTileContainer);
+                        tileRegionCount = 0;
+                    }
+                }
+            } else {
+                status = root.accumulateDirtyRegions(clip, dirtyRegionTemp,
+                                                         dirtyRegionPool, dirtyRegionContainer,
+                                                         tx, projTx);
+            }
             dirtyRegionContainer.roundOut();
-            if (status == DirtyRegionContainer.DTR_OK) {
+            if (status == DirtyRegionContainer.DTR_OK && tileRegionCount == 0) {
                 root.doPreCulling(dirtyRegionContainer, tx, projTx);
             }
         }
@@ -258,76 +293,48 @@ abstract class ViewPainter implements Runnable {
         // might as well save this reference.
         final int dirtyRegionSize = status == DirtyRegionContainer.DTR_OK ? dirtyRegionContainer.size() : 0;
 
-        if (dirtyRegionSize > 0) {
+        if (tileRegionCount > 0) {
             // We set this flag on Graphics so that subsequent code in the render paths of
             // NGNode know whether they ought to be paying attention to dirty region
             // culling bits.
             g.setHasPreCullingBits(true);
 
-            // Find the render roots. There is a different render root for each dirty region
-            if (PULSE_LOGGING_ENABLED) {
-                PulseLogger.newPhase("Render Roots Discovered");
-            }
-            for (int i = 0; i < dirtyRegionSize; ++i) {
-                NodePath path = getRootPath(i);
-                path.clear();
-                root.getRenderRoot(getRootPath(i), dirtyRegionContainer.getDirtyRegion(i), i, tx, projTx);
-            }
-
-            // For debug purposes, write out to the pulse logger the number and size of the dirty
-            // regions that are being used to render this pulse.
-            if (PULSE_LOGGING_ENABLED) {
-                PulseLogger.addMessage(dirtyRegionSize + " different dirty regions to render");
-                for (int i=0; i<dirtyRegionSize; i++) {
-                    PulseLogger.addMessage("Dirty Region " + i + ": " + dirtyRegionContainer.getDirtyRegion(i));
-                    PulseLogger.addMessage("Render Root Path " + i + ": " + getRootPath(i));
-                }
-            }
-
-            // If -Dprism.printrendergraph=true then we want to print out the render graph to the
-            // pulse logger, annotated with all the dirty opts. Invisible nodes are skipped.
-            if (PULSE_LOGGING_ENABLED && PrismSettings.printRenderGraph) {
-                StringBuilder s = new StringBuilder();
-                List<NGNode> roots = new ArrayList<>();
-                for (int i = 0; i < dirtyRegionSize; i++) {
-                    final RectBounds dirtyRegion = dirtyRegionContainer.getDirtyRegion(i);
-                    // TODO it should be impossible to have ever created a dirty region that was empty...
-                    if (dirtyRegion.getWidth() > 0 && dirtyRegion.getHeight() > 0) {
-                        NodePath nodePath = getRootPath(i);
-                        if (!nodePath.isEmpty()) {
-                            roots.add(nodePath.last());
-                        }
-                    }
-                }
-                root.printDirtyOpts(s, roots);
-                PulseLogger.addMessage(s.toString());
-            }
-
-            // Paint each dirty region
-            for (int i = 0; i < dirtyRegionSize; ++i) {
-                final RectBounds dirtyRegion = dirtyRegionContainer.getDirtyRegion(i);
-                // TODO it should be impossible to have ever created a dirty region that was empty...
-                // Make sure we are not trying to render in some invalid region
-                if (dirtyRegion.getWidth() > 0 && dirtyRegion.getHeight() > 0) {
-                    // Set the clip rectangle using integer bounds since a fractional bounding box will
-                    // still require a complete repaint on pixel boundaries
-                    int x0, y0;
-                    dirtyRect.x = x0 = (int) Math.floor(dirtyRegion.getMinX() * pixelScaleX);
-                    dirtyRect.y = y0 = (int) Math.floor(dirtyRegion.getMinY() * pixelScaleY);
-                    dirtyRect.width  = (int) Math.ceil (dirtyRegion.getMaxX() * pixelScaleX) - x0;
-                    dirtyRect.height = (int) Math.ceil (dirtyRegion.getMaxY() * pixelScaleY) - y0;
-                    g.setClipRect(dirtyRect);
-                    g.setClipRectIndex(i);
-                    doPaint(g, getRootPath(i));
-                    getRootPath(i).clear();
-                }
+            // Paint the dirty tiles in batches, the culling bits of each node can only
+            // hold dirtyRegionCount regions at a time
+            for (int i = 0; i < tileRegionCount; i += PrismSettings.dirtyRegionCount) {
+                final int batchSize = Math.min(PrismSettings.dirtyRegionCount, tileRegionCount - i);
+                dirtyRegionContainer.deriveWithNewContainer(dirtyTileContainer, i, batchSize);
+                root.doPreCulling(dirtyRegionContainer, tx, projTx);
+                paintDirtyRegions(g, batchSize, pixelScaleX, pixelScaleY);
             }
+        } else if (dirtyRegionSize > 0) {
+            g.setHasPreCullingBits(true);
+            paintDirtyRegions(g, dirtyRegionSize, pixelScaleX, pixelScaleY);
         } else {
             // There are no dirty regions, so just paint everything
             g.setHasPreCullingBits(false);
             g.setClipRect(null);
             this.doPaint(g, null);
+            paintedPixels = (long) Math.ceil(width * pixelScaleX) * (long) Math.ceil(height * pixelScaleY);
+        }
+
+        // Report how much of the view was painted in this pulse, which is what dirty
+        // region optimizations try to keep small.
+        if (PULSE_LOGGING_ENABLED) {
+            final long viewPixels = (long) Math.ceil(width * pixelScaleX) * (long) Math.ceil(height * pixelScaleY);
+            PulseLogger.addMessage("Painted " + paintedPixels + " pixels (" +
+                    (100 * paintedPixels / viewPixels) + "% of the view)");
+            if (tileRegionCount > 0) {
+                PulseLogger.addMessage(tileRegionCount + " dirty tile regions painted in " +
+                        ((tileRegionCount + PrismSettings.dirtyRegionCount - 1) / PrismSettings.dirtyRegionCount) +
+                        " batches");
+            }
         }
+
+        // The regions which were painted, for showing the dirty regions
+        final DirtyRegionContainer paintedRegions = tileRegionCount > 0 ? dirtyTileContainer : dirtyRegionContainer;
+        final int paintedRegionCount = tileRegionCount > 0 ? tileRegionCount : dirtyRegionSize;
+
         root.renderForcedContent(g);
 
         // If we have an overlay then we need to render it too.
@@ -353,11 +360,11 @@ abstract class ViewPainter implements Runnable {
 
             if (PrismSettings.showOverdraw) {
                 // We are going to show the overdraw rectangles.
-                if (dirtyRegionSize > 0) {
+                if (paintedRegionCount > 0) {
                     // In this case we have dirty regions, so we will iterate over them all
                     // and draw each dirty region's overdraw individually
-                    for (int i = 0; i < dirtyRegionSize; i++) {
-                        final Rectangle clip = new Rectangle(dirtyRegionContainer.getDirtyRegion(i));
+                    for (int i = 0; i < paintedRegionCount; i++) {
+                        final Rectangle clip = new Rectangle(paintedRegions.getDirtyRegion(i));
                         backBufferGraphics.setClipRectIndex(i);
                         paintOverdraw(backBufferGraphics, clip);
                         backBufferGraphics.setPaint(new Color(1, 0, 0, .3f));
@@ -373,11 +380,11 @@ abstract class ViewPainter implements Runnable {
                 }
             } else {
                 // We are going to show the dirty regions
-                if (dirtyRegionSize > 0) {
+                if (paintedRegionCount > 0) {
                     // We have dirty regions to draw
                     backBufferGraphics.setPaint(new Color(1, 0, 0, .3f));
-                    for (int i = 0; i < dirtyRegionSize; i++) {
-                        final RectBounds reg = dirtyRegionContainer.getDirtyRegion(i);
+                    for (int i = 0; i < paintedRegionCount; i++) {
+                        final RectBounds reg = paintedRegions.getDirtyRegion(i);
                         backBufferGraphics.fillRect(reg.getMinX(), reg.getMinY(), reg.getWidth(), reg.getHeight());
                     }
                 } else {
@@ -390,6 +397,72 @@ abstract class ViewPainter implements Runnable {
         }
     }
 
+    /**
+     * Paints the first dirtyRegionSize regions of the dirty region container. The
+     * culling bits of the scene graph must have been computed for these regions.
+     */
+    private void paintDirtyRegions(Graphics g, int dirtyRegionSize, float pixelScaleX, float pixelScaleY) {
+        // Find the render roots. There is a different render root for each dirty region
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.newPhase("Render Roots Discovered");
+        }
+        for (int i = 0; i < dirtyRegionSize; ++i) {
+            NodePath path = getRootPath(i);
+            path.clear();
+            root.getRenderRoot(getRootPath(i), dirtyRegionContainer.getDirtyRegion(i), i, tx, projTx);
+        }
+
+        // For debug purposes, write out to the pulse logger the number and size of the dirty
+        // regions that are being used to render this pulse.
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.addMessage(dirtyRegionSize + " different dirty regions to render");
+            for (int i=0; i<dirtyRegionSize; i++) {
+                PulseLogger.addMessage("Dirty Region " + i + ": " + dirtyRegionContainer.getDirtyRegion(i));
+                PulseLogger.addMessage("Render Root Path " + i + ": " + getRootPath(i));
+            }
+        }
+
+        // If -Dprism.printrendergraph=true then we want to print out the render graph to the
+        // pulse logger, annotated with all the dirty opts. Invisible nodes are skipped.
+        if (PULSE_LOGGING_ENABLED && PrismSettings.printRenderGraph) {
+            StringBuilder s = new StringBuilder();
+            List<NGNode> roots = new ArrayList<>();
+            for (int i = 0; i < dirtyRegionSize; i++) {
+                final RectBounds dirtyRegion = dirtyRegionContainer.getDirtyRegion(i);
+                // TODO it should be impossible to have ever created a dirty region that was empty...
+                if (dirtyRegion.getWidth() > 0 && dirtyRegion.getHeight() > 0) {
+                    NodePath nodePath = getRootPath(i);
+                    if (!nodePath.isEmpty()) {
+                        roots.add(nodePath.last());
+                    }
+                }
+            }
+            root.printDirtyOpts(s, roots);
+            PulseLogger.addMessage(s.toString());
+        }
+
+        // Paint each dirty region
+        for (int i = 0; i < dirtyRegionSize; ++i) {
+            final RectBounds dirtyRegion = dirtyRegionContainer.getDirtyRegion(i);
+            // TODO it should be impossible to have ever created a dirty region that was empty...
+            // Make sure we are not trying to render in some invalid region
+            if (dirtyRegion.getWidth() > 0 && dirtyRegion.getHeight() > 0) {
+                // Set the clip rectangle using integer bounds since a fractional bounding box will
+                // still require a complete repaint on pixel boundaries
+                int x0, y0;
+                dirtyRect.x = x0 = (int) Math.floor(dirtyRegion.getMinX() * pixelScaleX);
+                dirtyRect.y = y0 = (int) Math.floor(dirtyRegion.getMinY() * pixelScaleY);
+                dirtyRect.width  = (int) Math.ceil (dirtyRegion.getMaxX() * pixelScaleX) - x0;
+                dirtyRect.height = (int) Math.ceil (dirtyRegion.getMaxY() * pixelScaleY) - y0;
+                g.setClipRect(dirtyRect);
+                g.setClipRectIndex(i);
+                doPaint(g, getRootPath(i));
+                paintedPixels += (long) dirtyRect.width * dirtyRect.height;
+                getRootPath(i).clear();
+            }
+        }
+    }
+
     /**
      * Utility method for painting the overdraw rectangles. Right now we're using a computationally
      * intensive approach of having an array of integers (image data) that we then write to in the
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2015, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,6 +26,7 @@
 package com.sun.javafx.util;
 
 import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.BoxBounds;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
@@ -81,6 +82,13 @@ public final class TempState {
      */
     public final Affine3D tempTx = new Affine3D();
 
+    /**
+     * Temporary bounds used by the LOD helper method, in node, to hold the
+     * local bounds and the bounds in camera coordinates.
+     */
+    public final BoxBounds localBoxBounds = new BoxBounds();
+    public final BoxBounds cameraBoxBounds = new BoxBounds();
+
     private static final ThreadLocal<TempState> tempStateRef =
             new ThreadLocal<TempState>() {
                 @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2007, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2007, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -189,6 +189,8 @@ public final class DMarlinRenderingEngine implements MarlinConst
                 + MarlinConst.USE_PATH_SIMPLIFIER);
         logInfo("prism.marlin.pathSimplifier.pixTol = "
                 + MarlinProperties.getPathSimplifierPixelTolerance());
+        logInfo("prism.marlin.usePathDecimator = "
+                + MarlinConst.USE_PATH_DECIMATOR);
 
         logInfo("prism.marlin.clip             = "
                 + MarlinProperties.isDoClip());
@@ -200,6 +202,12 @@ public final class DMarlinRenderingEngine implements MarlinConst
         logInfo("prism.marlin.clip.subdivider.minLength = "
                 + MarlinProperties.getSubdividerMinLength());
 
+        // parallel rasterization
+        logInfo("prism.marlin.parallel.threshold = "
+                + MarlinProperties.getParallelThreshold());
+        logInfo("prism.marlin.parallel.threads = "
+                + MarlinProperties.getParallelThreads());
+
         // debugging parameters
         logInfo("prism.marlin.doStats          = "
                 + MarlinConst.DO_STATS);
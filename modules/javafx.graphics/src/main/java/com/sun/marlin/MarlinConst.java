@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -80,6 +80,9 @@ public interface MarlinConst {
     // flag to use path simplifier
     static final boolean USE_PATH_SIMPLIFIER = MarlinProperties.isUsePathSimplifier();
 
+    // flag to use path decimator (level of detail)
+    static final boolean USE_PATH_DECIMATOR = MarlinProperties.isUsePathDecimator();
+
     static final boolean DO_CLIP_SUBDIVIDER = MarlinProperties.isDoClipSubdivider();
 
     // flag to enable logs related to bounds checks
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -161,6 +161,10 @@ public final class MarlinProperties {
         return getBoolean("prism.marlin.usePathSimplifier", "false");
     }
 
+    public static boolean isUsePathDecimator() {
+        return getBoolean("prism.marlin.usePathDecimator", "false");
+    }
+
     public static float getPathSimplifierPixelTolerance() {
         // default: MIN_PEN_SIZE or less ?
         return getFloat("prism.marlin.pathSimplifier.pixTol",
@@ -189,6 +193,18 @@ public final class MarlinProperties {
         return getFloat("prism.marlin.clip.subdivider.minLength", 100.0f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY);
     }
 
+    // parallel rasterization
+
+    public static int getParallelThreshold() {
+        // number of path segments (0 disables the parallel rasterization)
+        return getInteger("prism.marlin.parallel.threshold", 100000, 0, Integer.MAX_VALUE);
+    }
+
+    public static int getParallelThreads() {
+        return getInteger("prism.marlin.parallel.threads",
+                Math.min(Runtime.getRuntime().availableProcessors(), 8), 1, 64);
+    }
+
     // debugging parameters
 
     public static boolean isDoStats() {
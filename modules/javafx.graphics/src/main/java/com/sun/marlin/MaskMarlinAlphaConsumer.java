@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -32,6 +32,8 @@ import sun.misc.Unsafe;
 
 public final class MaskMarlinAlphaConsumer implements MarlinAlphaConsumer {
     int x, y, width, height;
+    // offset of the first alpha and length of the rows in the alphas array:
+    int offset, scan;
     final byte alphas[];
     final ByteBuffer alphabuffer;
     final MaskData maskdata = new MaskData();
@@ -40,16 +42,35 @@ public final class MaskMarlinAlphaConsumer implements MarlinAlphaConsumer {
     int fastFillThreshold;
 
     public MaskMarlinAlphaConsumer(int alphalen) {
-        this.alphas = new byte[alphalen];
+        this(new byte[alphalen]);
+    }
+
+    /**
+     * Creates a consumer writing the alphas into the given array, which may
+     * be shared by consumers writing distinct rows of a same mask.
+     */
+    public MaskMarlinAlphaConsumer(byte[] alphas) {
+        this.alphas = alphas;
         alphabuffer = ByteBuffer.wrap(alphas);
     }
 
     public void setBoundsNoClone(int x, int y, int w, int h) {
+        setBoundsNoClone(x, y, w, h, 0, w);
+        maskdata.update(alphabuffer, x, y, w, h);
+    }
+
+    /**
+     * Sets the bounds of the alphas to write within a larger mask, the rows
+     * of which are scan bytes long, the first alpha being written at the
+     * given offset: getMaskData() is not updated then.
+     */
+    public void setBoundsNoClone(int x, int y, int w, int h, int offset, int scan) {
         this.x = x;
         this.y = y;
         this.width = w;
         this.height = h;
-        maskdata.update(alphabuffer, x, y, w, h);
+        this.offset = offset;
+        this.scan = scan;
 
         useFastFill = (w >= 32);
         if (useFastFill) {
@@ -146,7 +167,7 @@ public final class MaskMarlinAlphaConsumer implements MarlinAlphaConsumer {
     @Override
     public void clearAlphas(final int pix_y) {
         final int w = width;
-        final int off = (pix_y - y) * w;
+        final int off = offset + (pix_y - y) * scan;
 
         // Clear complete row:
        Arrays.fill(this.alphas, off, off + w, (byte)0);
@@ -161,7 +182,7 @@ public final class MaskMarlinAlphaConsumer implements MarlinAlphaConsumer {
 
         final byte[] out = this.alphas;
         final int w = width;
-        final int off = (pix_y - y) * w;
+        final int off = offset + (pix_y - y) * scan;
 
         final Unsafe _unsafe = OffHeapArray.UNSAFE;
         final long addr_alpha = ALPHA_MAP_USED.address;
@@ -225,7 +246,7 @@ public final class MaskMarlinAlphaConsumer implements MarlinAlphaConsumer {
 
         final byte[] out = this.alphas;
         final int w = width;
-        final int off = (pix_y - y) * w;
+        final int off = offset + (pix_y - y) * scan;
 
         final Unsafe _unsafe = OffHeapArray.UNSAFE;
         final long addr_alpha = ALPHA_MAP_USED.address;
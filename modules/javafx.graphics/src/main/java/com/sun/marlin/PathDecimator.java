@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.marlin;
+
+/**
+ * Reduces the points of the lines of a path, in device space, to at most
+ * four per pixel column: within each run of consecutive points which lie in
+ * the same pixel column, only the first point, the points with the minimum
+ * and maximum y, and the last point are kept, in their original order.
+ * The rasterization of paths with far more points than the pixels they
+ * cover, like the polylines of plots of long time series, is then bounded
+ * by the number of pixel columns they span, while their extent in each
+ * column is preserved.
+ */
+public final class PathDecimator implements DPathConsumer2D {
+
+    // members:
+    private DPathConsumer2D delegate;
+    // flag indicating if a run of points is in progress
+    private boolean inRun;
+    // pixel column of the current run
+    private double col;
+    // index of the last point of the current run (the first one is 0)
+    private int last;
+    // points of the current run with the minimum and maximum y and their index
+    private double minX, minY, maxX, maxY;
+    private int minIdx, maxIdx;
+    // last point of the current run
+    private double lx, ly;
+
+    PathDecimator() {
+    }
+
+    public PathDecimator init(final DPathConsumer2D delegate) {
+        this.delegate = delegate;
+        inRun = false;
+        return this; // fluent API
+    }
+
+    private void startRun(final double x, final double y) {
+        inRun = true;
+        col = Math.floor(x);
+        last = 0;
+        minX = maxX = lx = x;
+        minY = maxY = ly = y;
+        minIdx = maxIdx = 0;
+    }
+
+    private void finishRun() {
+        if (inRun) {
+            inRun = false;
+            if (last != 0) {
+                // emit the extrema in their original order, except the first
+                // point already emitted and the last point emitted below
+                if (minIdx <= maxIdx) {
+                    emitExtremum(minX, minY, minIdx);
+                    if (maxIdx != minIdx) {
+                        emitExtremum(maxX, maxY, maxIdx);
+                    }
+                } else {
+                    emitExtremum(maxX, maxY, maxIdx);
+                    emitExtremum(minX, minY, minIdx);
+                }
+                delegate.lineTo(lx, ly);
+            }
+        }
+    }
+
+    private void emitExtremum(final double x, final double y, final int idx) {
+        if (idx != 0 && idx != last) {
+            delegate.lineTo(x, y);
+        }
+    }
+
+    @Override
+    public void pathDone() {
+        finishRun();
+        delegate.pathDone();
+    }
+
+    @Override
+    public void closePath() {
+        finishRun();
+        delegate.closePath();
+    }
+
+    @Override
+    public void moveTo(final double xe, final double ye) {
+        finishRun();
+        delegate.moveTo(xe, ye);
+        startRun(xe, ye);
+    }
+
+    @Override
+    public void lineTo(final double xe, final double ye) {
+        if (inRun && (Math.floor(xe) == col)) {
+            // same pixel column: accumulate
+            last++;
+            if (ye < minY) {
+                minX = xe;
+                minY = ye;
+                minIdx = last;
+            } else if (ye > maxY) {
+                maxX = xe;
+                maxY = ye;
+                maxIdx = last;
+            }
+            lx = xe;
+            ly = ye;
+            return;
+        }
+        finishRun();
+        delegate.lineTo(xe, ye);
+        startRun(xe, ye);
+    }
+
+    @Override
+    public void quadTo(final double x1, final double y1,
+                       final double xe, final double ye)
+    {
+        finishRun();
+        delegate.quadTo(x1, y1, xe, ye);
+    }
+
+    @Override
+    public void curveTo(final double x1, final double y1,
+                        final double x2, final double y2,
+                        final double xe, final double ye)
+    {
+        finishRun();
+        delegate.curveTo(x1, y1, x2, y2, xe, ye);
+    }
+}
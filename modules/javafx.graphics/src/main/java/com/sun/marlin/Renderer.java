@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2007, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2007, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -326,7 +326,8 @@ public final class Renderer implements MarlinRenderer, MarlinConst {
         // Since y1 and y2 are biased by -0.5 in tosubpixy(), this is simply
         // ceil(y1) or ceil(y2)
         // upper integer (inclusive)
-        final int firstCrossing = FloatMath.max(FloatMath.ceil_int(y1), boundsMinY);
+        final int y1Crossing = FloatMath.ceil_int(y1);
+        final int firstCrossing = FloatMath.max(y1Crossing, boundsMinY);
 
         // note: use boundsMaxY (last Y exclusive) to compute correct coverage
         // upper integer (exclusive)
@@ -421,11 +422,25 @@ public final class Renderer implements MarlinRenderer, MarlinConst {
         //                 = fixed_floor(x1_fixed + 2^31 - 1)
         //                 = fixed_floor(x1_fixed + 0x7FFFFFFF)
         // and error       = fixed_fract(x1_fixed + 0x7FFFFFFF)
-        final double x1_intercept = x1 + (firstCrossing - y1) * slope;
+        // The intercept is computed at the first crossing of the whole edge and
+        // then stepped down to the first crossing within bounds exactly as the
+        // DDA below does it, so that the crossings of an edge do not depend on
+        // boundsMinY (ie the clip or the band being rendered):
+        final double x1_intercept = x1 + (y1Crossing - y1) * slope;
 
         // inlined scalb(x1_intercept, 32):
-        final long x1_fixed_biased = ((long) (POWER_2_TO_32 * x1_intercept))
-                                     + 0x7FFFFFFFL;
+        long x1_fixed_biased = ((long) (POWER_2_TO_32 * x1_intercept))
+                               + 0x7FFFFFFFL;
+
+        // inlined scalb(slope, 32):
+        final long slope_fixed = (long) (POWER_2_TO_32 * slope);
+
+        if (firstCrossing != y1Crossing) {
+            // the DDA adds (slope_fixed >> 1) to (x1_fixed_biased >> 1):
+            x1_fixed_biased = ((x1_fixed_biased >> 1L)
+                               + ((long) firstCrossing - y1Crossing) * (slope_fixed >> 1L)) << 1L;
+        }
+
         // curx:
         // last bit corresponds to the orientation
         _unsafe.putInt(addr, (((int) (x1_fixed_biased >> 31L)) & ALL_BUT_LSB) | or);
@@ -433,9 +448,6 @@ public final class Renderer implements MarlinRenderer, MarlinConst {
         _unsafe.putInt(addr,  ((int)  x1_fixed_biased) >>> 1);
         addr += SIZE_INT;
 
-        // inlined scalb(slope, 32):
-        final long slope_fixed = (long) (POWER_2_TO_32 * slope);
-
         // last bit set to 0 to keep orientation:
         _unsafe.putInt(addr, (((int) (slope_fixed >> 31L)) & ALL_BUT_LSB));
         addr += SIZE_INT;
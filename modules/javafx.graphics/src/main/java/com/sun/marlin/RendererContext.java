@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -70,6 +70,8 @@ public final class RendererContext extends ReentrantContext implements MarlinCon
     public final CollinearSimplifier simplifier = new CollinearSimplifier();
     // Simplifies path
     public final PathSimplifier pathSimplifier = new PathSimplifier();
+    // Reduces path points to pixel resolution
+    public final PathDecimator pathDecimator = new PathDecimator();
     public final Dasher dasher;
     // flag indicating the shape is stroked (1) or filled (0)
     int stroking = 0;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,6 +25,7 @@
 
 package com.sun.prism;
 
+import com.sun.javafx.geom.Rectangle;
 import com.sun.prism.Texture.WrapMode;
 import com.sun.prism.impl.TextureResourcePool;
 import com.sun.prism.shape.ShapeRep;
@@ -194,6 +195,23 @@ public interface ResourceFactory extends GraphicsResource {
      */
     public Texture getCachedTexture(Image image, Texture.WrapMode wrapMode, boolean useMipmap);
 
+    /**
+     * Returns a {@code Texture} holding the given image, to be sampled as
+     * with the {@code CLAMP_TO_EDGE} wrap mode within the bounds of the
+     * image. Small images may be packed with other images in a shared
+     * texture, so the location of the image in the returned texture is
+     * stored in {@code bounds}, and only that area of the texture may be
+     * drawn.
+     * The same caching rules as {@link #getCachedTexture(Image, Texture.WrapMode)}
+     * apply, the texture is returned locked and must be unlocked by the
+     * caller.
+     *
+     * @param image the pixel data to be uploaded if it is not cached yet
+     * @param bounds on output, the location of the image in the texture
+     * @return a cached texture
+     */
+    public Texture getCachedAtlasTexture(Image image, Rectangle bounds);
+
     /**
      * Returns true if the given {@code PixelFormat} is supported; otherwise
      * returns false.
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -150,6 +150,32 @@ class ES2PhongShader {
             if (light != null && light.w > 0) { numLights++; }
         }
 
+        return getShader(context, diffuseState, specularState, selfIllumState,
+                bumpState, numLights);
+    }
+
+    /**
+     * Creates the shaders of the most common materials, which have a diffuse
+     * color or map, an optional specular color and no other map, for any
+     * number of lights, so that they are not compiled while rendering.
+     */
+    static void precompileShaders(ES2Context context) {
+        for (DiffuseState diffuseState : new DiffuseState[] {
+                DiffuseState.DIFFUSECOLOR, DiffuseState.TEXTURE }) {
+            for (SpecularState specularState : new SpecularState[] {
+                    SpecularState.NONE, SpecularState.COLOR }) {
+                for (int numLights = 0; numLights < lightStateCount; numLights++) {
+                    getShader(context, diffuseState, specularState,
+                            SelfIllumState.NONE, BumpMapState.NONE, numLights);
+                }
+            }
+        }
+    }
+
+    private static ES2Shader getShader(ES2Context context,
+            DiffuseState diffuseState, SpecularState specularState,
+            SelfIllumState selfIllumState, BumpMapState bumpState,
+            int numLights) {
         ES2Shader shader = shaders[diffuseState.ordinal()][specularState.ordinal()]
                 [selfIllumState.ordinal()][bumpState.ordinal()][numLights];
         if (shader == null) {
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.es2;
+
+import com.sun.prism.impl.PrismSettings;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A persistent cache of linked shader programs. Compiling and linking the
+ * GLSL source of a shader can take tens of milliseconds, which is noticeable
+ * the first time a material is rendered in a 3D scene. When enabled with
+ * {@code -Dprism.shadercache=true} (or with the path of a directory in place
+ * of {@code true}) the binary of each program is saved with
+ * glGetProgramBinary and restored with glProgramBinary by the next run, if
+ * the driver supports it.
+ * <p>
+ * The entries are keyed by a hash of the driver vendor, renderer and version
+ * and of the source of the program. A driver may still reject a binary, in
+ * which case the program is compiled from source and the entry replaced.
+ * <p>
+ * The files are only read and written by a background thread, so that the
+ * render thread never waits for the disk. The cache is read when the
+ * pipeline is initialized, and a program which is needed before the cache
+ * is read is compiled from source. The shaders precompiled by
+ * {@code prism.precompileshaders} wait for the cache for a bounded time. The least recently used entries are
+ * deleted when the cache takes more than
+ * {@link PrismSettings#shaderCacheMaxSize} bytes.
+ */
+final class ES2ProgramCache {
+
+    private static final int MAGIC = 0x4a465042; // "JFPB"
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".bin";
+    private static final String TEMP_PREFIX = "program";
+    private static final String TEMP_SUFFIX = ".tmp";
+    // The age beyond which a temporary file is left over by a crashed run
+    private static final long TEMP_MAX_AGE = 24L * 60 * 60 * 1000;
+
+    private static final File cacheDir = PrismSettings.shaderCacheDir != null
+                                         ? new File(PrismSettings.shaderCacheDir)
+                                         : null;
+    private static String driver;
+    private static ExecutorService executor;
+    private static Future<Map<String, Binary>> entries;
+
+    /**
+     * A program binary, its format and the driver which created it.
+     */
+    static final class Binary {
+        final String driver;
+        final int format;
+        final byte[] data;
+
+        Binary(String driver, int format, byte[] data) {
+            this.driver = driver;
+            this.format = format;
+            this.data = data;
+        }
+    }
+
+    private ES2ProgramCache() {
+    }
+
+    static boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    private static String getDriver() {
+        if (driver == null) {
+            driver = ES2Pipeline.glFactory.getDriverDescription();
+        }
+        return driver;
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Prism Shader Cache");
+                t.setContextClassLoader(null);
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Starts reading the cache in the background, so that the programs are
+     * in memory by the time they are first needed.
+     */
+    static synchronized void preload() {
+        if (cacheDir != null && entries == null) {
+            final long maxSize = PrismSettings.shaderCacheMaxSize;
+            @SuppressWarnings("removal")
+            Future<Map<String, Binary>> f = getExecutor().submit(() ->
+                    AccessController.doPrivileged(
+                            (PrivilegedAction<Map<String, Binary>>) () ->
+                                    readAll(cacheDir, maxSize)));
+            entries = f;
+        }
+    }
+
+    /**
+     * Waits up to the given time for the cache to be read, so that the
+     * programs compiled right away, such as the precompiled shaders, can be
+     * loaded from it.
+     */
+    static void awaitPreload(long timeoutMillis) {
+        Future<Map<String, Binary>> f;
+        synchronized (ES2ProgramCache.class) {
+            preload();
+            f = entries;
+        }
+        if (f == null) {
+            return;
+        }
+        try {
+            f.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (PrismSettings.verbose) {
+                System.err.println("Shader cache not read after " + timeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logError(e);
+        }
+    }
+
+    /**
+     * Returns the key of the program linked from the given sources and
+     * attribute locations, or null if it can not be computed.
+     */
+    static String getKey(String vert, String[] frag, String[] attrs, int[] indexs) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
+        update(md, getDriver());
+        update(md, vert);
+        for (String f : frag) {
+            update(md, f);
+        }
+        for (int i = 0; i < attrs.length; i++) {
+            update(md, attrs[i] + "=" + indexs[i]);
+        }
+        StringBuilder sb = new StringBuilder(64);
+        for (byte b : md.digest()) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+            sb.append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+
+    private static void update(MessageDigest md, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        md.update((byte) (bytes.length >>> 24));
+        md.update((byte) (bytes.length >>> 16));
+        md.update((byte) (bytes.length >>> 8));
+        md.update((byte) bytes.length);
+        md.update(bytes);
+    }
+
+    private static File getFile(File dir, String key) {
+        return new File(dir, key + SUFFIX);
+    }
+
+    /**
+     * Returns the binary cached for the given key, or null if there is none
+     * or if the cache has not been read yet. A binary is only returned once,
+     * it is dropped from memory as the program is then linked.
+     */
+    static Binary load(String key) {
+        if (cacheDir == null || key == null) {
+            return null;
+        }
+        Future<Map<String, Binary>> f;
+        synchronized (ES2ProgramCache.class) {
+            preload();
+            f = entries;
+        }
+        if (!f.isDone()) {
+            return null;
+        }
+        Binary binary;
+        try {
+            binary = f.get().remove(key);
+        } catch (Exception e) {
+            logError(e);
+            return null;
+        }
+        if (binary == null || !getDriver().equals(binary.driver)) {
+            return null;
+        }
+        // Keep the file as a recently used one
+        final File file = getFile(cacheDir, key);
+        @SuppressWarnings("removal")
+        Runnable touch = () -> AccessController.doPrivileged(
+                (PrivilegedAction<Boolean>) () ->
+                        file.setLastModified(System.currentTimeMillis()));
+        getExecutor().execute(touch);
+        return binary;
+    }
+
+    /**
+     * Saves the binary of a program under the given key, in the background.
+     */
+    static void store(String key, int format, byte[] data) {
+        if (cacheDir == null || key == null) {
+            return;
+        }
+        final String drv = getDriver();
+        final long maxSize = PrismSettings.shaderCacheMaxSize;
+        @SuppressWarnings("removal")
+        Runnable write = () -> AccessController.doPrivileged(
+                (PrivilegedAction<Void>) () -> {
+                    if (write(cacheDir, key, drv, format, data)) {
+                        prune(cacheDir, maxSize);
+                    }
+                    return null;
+                });
+        getExecutor().execute(write);
+    }
+
+    /**
+     * Reads all the binaries of the cache, after pruning it.
+     */
+    static Map<String, Binary> readAll(File dir, long maxSize) {
+        Map<String, Binary> map = new ConcurrentHashMap<>();
+        for (File file : prune(dir, maxSize)) {
+            Binary binary = read(file);
+            if (binary != null) {
+                String name = file.getName();
+                map.put(name.substring(0, name.length() - SUFFIX.length()), binary);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Returns the binary stored in the given file, or null if the file is
+     * not a valid entry.
+     */
+    static Binary read(File file) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            String drv = in.readUTF();
+            int format = in.readInt();
+            int length = in.readInt();
+            if (length <= 0 || length > file.length()) {
+                return null;
+            }
+            byte[] data = new byte[length];
+            in.readFully(data);
+            return new Binary(drv, format, data);
+        } catch (IOException e) {
+            logError(e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a binary to the file of the given key, replacing it atomically.
+     *
+     * @return true if the file was written
+     */
+    static boolean write(File dir, String key, String drv, int format, byte[] data) {
+        File tmp = null;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                if (PrismSettings.verbose) {
+                    System.err.println("Can not create shader cache at " + dir);
+                }
+                return false;
+            }
+            tmp = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, dir);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmp))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(drv);
+                out.writeInt(format);
+                out.writeInt(data.length);
+                out.write(data);
+            }
+            Files.move(tmp.toPath(), getFile(dir, key).toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+            tmp = null;
+            return true;
+        } catch (IOException | UnsupportedOperationException e) {
+            logError(e);
+            return false;
+        } finally {
+            if (tmp != null) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries of the cache beyond the given
+     * size, and the temporary files left over by crashed runs.
+     *
+     * @return the entries which are kept, the most recently used first
+     */
+    static File[] prune(File dir, long maxSize) {
+        final long now = System.currentTimeMillis();
+        File[] temps = dir.listFiles((d, name) ->
+                name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX));
+        if (temps != null) {
+            for (File tmp : temps) {
+                if (now - tmp.lastModified() > TEMP_MAX_AGE) {
+                    tmp.delete();
+                }
+            }
+        }
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        long[] lastModified = new long[files.length];
+        Integer[] order = new Integer[files.length];
+        for (int i = 0; i < files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong((Integer i) -> lastModified[i]).reversed());
+        File[] kept = new File[files.length];
+        int count = 0;
+        long size = 0;
+        for (int i : order) {
+            File file = files[i];
+            long length = file.length();
+            if (size + length > maxSize) {
+                file.delete();
+            } else {
+                size += length;
+                kept[count++] = file;
+            }
+        }
+        return Arrays.copyOf(kept, count);
+    }
+
+    private static void logError(Exception e) {
+        if (PrismSettings.verbose) {
+            System.err.println("Shader cache error: " + e);
+        }
+    }
+}
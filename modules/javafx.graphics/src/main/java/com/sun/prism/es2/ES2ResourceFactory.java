@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -56,6 +56,10 @@ public class ES2ResourceFactory extends BaseShaderFactory {
     private static final Map<Image,Texture> repeatTexCache = new WeakHashMap<>();
     private static final Map<Image,Texture> mipmapTexCache = new WeakHashMap<>();
 
+    // The time, in milliseconds, that precompiling the shaders waits for the
+    // shader cache to be read
+    private static final long SHADER_CACHE_WAIT = 1000;
+
     private ES2Context context;
     // Maximum size of the texture
     private final int maxTextureSize;
@@ -91,6 +95,13 @@ public class ES2ResourceFactory extends BaseShaderFactory {
             System.out.println("Maximum number of texture units usable in a fragment shader = "
                     + context.getGLContext().getIntParam(GLContext.GL_MAX_TEXTURE_IMAGE_UNITS));
         }
+
+        if (PrismSettings.precompileShaders && ES2Pipeline.getInstance().is3DSupported()) {
+            // The cache is read in the background since the pipeline was
+            // created, wait for it so that these shaders are loaded from it
+            ES2ProgramCache.awaitPreload(SHADER_CACHE_WAIT);
+            ES2PhongShader.precompileShaders(context);
+        }
     }
 
     @Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2008, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2008, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -117,23 +117,47 @@ public class ES2Shader extends BaseGraphicsResource implements Shader {
             int maxTexCoordIndex,
             boolean isPixcoordUsed) {
         GLContext glCtx = context.getGLContext();
-        if (!glCtx.isShaderCompilerSupported()) {
-            throw new RuntimeException("Shader compiler not available on this device");
-        }
-
         if (vert == null || frag == null || frag.length == 0) {
             throw new RuntimeException(
                     "Both vertexShaderSource and fragmentShaderSource "
                     + "must be specified");
         }
 
+        String[] attrs = new String[attributes.size()];
+        int[] indexs = new int[attrs.length];
+        int i = 0;
+        for (String attr : attributes.keySet()) {
+            attrs[i] = attr;
+            indexs[i] = attributes.get(attr);
+            i++;
+        }
+
+        String cacheKey = null;
+        if (ES2ProgramCache.isEnabled() && glCtx.isProgramBinarySupported()) {
+            cacheKey = ES2ProgramCache.getKey(vert, frag, attrs, indexs);
+            ES2ProgramCache.Binary binary = ES2ProgramCache.load(cacheKey);
+            if (binary != null) {
+                int programID = glCtx.createProgramFromBinary(binary.format, binary.data);
+                if (programID != 0) {
+                    // There are no shader objects to release with the program
+                    return new ES2Shader(context,
+                            programID, 0, new int[0],
+                            samplers, maxTexCoordIndex, isPixcoordUsed);
+                }
+            }
+        }
+
+        if (!glCtx.isShaderCompilerSupported()) {
+            throw new RuntimeException("Shader compiler not available on this device");
+        }
+
         int vertexShaderID = glCtx.compileShader(vert, true);
         if (vertexShaderID == 0) {
             throw new RuntimeException("Error creating vertex shader");
         }
 
         int[] fragmentShaderID = new int[frag.length];
-        for (int i = 0; i < frag.length; i++) {
+        for (i = 0; i < frag.length; i++) {
             fragmentShaderID[i] = glCtx.compileShader(frag[i], false);
             if (fragmentShaderID[i] == 0) {
                 glCtx.deleteShader(vertexShaderID);
@@ -142,22 +166,22 @@ public class ES2Shader extends BaseGraphicsResource implements Shader {
             }
         }
 
-        String[] attrs = new String[attributes.size()];
-        int[] indexs = new int[attrs.length];
-        int i = 0;
-        for (String attr : attributes.keySet()) {
-            attrs[i] = attr;
-            indexs[i] = attributes.get(attr);
-            i++;
-        }
         int programID = glCtx.createProgram(vertexShaderID, fragmentShaderID,
-                attrs, indexs);
+                attrs, indexs, cacheKey != null);
         if (programID == 0) {
             // createProgram() will have already detached/deleted
             // vertexShader and fragmentShader resources
             throw new RuntimeException("Error creating shader program");
         }
 
+        if (cacheKey != null) {
+            int[] format = new int[1];
+            byte[] binary = glCtx.getProgramBinary(programID, format);
+            if (binary != null) {
+                ES2ProgramCache.store(cacheKey, format[0], binary);
+            }
+        }
+
         return new ES2Shader(context,
                 programID, vertexShaderID, fragmentShaderID,
                 samplers, maxTexCoordIndex, isPixcoordUsed);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -119,6 +119,7 @@ abstract class GLContext {
     private int maxTextureSize = -1;
     private Boolean nonPowTwoExtAvailable;
     private Boolean clampToZeroAvailable;
+    private Boolean programBinaryAvailable;
 
     // TODO : Consider moving these cached values to ES2Context.
     // track some other state here to avoid redundant state changes
@@ -150,7 +151,9 @@ abstract class GLContext {
     private static native int nCreateFBO(long nativeCtxInfo, int texID);
     private static native int nCreateProgram(long nativeCtxInfo,
             int vertexShaderID, int[] fragmentShaderID,
-            int numAttrs, String[] attrs, int[] indexs);
+            int numAttrs, String[] attrs, int[] indexs, boolean retrievable);
+    private static native int nCreateProgramFromBinary(long nativeCtxInfo,
+            int format, byte[] binary);
     private static native int nCreateTexture(long nativeCtxInfo, int width,
             int height);
     private static native void nDeleteRenderBuffer(long nativeCtxInfo, int rbID);
@@ -164,8 +167,11 @@ abstract class GLContext {
     private static native int nGetFBO();
     private static native int nGetIntParam(int pname);
     private static native int nGetMaxSampleSize();
+    private static native byte[] nGetProgramBinary(long nativeCtxInfo,
+            int programID, int[] format);
     private static native int nGetUniformLocation(long nativeCtxInfo,
             int programID, String name);
+    private static native boolean nIsProgramBinarySupported(long nativeCtxInfo);
     private static native void nPixelStorei(int pname, int param);
     private static native boolean nReadPixelsByte(long nativeCtxInfo, int length,
             Buffer buffer, byte[] pixelArr, int x, int y, int w, int h);
@@ -356,10 +362,11 @@ abstract class GLContext {
     /**
      * Compiles and links a new shader program using the given shaders.  If
      * successful, this function returns a handle to the newly created shader
-     * program; otherwise returns 0.
+     * program; otherwise returns 0. If retrievable is true, the binary of
+     * the program is kept so that it can be read with getProgramBinary.
      */
     int createProgram(int vertexShaderID, int[] fragmentShaderIDArr,
-            String[] attrs, int[] indexs) {
+            String[] attrs, int[] indexs, boolean retrievable) {
 
         if (fragmentShaderIDArr == null) {
             System.err.println("Error: fragmentShaderIDArr is null");
@@ -382,7 +389,31 @@ abstract class GLContext {
             System.err.println("attrs.length must be equal to index.length");
         }
         return nCreateProgram(nativeCtxInfo, vertexShaderID, fragmentShaderIDArr,
-                attrs.length, attrs, indexs);
+                attrs.length, attrs, indexs, retrievable);
+    }
+
+    /**
+     * Creates a shader program from a binary returned by getProgramBinary.
+     * Returns 0 if the binary is not accepted, which happens without
+     * warning whenever the driver has been updated.
+     */
+    int createProgramFromBinary(int format, byte[] binary) {
+        return nCreateProgramFromBinary(nativeCtxInfo, format, binary);
+    }
+
+    /**
+     * Returns the binary of the given linked program, and stores its format
+     * in format[0], or returns null if the driver does not provide it.
+     */
+    byte[] getProgramBinary(int programID, int[] format) {
+        return nGetProgramBinary(nativeCtxInfo, programID, format);
+    }
+
+    boolean isProgramBinarySupported() {
+        if (programBinaryAvailable == null) {
+            programBinaryAvailable = nIsProgramBinarySupported(nativeCtxInfo);
+        }
+        return programBinaryAvailable.booleanValue();
     }
 
     int createTexture(int width, int height) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2013, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -48,6 +48,16 @@ public class Coords {
                       u0, v0, u1, v1);
     }
 
+    /**
+     * Draws from an image located at ({@code u}, {@code v}) in the texture,
+     * such as an image packed in a shared texture.
+     */
+    public void draw(Texture t, Graphics g, float x, float y, float u, float v) {
+        g.drawTexture(t,
+                      x + x0, y + y0, x + x1, y + y1,
+                      u + u0, v + v0, u + u1, v + v1);
+    }
+
     // returns x corresponding for u
     public float getX(float u) {
         return (x0 * (u1 - u) + x1 * (u - u0)) / (u1 - u0);
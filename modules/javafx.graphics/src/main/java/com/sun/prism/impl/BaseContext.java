@@ -189,6 +189,22 @@ public abstract class BaseContext {
         glyphCaches.clear();
     }
 
+    /**
+     * Called by the glyph cache when one of its pages has been evicted. The
+     * glyph caches which no longer hold any glyph are dropped, so that their
+     * strikes can be released.
+     */
+    void glyphCachePageEvicted(int page, boolean lcd) {
+        Map<FontStrike, GlyphCache> glyphCaches = lcd ? lcdGlyphCaches : greyGlyphCaches;
+        for (Iterator<Map.Entry<FontStrike, GlyphCache>> iter = glyphCaches.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry<FontStrike, GlyphCache> entry = iter.next();
+            if (entry.getValue().pageEvicted(page)) {
+                entry.getKey().clearDesc();
+                iter.remove();
+            }
+        }
+    }
+
     abstract public RTTexture getLCDBuffer();
 
     public GlyphCache getGlyphCache(FontStrike strike) {
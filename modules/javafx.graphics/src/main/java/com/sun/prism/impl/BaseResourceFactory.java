@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -53,6 +53,7 @@ public abstract class BaseResourceFactory implements ResourceFactory {
 
     private boolean disposed = false;
 
+    private ImageAtlas imageAtlas;
     private Texture regionTexture;
     private Texture glyphTexture;
     private boolean superShaderAllowed;
@@ -87,6 +88,9 @@ public abstract class BaseResourceFactory implements ResourceFactory {
     }
 
     protected void clearTextureCache() {
+        if (imageAtlas != null) {
+            imageAtlas.clear();
+        }
         clearTextureCache(clampTexCache);
         clearTextureCache(repeatTexCache);
         clearTextureCache(mipmapTexCache);
@@ -109,6 +113,10 @@ public abstract class BaseResourceFactory implements ResourceFactory {
         repeatTexCache.clear();
         mipmapTexCache.clear();
 
+        if (imageAtlas != null) {
+            imageAtlas.clear();
+            imageAtlas = null;
+        }
         if (regionTexture != null) {
             regionTexture.dispose();
             regionTexture = null;
@@ -239,6 +247,10 @@ public abstract class BaseResourceFactory implements ResourceFactory {
             if (tex != null) {
                 tex.setLastImageSerial(idRect.getKey());
                 texCache.put(image, tex);
+                if (imageAtlas != null) {
+                    // Draw the image with this texture from now on
+                    imageAtlas.reject(image);
+                }
             }
         } else if (tex.getLastImageSerial() != idRect.getKey()) {
             // If the image was updated only once, then the image is partially updated.
@@ -257,6 +269,40 @@ public abstract class BaseResourceFactory implements ResourceFactory {
         return tex;
     }
 
+    @Override
+    public Texture getCachedAtlasTexture(Image image, Rectangle bounds) {
+        if (checkDisposed()) return null;
+
+        if (image == null) {
+            throw new IllegalArgumentException("Image must be non-null");
+        }
+        // An image with a texture of its own is not packed, so that it is
+        // not uploaded twice
+        if (PrismSettings.imageAtlasMaxSize > 0 && isImageAtlasSupported() &&
+            !clampTexCache.containsKey(image) &&
+            !repeatTexCache.containsKey(image) &&
+            !mipmapTexCache.containsKey(image))
+        {
+            if (imageAtlas == null) {
+                imageAtlas = new ImageAtlas(this);
+            }
+            Texture tex = imageAtlas.getTexture(image, bounds);
+            if (tex != null) {
+                return tex;
+            }
+        }
+        bounds.setBounds(0, 0, image.getWidth(), image.getHeight());
+        return getCachedTexture(image, WrapMode.CLAMP_TO_EDGE);
+    }
+
+    /**
+     * Returns true if small images should be packed into shared textures,
+     * which pays off when switching textures is costly.
+     */
+    protected boolean isImageAtlasSupported() {
+        return false;
+    }
+
     @Override
     public Texture createTexture(Image image, Usage usageHint, WrapMode wrapMode) {
         if (checkDisposed()) return null;
@@ -61,6 +61,7 @@ public class GlyphCache {
     // to 1/4 of the strikes.
     private static final int WIDTH = PrismSettings.glyphCacheWidth; // in pixels
     private static final int HEIGHT = PrismSettings.glyphCacheHeight; // in pixels
+    private static final int PAGES = PrismSettings.glyphCachePages;
     private static ByteBuffer emptyMask;
 
     private final BaseContext context;
@@ -77,18 +78,24 @@ public class GlyphCache {
     // Using them for subpixel
     private static final int SUBPIXEL_SHIFT = 27;
 
-    private RectanglePacker packer;
+    private final Pages pages;
+
+    // The pages which hold glyphs of this strike
+    private int pageMask;
+
+    // The pages used by the glyphs of the last call to prepare
+    private int preparedPages;
 
     private boolean isLCDCache;
 
-    /* Share a RectanglePacker and its associated texture cache
-     * for all uses on a particular screen.
+    /* Share the pages of the glyph cache for all uses on a particular
+     * screen.
      */
-    static WeakHashMap<BaseContext, RectanglePacker> greyPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    static WeakHashMap<BaseContext, Pages> greyPagesMap =
+        new WeakHashMap<BaseContext, Pages>();
 
-    static WeakHashMap<BaseContext, RectanglePacker> lcdPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    static WeakHashMap<BaseContext, Pages> lcdPagesMap =
+        new WeakHashMap<BaseContext, Pages>();
 
     public GlyphCache(BaseContext context, FontStrike strike) {
         this.context = context;
@@ -97,25 +104,81 @@ public class GlyphCache {
         //int numSegments = (numGlyphs + SEGSIZE-1)/SEGSIZE;
         //this.glyphs = new GlyphData[numSegments][];
         isLCDCache = strike.getAAMode() == FontResource.AA_LCD;
-        WeakHashMap<BaseContext, RectanglePacker>
-            packerMap = isLCDCache ? lcdPackerMap : greyPackerMap;
-        packer = packerMap.get(context);
-        if (packer == null) {
-            ResourceFactory factory = context.getResourceFactory();
-            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
-                                                    WrapMode.CLAMP_NOT_NEEDED);
-            tex.contentsUseful();
-            tex.makePermanent();
-            if (!isLCDCache) {
-                factory.setGlyphTexture(tex);
+        WeakHashMap<BaseContext, Pages>
+            pagesMap = isLCDCache ? lcdPagesMap : greyPagesMap;
+        Pages p = pagesMap.get(context);
+        if (p == null) {
+            p = new Pages(context, isLCDCache);
+            pagesMap.put(context, p);
+        }
+        pages = p;
+    }
+
+    /**
+     * Makes sure that the glyphs of the glyph list, starting at the given
+     * index, are in the glyph cache. The pages holding these glyphs can then
+     * be retrieved with {@link #getPreparedPages()}, and the glyphs rendered
+     * page by page. As the glyphs of a single call are never evicted by the
+     * same call, not all of the glyphs may fit when the glyph cache is full,
+     * in which case this method must be called again for the remaining glyphs
+     * after they have been rendered.
+     *
+     * @return the index of the first glyph which has not been prepared, or
+     * the glyph count of the list if all of them have been
+     */
+    public int prepare(GlyphList gl, float x, float y, int from, BaseTransform xform) {
+        pages.stamp++;
+        preparedPages = 0;
+
+        int len = gl.getGlyphCount();
+        Point2D pt = new Point2D();
+
+        for (int gi = from; gi < len; gi++) {
+            int gc = gl.getGlyphCode(gi);
+            if ((gc & CompositeGlyphMapper.GLYPHMASK) == CharToGlyphMapper.INVISIBLE_GLYPH_ID) {
+                continue;
+            }
+            pt.setLocation(x + gl.getPosX(gi), y + gl.getPosY(gi));
+            xform.transform(pt, pt);
+            int subPixel = strike.getQuantizedPosition(pt);
+            GlyphData data = getGlyph(gc, subPixel);
+            if (data == null) {
+                pages.misses++;
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Font Glyph Cache Miss");
+                }
+                data = cacheGlyph(gc, subPixel);
+                if (data == PAGES_FULL) {
+                    // All the pages hold glyphs of this call
+                    return gi;
+                }
+            } else {
+                pages.hits++;
+            }
+            if (data != null && data.page != null) {
+                data.page.lastUsed = pages.stamp;
+                preparedPages |= 1 << data.page.index;
             }
-            tex.setLinearFiltering(false);
-            packer = new RectanglePacker(tex, WIDTH, HEIGHT);
-            packerMap.put(context, packer);
         }
+        return len;
     }
 
+    /**
+     * Returns a bit mask of the pages used by the glyphs of the last call to
+     * {@link #prepare}.
+     */
+    public int getPreparedPages() {
+        return preparedPages;
+    }
+
+    /**
+     * Renders the glyphs of the glyph list from {@code from} (inclusive) to
+     * {@code to} (exclusive) which are on the given page. The glyphs must have
+     * been prepared, and the backing store of the page must be the mask
+     * texture of the current operation.
+     */
     public void render(BaseContext ctx, GlyphList gl, float x, float y,
+                       int from, int to, int page,
                        int start, int end, Color rangeColor, Color textColor,
                        BaseTransform xform, BaseBounds clip) {
 
@@ -127,14 +190,13 @@ public class GlyphCache {
             dstw = 1;
             dsth = 1;
         }
-        Texture tex = getBackingStore();
+        Texture tex = getBackingStore(page);
         VertexBuffer vb = ctx.getVertexBuffer();
 
-        int len = gl.getGlyphCount();
         Color currentColor = null;
         Point2D pt = new Point2D();
 
-        for (int gi = 0; gi < len; gi++) {
+        for (int gi = from; gi < to; gi++) {
             int gc = gl.getGlyphCode(gi);
 
             // If we have a supplementary character, then a special
@@ -146,8 +208,8 @@ public class GlyphCache {
             pt.setLocation(x + gl.getPosX(gi), y + gl.getPosY(gi));
             xform.transform(pt, pt);
             int subPixel = strike.getQuantizedPosition(pt);
-            GlyphData data = getCachedGlyph(gc, subPixel);
-            if (data != null) {
+            GlyphData data = getGlyph(gc, subPixel);
+            if (data != null && data.page != null && data.page.index == page) {
                 if (clip != null) {
                     // Always check clipping using user space.
                     if (x + gl.getPosX(gi) > clip.getMaxX()) break;
@@ -222,32 +284,50 @@ public class GlyphCache {
         }
     }
 
-    public Texture getBackingStore() {
-        return packer.getBackingStore();
+    public Texture getBackingStore(int page) {
+        return pages.get(page).packer.getBackingStore();
     }
 
     public void clear() {
         glyphDataMap.clear();
+        pageMask = 0;
     }
 
-    private void clearAll() {
-        // flush any pending vertices that may depend on the current state
-        // of the glyph cache texture.
-        context.flushVertexBuffer();
-        context.clearGlyphCaches();
-        packer.clear();
+    /**
+     * Called when a page of the glyph cache has been evicted. The glyphs on
+     * that page are rasterized again when they are next used.
+     *
+     * @return true if this cache no longer holds any glyph
+     */
+    boolean pageEvicted(int page) {
+        pageMask &= ~(1 << page);
+        return pageMask == 0;
     }
 
-    private GlyphData getCachedGlyph(int glyphCode, int subPixel) {
+    /**
+     * Gets the cached glyph, or null if it has not been cached or if its
+     * page has been evicted since.
+     */
+    private GlyphData getGlyph(int glyphCode, int subPixel) {
         int segIndex = glyphCode >>> SEGSHIFT;
         int subIndex = glyphCode & SEGMASK;
         segIndex |= (subPixel << SUBPIXEL_SHIFT);
         GlyphData[] segment = glyphDataMap.get(segIndex);
         if (segment != null) {
-            if (segment[subIndex] != null) {
-                return segment[subIndex];
+            GlyphData data = segment[subIndex];
+            if (data != null && (data.page == null || data.page.generation == data.generation)) {
+                return data;
             }
-        } else {
+        }
+        return null;
+    }
+
+    private GlyphData cacheGlyph(int glyphCode, int subPixel) {
+        int segIndex = glyphCode >>> SEGSHIFT;
+        int subIndex = glyphCode & SEGMASK;
+        segIndex |= (subPixel << SUBPIXEL_SHIFT);
+        GlyphData[] segment = glyphDataMap.get(segIndex);
+        if (segment == null) {
             segment = new GlyphData[SEGSIZE];
             glyphDataMap.put(segIndex, segment);
         }
@@ -261,7 +341,7 @@ public class GlyphCache {
                 data = new GlyphData(0, 0, 0,
                                      glyph.getPixelXAdvance(),
                                      glyph.getPixelYAdvance(),
-                                     null);
+                                     null, null);
             } else {
                 // Rasterize the glyph
                 // NOTE : if the MaskData can be stored back directly
@@ -280,24 +360,22 @@ public class GlyphCache {
                 int originX = maskData.getOriginX();
                 int originY = maskData.getOriginY();
                 Rectangle rect = new Rectangle(0, 0, rectW, rectH);
+                if (rectW > WIDTH || rectH > HEIGHT) {
+                    if (PrismSettings.verbose) {
+                        System.out.println(rect + " won't fit in GlyphCache");
+                    }
+                    return null;
+                }
+
+                Page page = pages.add(rect);
+                if (page == null) {
+                    return PAGES_FULL;
+                }
                 data = new GlyphData(originX, originY, border,
                                      glyph.getPixelXAdvance(),
                                      glyph.getPixelYAdvance(),
-                                     rect);
-
-                if (!packer.add(rect)) {
-                    if (PULSE_LOGGING_ENABLED) {
-                        PulseLogger.incrementCounter("Font Glyph Cache Cleared");
-                    }
-                    // If add fails,clear up the cache. Try add again.
-                    clearAll();
-                    if (!packer.add(rect)) {
-                        if (PrismSettings.verbose) {
-                            System.out.println(rect + " won't fit in GlyphCache");
-                        }
-                        return null;
-                    }
-                }
+                                     rect, page);
+                pageMask |= 1 << page.index;
 
                 // We always pass skipFlush=true to backingStore.update()
                 // since we are in control of the contents of the backingStore
@@ -308,7 +386,7 @@ public class GlyphCache {
                 // Upload the an empty byte array to ensure the boundary
                 // area is filled with zeros. Note that the rectangle
                 // is already padded on each edge.
-                Texture backingStore = getBackingStore();
+                Texture backingStore = page.packer.getBackingStore();
                 int emw = rect.width;
                 int emh = rect.height;
                 int bpp = backingStore.getPixelFormat().getBytesPerPixelUnit();
@@ -343,6 +421,162 @@ public class GlyphCache {
         return data;
     }
 
+    /**
+     * Returned by cacheGlyph when there is no room left for the glyph on the
+     * pages which are not used by the current call to prepare.
+     */
+    private static final GlyphData PAGES_FULL = new GlyphData(0, 0, 0, 0, 0, null, null);
+
+    /**
+     * One backing store texture of the glyph cache. Each page is assigned a
+     * size class when its first glyph is added, and glyphs are added to the
+     * pages of their own size class first. The rows of the packer then have
+     * similar heights, which wastes less space.
+     */
+    static final class Page {
+        final int index;
+        final RectanglePacker packer;
+        int sizeClass = -1;
+        // The value of Pages.stamp when a glyph of this page was last used
+        long lastUsed;
+        // Incremented when the page is evicted, which invalidates the
+        // GlyphData created with an older generation
+        int generation;
+
+        Page(int index, RectanglePacker packer) {
+            this.index = index;
+            this.packer = packer;
+        }
+    }
+
+    /**
+     * The pages of the glyph cache of a context, shared by all strikes. When
+     * all the pages are full, the least recently used page is cleared.
+     */
+    static final class Pages {
+        private final BaseContext context;
+        private final boolean isLCD;
+        private final Page[] pages = new Page[PAGES];
+        private int count;
+        // Incremented for each call to prepare; the pages used in the current
+        // call are never evicted
+        long stamp;
+        long hits, misses, evictions;
+
+        Pages(BaseContext context, boolean isLCD) {
+            this.context = context;
+            this.isLCD = isLCD;
+            createPage();
+        }
+
+        Page get(int index) {
+            return pages[index];
+        }
+
+        private Page createPage() {
+            ResourceFactory factory = context.getResourceFactory();
+            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
+                                                    WrapMode.CLAMP_NOT_NEEDED);
+            tex.contentsUseful();
+            tex.makePermanent();
+            if (!isLCD && count == 0) {
+                factory.setGlyphTexture(tex);
+            }
+            tex.setLinearFiltering(false);
+            Page page = new Page(count, new RectanglePacker(tex, WIDTH, HEIGHT));
+            pages[count++] = page;
+            return page;
+        }
+
+        private static int getSizeClass(Rectangle rect) {
+            int h = rect.height;
+            return h <= 16 ? 0 : h <= 32 ? 1 : h <= 64 ? 2 : 3;
+        }
+
+        /**
+         * Finds a place for the rectangle, evicting a page if needed.
+         *
+         * @return the page of the rectangle, or null if all the pages are full
+         * and used by the current call to prepare
+         */
+        Page add(Rectangle rect) {
+            final int sizeClass = getSizeClass(rect);
+            // Pages of the same size class first
+            for (int i = 0; i < count; i++) {
+                Page page = pages[i];
+                if (page.sizeClass == sizeClass && page.packer.add(rect)) {
+                    return page;
+                }
+            }
+            // Then an empty page
+            for (int i = 0; i < count; i++) {
+                Page page = pages[i];
+                if (page.sizeClass < 0 && page.packer.add(rect)) {
+                    page.sizeClass = sizeClass;
+                    return page;
+                }
+            }
+            if (count < PAGES) {
+                Page page = createPage();
+                if (page.packer.add(rect)) {
+                    page.sizeClass = sizeClass;
+                    return page;
+                }
+            }
+            // Then any page with some room left
+            for (int i = 0; i < count; i++) {
+                Page page = pages[i];
+                if (page.sizeClass != sizeClass && page.packer.add(rect)) {
+                    return page;
+                }
+            }
+            // Evict the least recently used page
+            Page lru = null;
+            for (int i = 0; i < count; i++) {
+                Page page = pages[i];
+                if (page.lastUsed != stamp && (lru == null || page.lastUsed < lru.lastUsed)) {
+                    lru = page;
+                }
+            }
+            if (lru == null) {
+                return null;
+            }
+            evict(lru);
+            if (!lru.packer.add(rect)) {
+                return null;
+            }
+            lru.sizeClass = sizeClass;
+            return lru;
+        }
+
+        private void evict(Page page) {
+            evictions++;
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("Font Glyph Cache Page Evicted");
+            }
+            if (PrismSettings.verbose) {
+                System.out.println("Evicting glyph cache page " + page.index +
+                                   " (hits: " + hits + ", misses: " + misses +
+                                   ", evictions: " + evictions + ")");
+            }
+            // flush any pending vertices that may depend on the current state
+            // of the glyph cache texture.
+            context.flushVertexBuffer();
+            page.packer.clear();
+            page.sizeClass = -1;
+            page.generation++;
+            context.glyphCachePageEvicted(page.index, isLCD);
+        }
+
+        void dispose() {
+            for (int i = 0; i < count; i++) {
+                pages[i].packer.dispose();
+                pages[i] = null;
+            }
+            count = 0;
+        }
+    }
+
     static class GlyphData {
         // The following must be defined and used VERY precisely. This is
         // the offset from the upper-left corner of this rectangle (Java
@@ -362,8 +596,13 @@ public class GlyphCache {
         // The rectangle on the backing store corresponding to this glyph
         private final Rectangle rect;
 
+        // The page of the backing store, and its generation when the
+        // glyph was added to it
+        private final Page page;
+        private final int generation;
+
         GlyphData(int originX, int originY, int blankBoundary,
-                  float xAdvance, float yAdvance, Rectangle rect)
+                  float xAdvance, float yAdvance, Rectangle rect, Page page)
         {
             this.originX = originX;
             this.originY = originY;
@@ -371,6 +610,8 @@ public class GlyphCache {
             this.xAdvance = xAdvance;
             this.yAdvance = yAdvance;
             this.rect = rect;
+            this.page = page;
+            this.generation = page != null ? page.generation : 0;
         }
 
         int getOriginX() {
@@ -398,18 +639,18 @@ public class GlyphCache {
         }
     }
 
-    private static void disposePackerForContext(BaseContext ctx,
-            WeakHashMap<BaseContext, RectanglePacker> packerMap) {
+    private static void disposePagesForContext(BaseContext ctx,
+            WeakHashMap<BaseContext, Pages> pagesMap) {
 
-        RectanglePacker packer = packerMap.remove(ctx);
-        if (packer != null) {
-            packer.dispose();
+        Pages pages = pagesMap.remove(ctx);
+        if (pages != null) {
+            pages.dispose();
         }
     }
 
     public static void disposeForContext(BaseContext ctx) {
-        disposePackerForContext(ctx, greyPackerMap);
-        disposePackerForContext(ctx, lcdPackerMap);
+        disposePagesForContext(ctx, greyPagesMap);
+        disposePagesForContext(ctx, lcdPagesMap);
     }
 
 }
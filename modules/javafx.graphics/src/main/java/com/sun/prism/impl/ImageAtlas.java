@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl;
+
+import java.nio.Buffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.prism.Image;
+import com.sun.prism.PixelFormat;
+import com.sun.prism.Texture;
+import com.sun.prism.Texture.Usage;
+import com.sun.prism.Texture.WrapMode;
+import com.sun.prism.impl.packrect.RectanglePacker;
+
+/**
+ * Packs small images into a few shared textures, so that drawing many small
+ * images, such as the icons of a tool bar or the graphics of the cells of a
+ * list, does not switch textures for each image and can be batched.
+ * <p>
+ * Each image is stored with a one pixel border which replicates its edge
+ * pixels, so that sampling the image in the atlas behaves like sampling a
+ * texture of its own with the {@code CLAMP_TO_EDGE} wrap mode.
+ * <p>
+ * The images are referenced weakly. When a page is full, it is cleared if
+ * none of its images are alive anymore, else a new page is created up to
+ * {@link PrismSettings#imageAtlasPages}, else the least recently used page
+ * is cleared. The images of a cleared page are packed again, in any page,
+ * the next time they are requested. An image whose pixels change after it
+ * was packed, or which also has a texture of its own, is not packed again
+ * and uses its own texture.
+ */
+final class ImageAtlas {
+
+    private static final int PAGE_SIZE = 1024;
+
+    private static final class Page {
+        final PixelFormat format;
+        final Texture texture;
+        final RectanglePacker packer;
+        long lastUse;
+
+        Page(PixelFormat format, Texture texture, int size) {
+            this.format = format;
+            this.texture = texture;
+            this.packer = new RectanglePacker(texture, size, size);
+        }
+    }
+
+    private static final class Entry {
+        Page page;
+        int x, y;
+        int serial;
+        boolean rejected;
+    }
+
+    private final BaseResourceFactory factory;
+    private final int maxImageSize;
+    private final int maxPages;
+    private final int pageSize;
+    private final ArrayList<Page> pages = new ArrayList<>();
+    private final WeakHashMap<Image, Entry> entries = new WeakHashMap<>();
+    private final Rectangle rect = new Rectangle();
+    private long useCount;
+
+    ImageAtlas(BaseResourceFactory factory) {
+        this.factory = factory;
+        this.pageSize = Math.min(PAGE_SIZE, factory.getMaximumTextureSize());
+        this.maxImageSize = Math.min(PrismSettings.imageAtlasMaxSize, pageSize - 2);
+        this.maxPages = PrismSettings.imageAtlasPages;
+    }
+
+    /**
+     * Returns the locked page texture holding the image, and stores the
+     * location of the image within the texture in {@code bounds}, or returns
+     * null if the image cannot be stored in the atlas.
+     */
+    Texture getTexture(Image image, Rectangle bounds) {
+        final int w = image.getWidth();
+        final int h = image.getHeight();
+        if (w <= 0 || h <= 0 || w > maxImageSize || h > maxImageSize) {
+            return null;
+        }
+        final int serial = image.getSerial().getIdRect().getKey();
+        Entry entry = entries.get(image);
+        if (entry != null) {
+            if (entry.rejected) {
+                return null;
+            }
+            if (entry.serial != serial) {
+                // The pixels are changing, use a texture of its own
+                entry.page = null;
+                entry.rejected = true;
+                return null;
+            }
+            if (entry.page != null) {
+                Page page = entry.page;
+                page.texture.lock();
+                if (page.texture.isSurfaceLost()) {
+                    page.texture.unlock();
+                    clear();
+                    return null;
+                }
+                page.lastUse = ++useCount;
+                bounds.setBounds(entry.x, entry.y, w, h);
+                return page.texture;
+            }
+        } else {
+            PixelFormat format = image.getPixelFormat();
+            if (format == PixelFormat.MULTI_YCbCr_420 ||
+                format == PixelFormat.FLOAT_XYZW ||
+                !factory.isFormatSupported(format))
+            {
+                return null;
+            }
+            entry = new Entry();
+        }
+
+        Page page = allocate(image.getPixelFormat(), w + 2, h + 2);
+        if (page == null) {
+            return null;
+        }
+        entry.page = page;
+        entry.x = rect.x + 1;
+        entry.y = rect.y + 1;
+        entry.serial = serial;
+        entries.put(image, entry);
+
+        Texture tex = page.texture;
+        tex.lock();
+        page.lastUse = ++useCount;
+        final int x = entry.x, y = entry.y;
+        upload(tex, image, x, y, 0, 0, w, h);
+        // Replicate the edges and the corners in the border
+        upload(tex, image, x, y - 1, 0, 0, w, 1);
+        upload(tex, image, x, y + h, 0, h - 1, w, 1);
+        upload(tex, image, x - 1, y, 0, 0, 1, h);
+        upload(tex, image, x + w, y, w - 1, 0, 1, h);
+        upload(tex, image, x - 1, y - 1, 0, 0, 1, 1);
+        upload(tex, image, x + w, y - 1, w - 1, 0, 1, 1);
+        upload(tex, image, x - 1, y + h, 0, h - 1, 1, 1);
+        upload(tex, image, x + w, y + h, w - 1, h - 1, 1, 1);
+        bounds.setBounds(x, y, w, h);
+        return tex;
+    }
+
+    /**
+     * Stops packing the image, which is given a texture of its own, so that
+     * its pixels are not uploaded twice.
+     */
+    void reject(Image image) {
+        Entry entry = entries.get(image);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(image, entry);
+        }
+        entry.page = null;
+        entry.rejected = true;
+    }
+
+    private static void upload(Texture tex, Image image, int dstx, int dsty,
+                               int srcx, int srcy, int srcw, int srch)
+    {
+        Buffer pbuffer = image.getPixelBuffer();
+        int pos = pbuffer.position();
+        // Flush pending vertices as the area may have held another image
+        tex.update(pbuffer, image.getPixelFormat(),
+                   dstx, dsty, image.getMinX() + srcx, image.getMinY() + srcy,
+                   srcw, srch, image.getScanlineStride(), false);
+        pbuffer.position(pos);
+    }
+
+    /**
+     * Finds space for a {@code w} x {@code h} rectangle, stored in
+     * {@code rect}, in a page of the given format.
+     */
+    private Page allocate(PixelFormat format, int w, int h) {
+        rect.setBounds(0, 0, w, h);
+        for (Page page : pages) {
+            if (page.format == format && page.packer.add(rect)) {
+                return page;
+            }
+        }
+
+        // Reuse a page of the same format whose images are all gone
+        HashMap<Page, Integer> refCounts = new HashMap<>();
+        for (Entry e : entries.values()) {
+            if (e.page != null) {
+                refCounts.merge(e.page, 1, Integer::sum);
+            }
+        }
+        for (Page page : pages) {
+            if (page.format == format && !refCounts.containsKey(page)) {
+                page.packer.clear();
+                if (page.packer.add(rect)) {
+                    return page;
+                }
+            }
+        }
+
+        if (pages.size() < maxPages) {
+            Page page = createPage(format);
+            if (page != null) {
+                pages.add(page);
+                return page.packer.add(rect) ? page : null;
+            }
+        }
+
+        // Evict the least recently used page
+        Page lru = null;
+        for (Page page : pages) {
+            if (lru == null || page.lastUse < lru.lastUse) {
+                lru = page;
+            }
+        }
+        if (lru == null) {
+            return null;
+        }
+        evict(lru);
+        if (lru.format != format) {
+            pages.remove(lru);
+            disposePage(lru);
+            lru = createPage(format);
+            if (lru == null) {
+                return null;
+            }
+            pages.add(lru);
+        } else {
+            lru.packer.clear();
+        }
+        return lru.packer.add(rect) ? lru : null;
+    }
+
+    private Page createPage(PixelFormat format) {
+        TextureResourcePool<?> pool = factory.getTextureResourcePool();
+        if (!pool.prepareForAllocation(pool.estimateTextureSize(pageSize, pageSize, format))) {
+            return null;
+        }
+        Texture tex = factory.createTexture(format, Usage.DEFAULT,
+                                            WrapMode.CLAMP_NOT_NEEDED,
+                                            pageSize, pageSize);
+        if (tex == null) {
+            return null;
+        }
+        tex.contentsUseful();
+        tex.makePermanent();
+        tex.unlock();
+        return new Page(format, tex, pageSize);
+    }
+
+    private void evict(Page page) {
+        Iterator<Map.Entry<Image, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().page == page) {
+                it.remove();
+            }
+        }
+    }
+
+    private static void disposePage(Page page) {
+        page.packer.dispose();
+    }
+
+    /**
+     * Drops all the pages and forgets all the images.
+     */
+    void clear() {
+        for (Page page : pages) {
+            disposePage(page);
+        }
+        pages.clear();
+        entries.clear();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2010, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -45,6 +45,7 @@ public final class PrismSettings {
     public static final boolean isVsyncEnabled;
     public static final boolean dirtyOptsEnabled;
     public static final boolean occlusionCullingEnabled;
+    public static final boolean batchSiblings;
     public static final boolean scrollCacheOpt;
     public static final boolean threadCheck;
     public static final boolean cacheSimpleShapes;
@@ -61,6 +62,7 @@ public final class PrismSettings {
     public static final boolean printRenderGraph;
     public static final int minRTTSize;
     public static final int dirtyRegionCount;
+    public static final int dirtyTileSize;
     public static final boolean disableBadDriverWarning;
     public static final boolean forceGPU;
     public static final int maxTextureSize;
@@ -77,11 +79,18 @@ public final class PrismSettings {
     public static final boolean disableEffects;
     public static final int glyphCacheWidth;
     public static final int glyphCacheHeight;
+    public static final int glyphCachePages;
+    public static final int imageAtlasMaxSize;
+    public static final int imageAtlasPages;
+    public static final int effectCacheMaxSize;
+    public static final String shaderCacheDir;
+    public static final long shaderCacheMaxSize;
     public static final String perfLog;
     public static final boolean perfLogExitFlush;
     public static final boolean perfLogFirstPaintFlush;
     public static final boolean perfLogFirstPaintExit;
     public static final boolean superShader;
+    public static final boolean precompileShaders;
     public static final boolean forceUploadingPainter;
     public static final boolean forceAlphaTestShader;
     public static final boolean forceNonAntialiasedShape;
@@ -131,10 +140,24 @@ public final class PrismSettings {
                                                "prism.occlusion.culling",
                                                true);
 
+        // Render the siblings which draw the same kind of primitives together
+        // when they do not overlap, see NGGroup
+        batchSiblings = getBoolean(systemProperties, "prism.batchSiblings", true);
+
         // The maximum number of dirty regions to use. The absolute max that we can
         // support at present is 15.
         dirtyRegionCount = Utils.clamp(0, getInt(systemProperties, "prism.dirtyregioncount", 6, null), 15);
 
+        // The size of the tiles used to track the dirty area, in scene units. The
+        // grid is built in scene coordinates, so on a screen with a pixel scale of
+        // 2 a tile covers twice as many pixels in each direction. When set, the
+        // dirty area is tracked on a grid of tiles and only the dirty tiles are
+        // painted, instead of merging the dirty area into dirtyRegionCount regions.
+        // Zero (the default) disables the tile grid.
+        int tileSize = dirtyOptsEnabled && dirtyRegionCount > 0
+                ? getInt(systemProperties, "prism.dirtytilesize", 0, null) : 0;
+        dirtyTileSize = tileSize > 0 ? Utils.clamp(8, tileSize, 1024) : 0;
+
         // Scrolling cache optimization
         // Disabled as a workaround for RT-39755.
         scrollCacheOpt = getBoolean(systemProperties, "prism.scrollcacheopt", false);
@@ -283,6 +306,9 @@ public final class PrismSettings {
             }
             System.out.println("Using "+rSpec);
             printBooleanOption(dirtyOptsEnabled, "Using dirty region optimizations");
+            if (dirtyTileSize > 0) {
+                System.out.println("Using "+dirtyTileSize+" sized dirty tiles");
+            }
             if (primTextureSize == 0) {
                 System.out.println("Not using texture mask for primitives");
             } else if (primTextureSize < 0) {
@@ -333,6 +359,46 @@ public final class PrismSettings {
                 "Try -Dprism.glyphCacheWidth=<number>");
         glyphCacheHeight = getInt(systemProperties, "prism.glyphCacheHeight", 1024,
                 "Try -Dprism.glyphCacheHeight=<number>");
+        // The maximum number of glyphCacheWidth x glyphCacheHeight textures used
+        // by the glyph cache of a context. The textures are created as needed,
+        // and the least recently used one is reused when they are all full.
+        glyphCachePages = Utils.clamp(1, getInt(systemProperties, "prism.glyphCachePages", 4,
+                "Try -Dprism.glyphCachePages=<number>"), 32);
+
+        // Images no larger than imageAtlasMaxSize in both dimensions are packed
+        // by the hardware pipelines into at most imageAtlasPages shared
+        // textures. A size of 0 disables the image atlas.
+        imageAtlasMaxSize = Utils.clamp(0, getInt(systemProperties, "prism.imageAtlasMaxSize", 64,
+                "Try -Dprism.imageAtlasMaxSize=<number>"), 256);
+        imageAtlasPages = Utils.clamp(1, getInt(systemProperties, "prism.imageAtlasPages", 4,
+                "Try -Dprism.imageAtlasPages=<number>"), 16);
+
+        // The output of the effect of a node, when no larger than
+        // effectCacheMaxSize in both dimensions, is kept across frames for as
+        // long as the node content and its transform, but for whole pixel
+        // translations, do not change. A size of 0 disables the effect cache.
+        effectCacheMaxSize = Utils.clamp(0, getInt(systemProperties, "prism.effectCacheMaxSize", 1024,
+                "Try -Dprism.effectCacheMaxSize=<number>"), 4096);
+
+        // The binaries of the linked ES2 programs are kept across runs in
+        // shaderCacheDir when -Dprism.shadercache is true, or the path of a
+        // directory. The least recently used ones are deleted when they take
+        // more than shaderCacheMaxSize bytes.
+        String shaderCache = systemProperties.getProperty("prism.shadercache", "");
+        if (shaderCache.isEmpty() || "false".equals(shaderCache)) {
+            shaderCacheDir = null;
+        } else if ("true".equals(shaderCache)) {
+            String userCache = systemProperties.getProperty("javafx.cachedir", "");
+            if (userCache.isEmpty()) {
+                userCache = systemProperties.getProperty("user.home") + "/.openjfx/cache/"
+                        + systemProperties.getProperty("javafx.version", "versionless");
+            }
+            shaderCacheDir = userCache + "/shaders";
+        } else {
+            shaderCacheDir = shaderCache;
+        }
+        shaderCacheMaxSize = getLong(systemProperties, "prism.shadercachesize", 16 * 1024 * 1024,
+                "Try -Dprism.shadercachesize=<long>[kKmMgG]");
 
         /*
          * Performance Logger flags
@@ -345,6 +411,10 @@ public final class PrismSettings {
 
         superShader = getBoolean(systemProperties, "prism.supershader", true);
 
+        // Create the common 3D shaders when the pipeline is initialized
+        // rather than when they are first used
+        precompileShaders = getBoolean(systemProperties, "prism.precompileshaders", false);
+
         // Force uploading painter (e.g., to avoid Linux live-resize jittering)
         forceUploadingPainter = getBoolean(systemProperties, "prism.forceUploadingPainter", false);
 
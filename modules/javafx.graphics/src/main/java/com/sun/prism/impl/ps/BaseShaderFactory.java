@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2015, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -50,6 +50,11 @@ public abstract class BaseShaderFactory extends BaseResourceFactory
         super(clampTexCache, repeatTexCache, mipmapTexCache);
     }
 
+    @Override
+    protected boolean isImageAtlasSupported() {
+        return true;
+    }
+
     public ShapeRep createPathRep() {
         return PrismSettings.cacheComplexShapes ?
                 new CachingShapeRep() : new BasicShapeRep();
@@ -2034,11 +2034,13 @@ public abstract class BaseShaderGraphics
          * description.
          */
         GlyphCache glyphCache = context.getGlyphCache(strike);
-        Texture cacheTex = glyphCache.getBackingStore();
 
         //Since we currently cannot support LCD text on transparant surfaces, we
         //verify that we are drawing to an opaque surface.
-        if (strike.getAAMode() == FontResource.AA_LCD) {
+        boolean isLCD = strike.getAAMode() == FontResource.AA_LCD;
+        float gamma = 0f;
+        float invgamma = 0f;
+        if (isLCD) {
             if (nodeBounds == null) {
                 // If drawString is called directly without using
                 // setNodeBounds then we must determine the bounds of the str,
@@ -2059,8 +2061,8 @@ public abstract class BaseShaderGraphics
             } else {
                 initLCDSampleRT();
             }
-            float invgamma = PrismFontFactory.getLCDContrast();
-            float gamma = 1.0f/invgamma;
+            invgamma = PrismFontFactory.getLCDContrast();
+            gamma = 1.0f/invgamma;
             textColor = new Color((float)Math.pow(textColor.getRed(),   invgamma),
                                   (float)Math.pow(textColor.getGreen(), invgamma),
                                   (float)Math.pow(textColor.getBlue(),  invgamma),
@@ -2072,22 +2074,6 @@ public abstract class BaseShaderGraphics
                         (float)Math.pow(selectColor.getBlue(),  invgamma),
                         (float)Math.pow(selectColor.getAlpha(), invgamma));
             }
-
-            // In order to handle transparency, the LCD shader need to manually
-            // composite source with destination. Thus, SRC_OVER compositing
-            // needs to be set to SRC, while shader is active.
-            setCompositeMode(CompositeMode.SRC);
-
-            //set our 2nd LCD shader.
-            Shader shader = context.validateLCDOp(this, IDENT,
-                                                context.getLCDBuffer(),
-                                                cacheTex, false, textColor);
-
-            float unitXCoord = 1.0f/((float)cacheTex.getPhysicalWidth());
-            shader.setConstant("gamma", gamma, invgamma, unitXCoord);
-            setCompositeMode(blendMode); // Restore composite mode
-        } else {
-            context.validatePaintOp(this, IDENT, cacheTex, bx, by, bw, bh);
         }
         if (isSimpleTranslate) {
             // Applying this rounding allows for smoother text animation,
@@ -2099,8 +2085,42 @@ public abstract class BaseShaderGraphics
             p2d.y = Math.round(p2d.y);
             p2d.x = Math.round(p2d.x);
         }
-        glyphCache.render(context, gl, p2d.x, p2d.y, selectStart, selectEnd,
-                          selectColor, textColor, xform, clip);
+
+        // The glyphs may be spread over several pages of the glyph cache,
+        // which are rendered one after the other.
+        int glyphCount = gl.getGlyphCount();
+        int from = 0;
+        while (from < glyphCount) {
+            int to = glyphCache.prepare(gl, p2d.x, p2d.y, from, xform);
+            for (int pages = glyphCache.getPreparedPages(); pages != 0; pages &= pages - 1) {
+                int page = Integer.numberOfTrailingZeros(pages);
+                Texture cacheTex = glyphCache.getBackingStore(page);
+                if (isLCD) {
+                    // In order to handle transparency, the LCD shader need to manually
+                    // composite source with destination. Thus, SRC_OVER compositing
+                    // needs to be set to SRC, while shader is active.
+                    setCompositeMode(CompositeMode.SRC);
+
+                    //set our 2nd LCD shader.
+                    Shader shader = context.validateLCDOp(this, IDENT,
+                                                        context.getLCDBuffer(),
+                                                        cacheTex, false, textColor);
+
+                    float unitXCoord = 1.0f/((float)cacheTex.getPhysicalWidth());
+                    shader.setConstant("gamma", gamma, invgamma, unitXCoord);
+                    setCompositeMode(blendMode); // Restore composite mode
+                } else {
+                    context.validatePaintOp(this, IDENT, cacheTex, bx, by, bw, bh);
+                }
+                glyphCache.render(context, gl, p2d.x, p2d.y, from, to, page,
+                                  selectStart, selectEnd, selectColor, textColor, xform, clip);
+            }
+            if (to == from) {
+                // No progress can be made
+                break;
+            }
+            from = to;
+        }
     }
 
     //This function is used by the LCD path to render a quad into the
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2017, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,12 +25,15 @@
 
 package com.sun.prism.impl.ps;
 
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
 import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.prism.BasicStroke;
 import com.sun.prism.Graphics;
+import com.sun.prism.ResourceFactory;
 import com.sun.prism.Texture;
 import com.sun.prism.Texture.WrapMode;
 import com.sun.prism.paint.Paint;
@@ -44,6 +47,8 @@ import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.ps.Shader;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 
 /**
  * An implementation of ShapeRep that attempts to cache and reuse the
@@ -70,7 +75,11 @@ import java.util.Comparator;
  *
  * The current implementation limits the size of the cache (512 pixels in
  * each dimension, and 4 MB in total) so that it doesn't grow without bound.
- * Space is granted on a first come first served basis.
+ * Space is granted on a first come first served basis.  A mask which is no
+ * longer used by any shape is kept in the cache, so that it is reused when
+ * an equal shape is rendered again, as happens when the cells of a list
+ * are recycled, until its space is needed for a new mask.  The least
+ * recently used masks are evicted first.
  */
 public class CachingShapeRep implements ShapeRep {
 
@@ -127,9 +136,9 @@ public class CachingShapeRep implements ShapeRep {
 
 class CachingShapeRepState {
 
-    private static class MaskTexData {
+    static class MaskTexData {
         private CacheEntry cacheEntry;
-        private Texture maskTex;
+        Texture maskTex;
         private float maskX;
         private float maskY;
         private int maskW;
@@ -174,11 +183,14 @@ class CachingShapeRepState {
         MaskTexData texData;
         boolean antialiasedShape;
         int refCount;
+        int hash;
+        int pixels;
     }
 
-    private static class MaskCache {
+    static class MaskCache {
         private static final int MAX_MASK_DIM = 512;
         private static final int MAX_SIZE_IN_PIXELS = 4194304; // 4 MB
+        private static final int MAX_IDLE_ENTRIES = 256;
         private static Comparator<CacheEntry> comparator = (o1, o2) -> {
             int widthCompare = Float.compare(o1.xformBounds.getWidth(), o2.xformBounds.getWidth());
             if (widthCompare != 0) {
@@ -191,6 +203,11 @@ class CachingShapeRepState {
         private int entriesSize = 0;
         private int totalPixels;
 
+        // The entries which are not used by any shape, least recently
+        // used first, and the number of pixels of their masks
+        private final LinkedHashSet<CacheEntry> idleEntries = new LinkedHashSet<>();
+        private int idlePixels;
+
         private CacheEntry tmpKey = new CacheEntry();
         {
             tmpKey.xformBounds = new RectBounds();
@@ -244,10 +261,11 @@ class CachingShapeRepState {
             int w = (int)(xformBounds.getWidth() + 0.5f);
             int h = (int)(xformBounds.getHeight() + 0.5f);
             int size = w*h;
+            // the idle entries are evicted to make room for new ones
             return
                 w <= MAX_MASK_DIM &&
                 h <= MAX_MASK_DIM &&
-                totalPixels + size <= MAX_SIZE_IN_PIXELS;
+                totalPixels - idlePixels + size <= MAX_SIZE_IN_PIXELS;
         }
 
         boolean entryMatches(CacheEntry entry, Shape shape, BasicStroke stroke, BaseTransform xform, boolean antialiasedShape) {
@@ -256,7 +274,41 @@ class CachingShapeRepState {
 
         }
 
-        void get(BaseShaderContext context,
+        private static int hash(Shape shape, BasicStroke stroke) {
+            return 31 * shape.hashCode() + (stroke == null ? 0 : stroke.hashCode());
+        }
+
+        private void evictEntry(CacheEntry entry) {
+            removeEntry(entry);
+            if (idleEntries.remove(entry)) {
+                idlePixels -= entry.pixels;
+            }
+            totalPixels -= entry.pixels;
+            entry.texData.maskTex.dispose();
+            entry.shape = null;
+            entry.stroke = null;
+            entry.xform = null;
+            entry.xformBounds = null;
+            entry.antialiasedShape = false;
+            entry.texData = null;
+        }
+
+        private void evictIdleEntries(int maxPixels, int maxEntries) {
+            Iterator<CacheEntry> it = idleEntries.iterator();
+            while (it.hasNext() &&
+                   (totalPixels > maxPixels || idleEntries.size() > maxEntries))
+            {
+                CacheEntry entry = it.next();
+                it.remove();
+                idlePixels -= entry.pixels;
+                evictEntry(entry);
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Shape Mask Cache Evicted");
+                }
+            }
+        }
+
+        void get(ResourceFactory factory,
                  MaskTexData texData,
                  Shape shape, BasicStroke stroke, BaseTransform xform,
                  RectBounds xformBounds,
@@ -280,17 +332,34 @@ class CachingShapeRepState {
             if (toPos < 0) {
                 toPos = ~toPos;
             }
+            int hash = 0;
+            if (i < toPos) {
+                hash = hash(shape, stroke);
+            }
             for (;i < toPos; i++) {
                 CacheEntry entry = entries[i];
 
-                if (entryMatches(entry, shape, stroke, xform, antialiasedShape))
+                if (entry.hash == hash &&
+                    entryMatches(entry, shape, stroke, xform, antialiasedShape))
                 {
                     entry.texData.maskTex.lock();
                     if (entry.texData.maskTex.isSurfaceLost()) {
-                        // Eventually refcount will go to zero and entry will be freed
                         entry.texData.maskTex.unlock();
+                        if (entry.refCount == 0) {
+                            evictEntry(entry);
+                            i--;
+                            toPos--;
+                        }
+                        // Else eventually refcount will go to zero and entry will be freed
                         continue;
                     }
+                    if (entry.refCount == 0) {
+                        idleEntries.remove(entry);
+                        idlePixels -= entry.pixels;
+                    }
+                    if (PULSE_LOGGING_ENABLED) {
+                        PulseLogger.incrementCounter("Shape Mask Cache Hit");
+                    }
                     // increment ref count for the chosen entry and
                     // link the given texData to it
                     entry.refCount++;
@@ -304,16 +373,20 @@ class CachingShapeRepState {
             }
 
             // did not find an existing mask; create a new one here
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("Shape Mask Cache Miss");
+            }
             MaskData maskData =
                 ShapeUtil.rasterizeShape(shape, stroke, xformBounds, xform, true, antialiasedShape);
             int mw = maskData.getWidth();
             int mh = maskData.getHeight();
+            evictIdleEntries(MAX_SIZE_IN_PIXELS - mw*mh, MAX_IDLE_ENTRIES);
             texData.maskX = maskData.getOriginX();
             texData.maskY = maskData.getOriginY();
             texData.maskW = mw;
             texData.maskH = mh;
             texData.maskTex =
-                context.getResourceFactory().createMaskTexture(mw, mh, WrapMode.CLAMP_TO_ZERO);
+                factory.createMaskTexture(mw, mh, WrapMode.CLAMP_TO_ZERO);
             maskData.uploadToTexture(texData.maskTex, 0, 0, false);
             texData.maskTex.contentsUseful();
 
@@ -329,6 +402,8 @@ class CachingShapeRepState {
             entry.texData = texData.copy();
             entry.antialiasedShape = antialiasedShape;
             entry.refCount = 1;
+            entry.hash = (hash != 0) ? hash : hash(shape, stroke);
+            entry.pixels = mw*mh;
             texData.cacheEntry = entry;
             addEntry(entry);
             totalPixels += mw*mh;
@@ -346,15 +421,10 @@ class CachingShapeRepState {
             texData.maskTex = null;
             entry.refCount--;
             if (entry.refCount <= 0) {
-                removeEntry(entry);
-                entry.shape = null;
-                entry.stroke = null;
-                entry.xform = null;
-                entry.xformBounds = null;
-                entry.texData.maskTex.dispose();
-                entry.antialiasedShape = false;
-                entry.texData = null;
-                totalPixels -= (texData.maskW * texData.maskH);
+                // keep the mask until its room is needed
+                idleEntries.add(entry);
+                idlePixels += entry.pixels;
+                evictIdleEntries(MAX_SIZE_IN_PIXELS, MAX_IDLE_ENTRIES);
             }
         }
     }
@@ -530,7 +600,7 @@ class CachingShapeRepState {
                 // the following will locate an existing cached mask that
                 // matches the given parameters, or failing that, will create
                 // a new mask and put it in the cache
-                maskCache.get(context, texData, shape, stroke, xform, xformBounds, boundsCopy, g.isAntialiasedShape());
+                maskCache.get(context.getResourceFactory(), texData, shape, stroke, xform, xformBounds, boundsCopy, g.isAntialiasedShape());
             }
         }
 
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.DMarlinRenderingEngine;
+import com.sun.marlin.DPathConsumer2D;
+import com.sun.marlin.MarlinProperties;
+import com.sun.marlin.MarlinRenderer;
+import com.sun.marlin.MaskMarlinAlphaConsumer;
+import com.sun.marlin.RendererContext;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.PrismSettings;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Rasterizes a path with a very large number of segments in horizontal
+ * bands, on several threads. The path is transformed, stroked and clipped
+ * once, and the edges it gives are recorded. Each band is then rasterized
+ * by its own Marlin renderer, taken from the renderer context of its
+ * thread, with the clip restricted to the rows of the band, from the
+ * recorded edges which cross the band only, and writes its rows of the
+ * alpha mask directly.
+ * <p>
+ * The renderers step the edges starting above their clip to the top of
+ * the clip exactly as they step them from one scanline to the next, so
+ * the mask of the bands is the same as the mask of a single renderer.
+ * <p>
+ * Paths with at least {@code prism.marlin.parallel.threshold} segments are
+ * rasterized in at most {@code prism.marlin.parallel.threads} bands.
+ */
+final class DMarlinBandRasterizer {
+
+    static final int THRESHOLD = MarlinProperties.getParallelThreshold();
+    static final int THREADS = MarlinProperties.getParallelThreads();
+
+    /**
+     * The fewest rows of pixels given to a band.
+     */
+    private static final int MIN_BAND_HEIGHT = 32;
+
+    private static ExecutorService executor;
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(Math.max(THREADS - 1, 1), r -> {
+                Thread t = new Thread(r, "Prism Marlin Band Rasterizer");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    private DMarlinBandRasterizer() {
+    }
+
+    /**
+     * Returns true if the shape should be rasterized in bands within the
+     * given device bounds.
+     */
+    static boolean isWorthIt(Shape shape, RectBounds xformBounds) {
+        return THREADS > 1 && THRESHOLD > 0
+                && (shape instanceof Path2D)
+                && ((Path2D) shape).getNumCommands() >= THRESHOLD
+                && xformBounds.getHeight() >= 2 * MIN_BAND_HEIGHT;
+    }
+
+    /**
+     * Returns the mask of the shape within the clip, or null if it is empty.
+     */
+    static MaskData getMaskData(Shape shape, BasicStroke stroke, BaseTransform xform,
+                                Rectangle clip, boolean antialiasedShape)
+    {
+        return getMaskData(shape, stroke, xform, clip, antialiasedShape,
+                           Math.min(THREADS, clip.height / MIN_BAND_HEIGHT));
+    }
+
+    static MaskData getMaskData(Shape shape, BasicStroke stroke, BaseTransform xform,
+                                Rectangle clip, boolean antialiasedShape, int count)
+    {
+        final EdgeRecorder edges = new EdgeRecorder();
+        final int windingRule;
+        final RendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+        try {
+            windingRule = DMarlinPrismUtils.feedPath(rdrCtx, shape, stroke, xform, clip,
+                    antialiasedShape, edges);
+        } finally {
+            // recycle the RendererContext instance
+            DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+        }
+
+        final byte[] alphas = new byte[clip.width * clip.height];
+        final List<Future<Boolean>> futures = new ArrayList<>(count - 1);
+        for (int i = 1; i < count; i++) {
+            final Rectangle bandClip = getBandClip(clip, i, count);
+            futures.add(getExecutor().submit(() -> rasterize(edges, windingRule,
+                    antialiasedShape, clip, bandClip, alphas)));
+        }
+        boolean empty = !rasterize(edges, windingRule, antialiasedShape, clip,
+                                   getBandClip(clip, 0, count), alphas);
+        boolean interrupted = false;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                if (futures.get(i).get()) {
+                    empty = false;
+                }
+            } catch (InterruptedException e) {
+                // the other bands still write the mask: wait for them
+                interrupted = true;
+                i--;
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (empty) {
+            return null;
+        }
+        if (PrismSettings.verbose) {
+            System.out.println("rasterized " + edges.size() +
+                               " edges in " + count + " bands");
+        }
+        return MaskData.create(alphas, clip.x, clip.y, clip.width, clip.height);
+    }
+
+    private static Rectangle getBandClip(Rectangle clip, int band, int count) {
+        final int top = clip.y + (int) ((long) clip.height * band / count);
+        final int bottom = clip.y + (int) ((long) clip.height * (band + 1) / count);
+        return new Rectangle(clip.x, top, clip.width, bottom - top);
+    }
+
+    /*
+     * Writes the rows of the band into the alphas of the mask covering the
+     * clip, and returns false if the band is empty.
+     */
+    private static boolean rasterize(EdgeRecorder edges, int windingRule,
+                                     boolean antialiasedShape, Rectangle clip,
+                                     Rectangle bandClip, byte[] alphas)
+    {
+        final RendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+        final MarlinRenderer renderer = antialiasedShape ?
+                rdrCtx.renderer : rdrCtx.getRendererNoAA();
+        try {
+            renderer.init(bandClip.x, bandClip.y, bandClip.width, bandClip.height,
+                          windingRule);
+
+            // mark context as DIRTY:
+            rdrCtx.dirty = true;
+            // a row of pixels gets the crossings of the edges within half a
+            // subpixel of it, keep a pixel of margin:
+            edges.replay(renderer, bandClip.y - 1, bandClip.y + bandClip.height + 1);
+            renderer.pathDone();
+            // mark context as CLEAN:
+            rdrCtx.dirty = false;
+
+            final int outpix_xmin = renderer.getOutpixMinX();
+            final int outpix_xmax = renderer.getOutpixMaxX();
+            final int outpix_ymin = renderer.getOutpixMinY();
+            final int outpix_ymax = renderer.getOutpixMaxY();
+            final int w = outpix_xmax - outpix_xmin;
+            final int h = outpix_ymax - outpix_ymin;
+            if ((w <= 0) || (h <= 0)) {
+                return false;
+            }
+
+            final MaskMarlinAlphaConsumer consumer = new MaskMarlinAlphaConsumer(alphas);
+            consumer.setBoundsNoClone(outpix_xmin, outpix_ymin, w, h,
+                    (outpix_ymin - clip.y) * clip.width + (outpix_xmin - clip.x),
+                    clip.width);
+            renderer.produceAlphas(consumer);
+            return true;
+        } finally {
+            renderer.dispose();
+            // recycle the RendererContext instance
+            DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+        }
+    }
+
+    /**
+     * Records the path as a renderer receives it, transformed, stroked and
+     * clipped, to replay it to the renderer of each band.
+     */
+    static final class EdgeRecorder implements DPathConsumer2D {
+        private static final byte MOVE_TO = 0;
+        private static final byte LINE_TO = 1;
+        private static final byte QUAD_TO = 2;
+        private static final byte CURVE_TO = 3;
+        private static final byte CLOSE = 4;
+
+        private byte[] types = new byte[1024];
+        private double[] coords = new double[2048];
+        private int numTypes;
+        private int numCoords;
+
+        int size() {
+            return numTypes;
+        }
+
+        private void add(byte type, int n) {
+            if (numTypes == types.length) {
+                types = Arrays.copyOf(types, numTypes * 2);
+            }
+            if (numCoords + n > coords.length) {
+                coords = Arrays.copyOf(coords, Math.max(numCoords + n, numCoords * 2));
+            }
+            types[numTypes++] = type;
+        }
+
+        @Override
+        public void moveTo(double x0, double y0) {
+            add(MOVE_TO, 2);
+            coords[numCoords++] = x0;
+            coords[numCoords++] = y0;
+        }
+
+        @Override
+        public void lineTo(double x1, double y1) {
+            add(LINE_TO, 2);
+            coords[numCoords++] = x1;
+            coords[numCoords++] = y1;
+        }
+
+        @Override
+        public void quadTo(double xc, double yc, double x1, double y1) {
+            add(QUAD_TO, 4);
+            coords[numCoords++] = xc;
+            coords[numCoords++] = yc;
+            coords[numCoords++] = x1;
+            coords[numCoords++] = y1;
+        }
+
+        @Override
+        public void curveTo(double xc0, double yc0, double xc1, double yc1,
+                            double x1, double y1)
+        {
+            add(CURVE_TO, 6);
+            coords[numCoords++] = xc0;
+            coords[numCoords++] = yc0;
+            coords[numCoords++] = xc1;
+            coords[numCoords++] = yc1;
+            coords[numCoords++] = x1;
+            coords[numCoords++] = y1;
+        }
+
+        @Override
+        public void closePath() {
+            add(CLOSE, 0);
+        }
+
+        @Override
+        public void pathDone() {
+        }
+
+        /*
+         * Replays the segments of the path crossing the rows from minY to
+         * maxY. A run of segments outside these rows lies on one side of
+         * them, and is replaced by a line to its end when the path comes
+         * back or is closed, which crosses none of the rows either.
+         */
+        void replay(DPathConsumer2D out, double minY, double maxY) {
+            final byte[] _types = types;
+            final double[] _coords = coords;
+            // the current point, and whether out is still behind it:
+            double cx = 0.0d, cy = 0.0d;
+            boolean skipped = false;
+            for (int i = 0, c = 0; i < numTypes; i++) {
+                final byte type = _types[i];
+                if (type == MOVE_TO) {
+                    if (skipped) {
+                        // moveTo closes the subpath from the current point:
+                        out.lineTo(cx, cy);
+                        skipped = false;
+                    }
+                    cx = _coords[c++];
+                    cy = _coords[c++];
+                    out.moveTo(cx, cy);
+                    continue;
+                }
+                if (type == CLOSE) {
+                    if (skipped) {
+                        out.lineTo(cx, cy);
+                        skipped = false;
+                    }
+                    out.closePath();
+                    continue;
+                }
+                final int n = (type == LINE_TO) ? 2 : (type == QUAD_TO) ? 4 : 6;
+                double y0 = cy, y1 = cy;
+                for (int j = c + 1; j < c + n; j += 2) {
+                    y0 = Math.min(y0, _coords[j]);
+                    y1 = Math.max(y1, _coords[j]);
+                }
+                if (y1 < minY || y0 > maxY) {
+                    skipped = true;
+                } else {
+                    if (skipped) {
+                        out.lineTo(cx, cy);
+                        skipped = false;
+                    }
+                    switch (type) {
+                    case LINE_TO:
+                        out.lineTo(_coords[c], _coords[c + 1]);
+                        break;
+                    case QUAD_TO:
+                        out.quadTo(_coords[c], _coords[c + 1],
+                                   _coords[c + 2], _coords[c + 3]);
+                        break;
+                    default:
+                        out.curveTo(_coords[c], _coords[c + 1],
+                                    _coords[c + 2], _coords[c + 3],
+                                    _coords[c + 4], _coords[c + 5]);
+                        break;
+                    }
+                }
+                cx = _coords[c + n - 2];
+                cy = _coords[c + n - 1];
+                c += n;
+            }
+            if (skipped) {
+                // pathDone closes the subpath from the current point:
+                out.lineTo(cx, cy);
+            }
+        }
+    }
+}
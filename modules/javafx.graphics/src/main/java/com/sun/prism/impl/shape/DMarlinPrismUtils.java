@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2011, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -228,6 +228,32 @@ public final class DMarlinPrismUtils {
             final Rectangle clip,
             final int piRule,
             final MarlinRenderer renderer)
+    {
+        renderer.init(clip.x, clip.y, clip.width, clip.height,
+                      getWindingRule(stroke, piRule));
+
+        return initPipeline(rdrCtx, stroke, tx, clip, renderer, renderer);
+    }
+
+    private static int getWindingRule(final BasicStroke stroke, final int piRule) {
+        if (stroke != null) {
+            return MarlinConst.WIND_NON_ZERO;
+        }
+        return (piRule == PathIterator.WIND_EVEN_ODD) ?
+            MarlinConst.WIND_EVEN_ODD : MarlinConst.WIND_NON_ZERO;
+    }
+
+    /*
+     * Returns the pipeline feeding the given consumer with the path as the
+     * given renderer expects it: transformed, stroked and clipped.
+     */
+    private static DPathConsumer2D initPipeline(
+            final RendererContext rdrCtx,
+            final BasicStroke stroke,
+            final BaseTransform tx,
+            final Rectangle clip,
+            final MarlinRenderer renderer,
+            final DPathConsumer2D out)
     {
         if (DO_CLIP || (DO_CLIP_RUNTIME_ENABLE && MarlinProperties.isDoClipAtRuntime())) {
             // Define the initial clip bounds:
@@ -259,18 +285,10 @@ public final class DMarlinPrismUtils {
         }
 
         if (stroke != null) {
-            renderer.init(clip.x, clip.y, clip.width, clip.height,
-                          MarlinConst.WIND_NON_ZERO);
-
-            return initStroker(rdrCtx, stroke, stroke.getLineWidth(), tx, renderer);
+            return initStroker(rdrCtx, stroke, stroke.getLineWidth(), tx, out);
         } else {
             // Filler:
-            final int oprule = (piRule == PathIterator.WIND_EVEN_ODD) ?
-                MarlinConst.WIND_EVEN_ODD : MarlinConst.WIND_NON_ZERO;
-
-            renderer.init(clip.x, clip.y, clip.width, clip.height, oprule);
-
-            DPathConsumer2D pc = renderer;
+            DPathConsumer2D pc = out;
 
             final TransformingPathConsumer2D transformerPC2D = rdrCtx.transformerPC2D;
 
@@ -307,15 +325,59 @@ public final class DMarlinPrismUtils {
         if (shape instanceof Path2D) {
             final Path2D p2d = (Path2D)shape;
             final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, p2d.getWindingRule(), r);
-            feedConsumer(rdrCtx, p2d, tf, pc2d);
+            feedConsumer(rdrCtx, p2d, tf, decimate(rdrCtx, pc2d));
         } else {
             final PathIterator pi = shape.getPathIterator(tf);
             final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pi.getWindingRule(), r);
-            feedConsumer(rdrCtx, pi, pc2d);
+            feedConsumer(rdrCtx, pi, decimate(rdrCtx, pc2d));
         }
         return r;
     }
 
+    /**
+     * Feeds the shape to the given consumer instead of the renderer of the
+     * context, transformed, stroked and clipped exactly as setupRenderer
+     * would feed it to this renderer, and returns the winding rule to
+     * render it with.
+     */
+    static int feedPath(
+            final RendererContext rdrCtx,
+            final Shape shape,
+            final BasicStroke stroke,
+            final BaseTransform xform,
+            final Rectangle rclip,
+            final boolean antialiasedShape,
+            final DPathConsumer2D out)
+    {
+        // Test if transform is identity:
+        final BaseTransform tf = ((xform != null) && !xform.isIdentity()) ? xform : null;
+
+        final MarlinRenderer r =  (!FORCE_NO_AA && antialiasedShape) ?
+                rdrCtx.renderer : rdrCtx.getRendererNoAA();
+
+        final DPathConsumer2D pc2d = initPipeline(rdrCtx, stroke, tf, rclip, r, out);
+        if (shape instanceof Path2D) {
+            final Path2D p2d = (Path2D)shape;
+            feedConsumer(rdrCtx, p2d, tf, decimate(rdrCtx, pc2d));
+            return getWindingRule(stroke, p2d.getWindingRule());
+        } else {
+            final PathIterator pi = shape.getPathIterator(tf);
+            feedConsumer(rdrCtx, pi, decimate(rdrCtx, pc2d));
+            return getWindingRule(stroke, pi.getWindingRule());
+        }
+    }
+
+    private static DPathConsumer2D decimate(final RendererContext rdrCtx,
+                                           final DPathConsumer2D pc2d)
+    {
+        if (MarlinConst.USE_PATH_DECIMATOR) {
+            // Reduce the points of the path (in device space) to the pixel
+            // resolution before stroking or filling it
+            return rdrCtx.pathDecimator.init(pc2d);
+        }
+        return pc2d;
+    }
+
     public static void strokeTo(
             final RendererContext rdrCtx,
             final Shape shape,
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2010, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -77,6 +77,12 @@ public final class DMarlinRasterizer implements ShapeRasterizer {
             return EMPTY_MASK;
         }
 
+        if (DMarlinBandRasterizer.isWorthIt(shape, xformBounds)) {
+            final MaskData mask = DMarlinBandRasterizer.getMaskData(shape, stroke, xform,
+                    new Rectangle(xformBounds), antialiasedShape);
+            return (mask != null) ? mask : EMPTY_MASK;
+        }
+
         final RendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
         MarlinRenderer renderer = null;
         try {
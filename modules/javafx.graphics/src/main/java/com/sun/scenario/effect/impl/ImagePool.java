@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2008, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2008, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -31,6 +31,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.scenario.effect.Filterable;
 
 /**
@@ -38,6 +39,15 @@ import com.sun.scenario.effect.Filterable;
  * various {@code EffectPeer} implementations.  Image allocation can be
  * a fairly expensive operation (in terms of footprint and performance),
  * especially for the GPU backends, so image reuse is critical.
+ * <p>
+ * The images which are not checked out are held softly, and they are also
+ * unlocked so that the texture pool of the GPU backends may reclaim them
+ * when the VRAM runs short.  They are flushed once they have not been used
+ * for {@code decora.poolidletime} seconds (10 by default), or when they
+ * hold more than {@code decora.poolbudget} MB (128 by default), starting
+ * with the least recently used ones.  This is checked whenever an image is
+ * checked out or in, and by {@link #evictIdle()} once the effects stop
+ * running.
  */
 public class ImagePool {
 
@@ -46,8 +56,23 @@ public class ImagePool {
     static long pixelsCreated;
     static long numAccessed;
     static long pixelsAccessed;
+    static long numReused;
+    static long numEvicted;
+    static long pixelsEvicted;
+    static long bytesHeld;
+
+    private static final long defaultMaxIdleBytes;
+    private static final long defaultMaxIdleNanos;
 
     static {
+        @SuppressWarnings("removal")
+        long[] limits = AccessController.doPrivileged((PrivilegedAction<long[]>) () -> new long[] {
+            Integer.getInteger("decora.poolbudget", 128),
+            Integer.getInteger("decora.poolidletime", 10)
+        });
+        defaultMaxIdleBytes = Math.max(0L, limits[0]) * 1024 * 1024;
+        defaultMaxIdleNanos = Math.max(0L, limits[1]) * 1000000000L;
+
         @SuppressWarnings("removal")
         var dummy = AccessController.doPrivileged((PrivilegedAction) () -> {
             if (System.getProperty("decora.showstats") != null) {
@@ -67,6 +92,10 @@ public class ImagePool {
         System.out.println("pixels created:    " + pixelsCreated);
         System.out.println("images accessed:   " + numAccessed);
         System.out.println("pixels accessed:   " + pixelsAccessed);
+        System.out.println("images reused:     " + numReused);
+        System.out.println("images evicted:    " + numEvicted);
+        System.out.println("pixels evicted:    " + pixelsEvicted);
+        System.out.println("bytes held:        " + bytesHeld);
         if (numEffects != 0) {
             double avgImgs = ((double) numAccessed) / numEffects;
             double avgPxls = ((double) pixelsAccessed) / numEffects;
@@ -77,10 +106,26 @@ public class ImagePool {
 
     static final int QUANT = 32;
 
-    private final List<SoftReference<PoolFilterable>> unlocked =
-        new ArrayList<SoftReference<PoolFilterable>>();
-    private final List<SoftReference<PoolFilterable>> locked =
-        new ArrayList<SoftReference<PoolFilterable>>();
+    private static final class PoolEntry extends SoftReference<PoolFilterable> {
+        final int pixels;
+        long lastUsed;
+
+        PoolEntry(PoolFilterable img) {
+            super(img);
+            this.pixels = img.getPhysicalWidth() * img.getPhysicalHeight();
+        }
+
+        long getBytes() {
+            return 4L * pixels;
+        }
+    }
+
+    // The unlocked entries are kept in the order of their last use
+    private final List<PoolEntry> unlocked = new ArrayList<PoolEntry>();
+    private final List<PoolEntry> locked = new ArrayList<PoolEntry>();
+    private long unlockedBytes;
+    private final long maxIdleBytes;
+    private final long maxIdleNanos;
 
     // On Canmore with the PowerVR SGX chip, there is a driver issue
     // that causes incorrect rendering if one tries to reuse an FBO
@@ -96,15 +141,22 @@ public class ImagePool {
     // increases the amount of VRAM used by an app, and may cause
     // slowdowns for certain frames due to increased allocation
     // (where there would normally be reuse).
-    private final boolean usePurgatory = Boolean.getBoolean("decora.purgatory");
+    private final boolean usePurgatory;
     private final List<Filterable> hardPurgatory = new ArrayList<Filterable>();
-    private final List<SoftReference<PoolFilterable>> softPurgatory =
-        new ArrayList<SoftReference<PoolFilterable>>();
+    private final List<PoolEntry> softPurgatory = new ArrayList<PoolEntry>();
 
     /**
      * Package-private constructor.
      */
     ImagePool() {
+        this(defaultMaxIdleBytes, defaultMaxIdleNanos,
+             Boolean.getBoolean("decora.purgatory"));
+    }
+
+    ImagePool(long maxIdleBytes, long maxIdleNanos, boolean usePurgatory) {
+        this.maxIdleBytes = maxIdleBytes;
+        this.maxIdleNanos = maxIdleNanos;
+        this.usePurgatory = usePurgatory;
     }
 
     public synchronized PoolFilterable checkOut(Renderer renderer, int w, int h) {
@@ -122,17 +174,19 @@ public class ImagePool {
 
         numAccessed++;
         pixelsAccessed += ((long) w) * h;
+        evictIdle(System.nanoTime());
         // first look for an already cached image of sufficient size,
         // choosing the one that is closest in size to the requested dimensions
-        SoftReference<PoolFilterable> chosenEntry = null;
+        PoolEntry chosenEntry = null;
         PoolFilterable chosenImage = null;
         int mindiff = Integer.MAX_VALUE;
-        Iterator<SoftReference<PoolFilterable>> entries = unlocked.iterator();
+        Iterator<PoolEntry> entries = unlocked.iterator();
         while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
+            PoolEntry entry = entries.next();
             PoolFilterable eimg = entry.get();
             if (eimg == null) {
                 entries.remove();
+                removed(entry, true);
                 continue;
             }
             int ew = eimg.getMaxContentWidth();
@@ -143,6 +197,7 @@ public class ImagePool {
                     eimg.lock();
                     if (eimg.isLost()) {
                         entries.remove();
+                        removed(entry, true);
                         continue;
                     }
                     if (chosenImage != null) {
@@ -163,7 +218,9 @@ public class ImagePool {
 
         if (chosenEntry != null) {
             unlocked.remove(chosenEntry);
+            unlockedBytes -= chosenEntry.getBytes();
             locked.add(chosenEntry);
+            numReused++;
             renderer.clearImage(chosenImage);
             return chosenImage;
         }
@@ -171,10 +228,11 @@ public class ImagePool {
         // get rid of expired entries from locked list
         entries = locked.iterator();
         while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
+            PoolEntry entry = entries.next();
             Filterable eimg = entry.get();
             if (eimg == null) {
                 entries.remove();
+                removed(entry, false);
             }
         }
 
@@ -193,22 +251,28 @@ public class ImagePool {
         }
         if (img != null) {
             img.setImagePool(this);
-            locked.add(new SoftReference<PoolFilterable>(img));
+            PoolEntry entry = new PoolEntry(img);
+            locked.add(entry);
             numCreated++;
             pixelsCreated += ((long) w) * h;
+            bytesHeld += entry.getBytes();
+            if (PulseLogger.PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("ImagePool image created");
+            }
         }
         return img;
     }
 
     public synchronized void checkIn(PoolFilterable img) {
-        SoftReference<PoolFilterable> chosenEntry = null;
+        PoolEntry chosenEntry = null;
         Filterable chosenImage = null;
-        Iterator<SoftReference<PoolFilterable>> entries = locked.iterator();
+        Iterator<PoolEntry> entries = locked.iterator();
         while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
+            PoolEntry entry = entries.next();
             Filterable eimg = entry.get();
             if (eimg == null) {
                 entries.remove();
+                removed(entry, false);
             } else if (eimg == img) {
                 chosenEntry = entry;
                 chosenImage = eimg;
@@ -218,7 +282,9 @@ public class ImagePool {
         }
 
         if (chosenEntry != null) {
+            long now = System.nanoTime();
             locked.remove(chosenEntry);
+            chosenEntry.lastUsed = now;
             if (usePurgatory) {
                 // hold the entry in purgatory instead of releasing it back
                 // to the unlocked pool immediately; it will be released
@@ -230,23 +296,83 @@ public class ImagePool {
                 softPurgatory.add(chosenEntry);
             } else {
                 unlocked.add(chosenEntry);
+                unlockedBytes += chosenEntry.getBytes();
+            }
+            evictIdle(now);
+        }
+    }
+
+    /**
+     * Flushes the unlocked images which have been idle for too long, or
+     * which do not fit in the budget, as done when an image is checked out
+     * or in.  Called after rendering so that the images are also flushed
+     * once the effects stop running.
+     *
+     * @return the number of nanoseconds until the least recently used of
+     * the remaining unlocked images has been idle for too long, or -1 if
+     * there is no unlocked image left
+     */
+    public synchronized long evictIdle() {
+        long now = System.nanoTime();
+        evictIdle(now);
+        if (unlocked.isEmpty()) {
+            return -1L;
+        }
+        return Math.max(0L, unlocked.get(0).lastUsed + maxIdleNanos - now);
+    }
+
+    /**
+     * Flushes the unlocked images which have been idle for too long, and
+     * then the least recently used ones until the unlocked images fit in
+     * the budget.
+     */
+    void evictIdle(long now) {
+        while (!unlocked.isEmpty() &&
+               (unlockedBytes > maxIdleBytes ||
+                now - unlocked.get(0).lastUsed > maxIdleNanos))
+        {
+            PoolEntry entry = unlocked.remove(0);
+            removed(entry, true);
+            Filterable image = entry.get();
+            if (image != null) {
+                image.flush();
+                numEvicted++;
+                pixelsEvicted += entry.pixels;
+                if (PulseLogger.PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("ImagePool image evicted");
+                }
             }
         }
     }
 
+    private void removed(PoolEntry entry, boolean wasUnlocked) {
+        if (wasUnlocked) {
+            unlockedBytes -= entry.getBytes();
+        }
+        bytesHeld -= entry.getBytes();
+    }
+
     public synchronized void releasePurgatory() {
         if (usePurgatory && !softPurgatory.isEmpty()) {
 //            System.err.println("==> Releasing " + softPurgatory.size() + " entries from purgatory!");
-            // release images kept in purgatory back into the unlocked pool
+            // release images kept in purgatory back into the unlocked pool,
+            // from which they may now be evicted
+            long now = System.nanoTime();
+            for (PoolEntry entry : softPurgatory) {
+                entry.lastUsed = now;
+                unlockedBytes += entry.getBytes();
+            }
             unlocked.addAll(softPurgatory);
             softPurgatory.clear();
             hardPurgatory.clear();
+            evictIdle(now);
         }
     }
 
     private void pruneCache() {
         // flush all unlocked images
-        for (SoftReference<PoolFilterable> r : unlocked) {
+        for (PoolEntry r : unlocked) {
+            removed(r, true);
             Filterable image = r.get();
             if (image != null) {
                 image.flush();
@@ -262,7 +388,8 @@ public class ImagePool {
     }
 
     public synchronized void dispose() {
-        for (SoftReference<PoolFilterable> r : unlocked) {
+        for (PoolEntry r : unlocked) {
+            removed(r, true);
             Filterable image = r.get();
             if (image != null) {
                 image.flush();
@@ -270,6 +397,9 @@ public class ImagePool {
         }
         unlocked.clear();
         // not flushing the locked ones, just clearing references to them
+        for (PoolEntry r : locked) {
+            removed(r, false);
+        }
         locked.clear();
     }
 }
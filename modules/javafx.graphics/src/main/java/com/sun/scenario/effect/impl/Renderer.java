@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2008, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2008, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -145,6 +145,27 @@ public abstract class Renderer {
         imagePool.releasePurgatory();
     }
 
+    /**
+     * Flushes the pooled images of every renderer which have been idle for
+     * too long or which do not fit in the budget of the pool.  See
+     * ImagePool for more details.
+     *
+     * @return the number of nanoseconds until the next pooled image has been
+     * idle for too long, or -1 if no renderer holds an idle image
+     */
+    public static synchronized long evictIdleImages() {
+        long next = -1L;
+        for (Renderer r : rendererMap.values()) {
+            if (r.getRendererState() != RendererState.DISPOSED) {
+                long delay = r.imagePool.evictIdle();
+                if (delay >= 0L && (next < 0L || delay < next)) {
+                    next = delay;
+                }
+            }
+        }
+        return next;
+    }
+
     /**
      * Mainly used by {@code ImagePool} for the purpose of clearing
      * an image before handing it back to the user.
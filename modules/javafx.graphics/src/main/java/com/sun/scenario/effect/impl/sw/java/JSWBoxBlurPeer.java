@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -149,41 +149,65 @@ public class JSWBoxBlurPeer extends JSWEffectPeer<BoxRenderState> {
         }
     }
 
+    private int[] suma, sumr, sumg, sumb;
+
     protected void filterVertical(int dstPixels[], int dstw, int dsth, int dstscan,
                                   int srcPixels[], int srcw, int srch, int srcscan)
     {
         int vsize = dsth - srch + 1;
         int kscale = 0x7fffffff / (vsize * 255);
-        int voff = vsize * srcscan;
+        // The columns are summed a row at a time, rather than a column at a
+        // time, so that the pixels are read and written sequentially and the
+        // loops over the columns, which are independent of each other, can
+        // be vectorized by the compiler.
+        if (suma == null || suma.length < dstw) {
+            suma = new int[dstw];
+            sumr = new int[dstw];
+            sumg = new int[dstw];
+            sumb = new int[dstw];
+        }
+        final int[] suma = this.suma;
+        final int[] sumr = this.sumr;
+        final int[] sumg = this.sumg;
+        final int[] sumb = this.sumb;
         for (int x = 0; x < dstw; x++) {
-            int suma = 0;
-            int sumr = 0;
-            int sumg = 0;
-            int sumb = 0;
-            int srcoff = x;
-            int dstoff = x;
-            for (int y = 0; y < dsth; y++) {
-                int rgb;
+            suma[x] = 0;
+            sumr[x] = 0;
+            sumg[x] = 0;
+            sumb[x] = 0;
+        }
+        int dstoff = 0;
+        for (int y = 0; y < dsth; y++) {
+            if (y >= vsize) {
                 // Un-accumulate the data for row-vsize location into the sums.
-                rgb = (srcoff >= voff) ? srcPixels[srcoff - voff] : 0;
-                suma -= (rgb >>> 24);
-                sumr -= (rgb >>  16) & 0xff;
-                sumg -= (rgb >>   8) & 0xff;
-                sumb -= (rgb       ) & 0xff;
+                int srcoff = (y - vsize) * srcscan;
+                for (int x = 0; x < dstw; x++) {
+                    int rgb = srcPixels[srcoff + x];
+                    suma[x] -= (rgb >>> 24);
+                    sumr[x] -= (rgb >>  16) & 0xff;
+                    sumg[x] -= (rgb >>   8) & 0xff;
+                    sumb[x] -= (rgb       ) & 0xff;
+                }
+            }
+            if (y < srch) {
                 // Accumulate the data for this row location into the sums.
-                rgb = (y < srch) ? srcPixels[srcoff] : 0;
-                suma += (rgb >>> 24);
-                sumr += (rgb >>  16) & 0xff;
-                sumg += (rgb >>   8) & 0xff;
-                sumb += (rgb       ) & 0xff;
-                dstPixels[dstoff] =
-                    (((suma * kscale) >> 23) << 24) +
-                    (((sumr * kscale) >> 23) << 16) +
-                    (((sumg * kscale) >> 23) <<  8) +
-                    (((sumb * kscale) >> 23)      );
-                srcoff += srcscan;
-                dstoff += dstscan;
+                int srcoff = y * srcscan;
+                for (int x = 0; x < dstw; x++) {
+                    int rgb = srcPixels[srcoff + x];
+                    suma[x] += (rgb >>> 24);
+                    sumr[x] += (rgb >>  16) & 0xff;
+                    sumg[x] += (rgb >>   8) & 0xff;
+                    sumb[x] += (rgb       ) & 0xff;
+                }
             }
+            for (int x = 0; x < dstw; x++) {
+                dstPixels[dstoff + x] =
+                    (((suma[x] * kscale) >> 23) << 24) +
+                    (((sumr[x] * kscale) >> 23) << 16) +
+                    (((sumg[x] * kscale) >> 23) <<  8) +
+                    (((sumb[x] * kscale) >> 23)      );
+            }
+            dstoff += dstscan;
         }
     }
 
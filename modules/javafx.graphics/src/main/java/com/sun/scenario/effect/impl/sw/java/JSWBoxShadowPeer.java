@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009, 2014, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2009, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -175,6 +175,42 @@ public class JSWBoxShadowPeer extends JSWEffectPeer<BoxRenderState> {
         }
     }
 
+    private int[] suma;
+
+    // The vertical passes sum the alpha of the columns a row at a time,
+    // rather than a column at a time, so that the pixels are read and
+    // written sequentially and the loops over the columns, which are
+    // independent of each other, can be vectorized by the compiler.
+    private int[] getColumnSums(int dstw) {
+        if (suma == null || suma.length < dstw) {
+            suma = new int[dstw];
+        }
+        final int[] sums = suma;
+        for (int x = 0; x < dstw; x++) {
+            sums[x] = 0;
+        }
+        return sums;
+    }
+
+    private static void accumulateRow(int[] sums, int dstw, int y, int vsize,
+                                      int srcPixels[], int srch, int srcscan)
+    {
+        if (y >= vsize) {
+            // Un-accumulate the data for row-vsize location into the sums.
+            int srcoff = (y - vsize) * srcscan;
+            for (int x = 0; x < dstw; x++) {
+                sums[x] -= (srcPixels[srcoff + x] >>> 24);
+            }
+        }
+        if (y < srch) {
+            // Accumulate the data for this row location into the sums.
+            int srcoff = y * srcscan;
+            for (int x = 0; x < dstw; x++) {
+                sums[x] += (srcPixels[srcoff + x] >>> 24);
+            }
+        }
+    }
+
     protected void filterVerticalBlack(int dstPixels[], int dstw, int dsth, int dstscan,
                                        int srcPixels[], int srcw, int srch, int srcscan,
                                        float spread)
@@ -185,27 +221,19 @@ public class JSWBoxShadowPeer extends JSWEffectPeer<BoxRenderState> {
         amax += (255 - amax) * spread;
         int kscale = 0x7fffffff / amax;
         int amin = (amax / 255);
-        int voff = vsize * srcscan;
-        for (int x = 0; x < dstw; x++) {
-            int suma = 0;
-            int srcoff = x;
-            int dstoff = x;
-            for (int y = 0; y < dsth; y++) {
-                int rgb;
-                // Un-accumulate the data for row-vsize location into the sums.
-                rgb = (srcoff >= voff) ? srcPixels[srcoff - voff] : 0;
-                suma -= (rgb >>> 24);
-                // Accumulate the data for this row location into the sums.
-                rgb = (y < srch) ? srcPixels[srcoff] : 0;
-                suma += (rgb >>> 24);
+        final int[] sums = getColumnSums(dstw);
+        int dstoff = 0;
+        for (int y = 0; y < dsth; y++) {
+            accumulateRow(sums, dstw, y, vsize, srcPixels, srch, srcscan);
+            for (int x = 0; x < dstw; x++) {
+                int suma = sums[x];
                 // Clamp, scale and convert the sum into a color.
-                dstPixels[dstoff] =
+                dstPixels[dstoff + x] =
                     ((suma < amin) ? 0
                      : ((suma >= amax) ? 0xff000000
                         : (((suma * kscale) >> 23) << 24)));
-                srcoff += srcscan;
-                dstoff += dstscan;
             }
+            dstoff += dstscan;
         }
     }
 
@@ -223,35 +251,27 @@ public class JSWBoxShadowPeer extends JSWEffectPeer<BoxRenderState> {
         int kscaleb = (int) (kscalea * shadowColor[2]);
         kscalea *= shadowColor[3];
         int amin = (amax / 255);
-        int voff = vsize * srcscan;
         int shadowRGB =
             (((int) (shadowColor[0] * 255)) << 16) |
             (((int) (shadowColor[1] * 255)) <<  8) |
             (((int) (shadowColor[2] * 255))      ) |
             (((int) (shadowColor[3] * 255)) << 24);
-        for (int x = 0; x < dstw; x++) {
-            int suma = 0;
-            int srcoff = x;
-            int dstoff = x;
-            for (int y = 0; y < dsth; y++) {
-                int rgb;
-                // Un-accumulate the data for row-vsize location into the sums.
-                rgb = (srcoff >= voff) ? srcPixels[srcoff - voff] : 0;
-                suma -= (rgb >>> 24);
-                // Accumulate the data for this row location into the sums.
-                rgb = (y < srch) ? srcPixels[srcoff] : 0;
-                suma += (rgb >>> 24);
+        final int[] sums = getColumnSums(dstw);
+        int dstoff = 0;
+        for (int y = 0; y < dsth; y++) {
+            accumulateRow(sums, dstw, y, vsize, srcPixels, srch, srcscan);
+            for (int x = 0; x < dstw; x++) {
+                int suma = sums[x];
                 // Clamp, scale and convert the sum into a color.
-                dstPixels[dstoff] =
+                dstPixels[dstoff + x] =
                     ((suma < amin) ? 0
                      : ((suma >= amax) ? shadowRGB
                         : ((((suma * kscalea) >> 23) << 24) |
                            (((suma * kscaler) >> 23) << 16) |
                            (((suma * kscaleg) >> 23) <<  8) |
                            (((suma * kscaleb) >> 23)      ))));
-                srcoff += srcscan;
-                dstoff += dstscan;
             }
+            dstoff += dstscan;
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2010, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2010, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -983,6 +983,7 @@ public abstract class Node implements EventTarget, Styleable {
                     }
                     updateTreeVisible(true);
                     oldParent = newParent;
+                    invalidateLocalToSceneTx();
                     invalidateLocalToSceneTransform();
                     parentResolvedOrientationInvalidated();
                     notifyAccessibleAttributeChanged(AccessibleAttribute.PARENT);
@@ -3247,12 +3248,14 @@ public abstract class Node implements EventTarget, Styleable {
             boolean isPerspective = camera instanceof PerspectiveCamera ? true : false;
             Transform localToSceneTx = getLocalToSceneTransform();
             Affine3D tempTx = TempState.getInstance().tempTx;
-            BaseBounds localBounds = new BoxBounds((float) bounds.getMinX(),
-                                                   (float) bounds.getMinY(),
-                                                   (float) bounds.getMinZ(),
-                                                   (float) bounds.getMaxX(),
-                                                   (float) bounds.getMaxY(),
-                                                   (float) bounds.getMaxZ());
+            BoxBounds localBoxBounds = TempState.getInstance().localBoxBounds;
+            localBoxBounds.setBounds((float) bounds.getMinX(),
+                                     (float) bounds.getMinY(),
+                                     (float) bounds.getMinZ(),
+                                     (float) bounds.getMaxX(),
+                                     (float) bounds.getMaxY(),
+                                     (float) bounds.getMaxZ());
+            BaseBounds localBounds = localBoxBounds;
 
             // NOTE: Viewing frustrum check on camera's clipping plane is now only
             // for perspective camera.
@@ -3307,7 +3310,7 @@ public abstract class Node implements EventTarget, Styleable {
                     }
 
                 } else {
-                    BaseBounds nodeInCameraBounds = new BoxBounds();
+                    BaseBounds nodeInCameraBounds = TempState.getInstance().cameraBoxBounds;
 
                     // We need to set tempTx to identity since it is a recycled transform.
                     // This is because TransformHelper.apply() is a matrix concatenation operation.
@@ -3579,6 +3582,35 @@ public abstract class Node implements EventTarget, Styleable {
      */
     private boolean transformDirty = true;
 
+    /**
+     * An affine transform that holds the cached local-to-scene transform,
+     * that is the concatenation of the localToParentTx of this node and all
+     * of its ancestors. It is validated lazily by getLocalToSceneTx().
+     */
+    private BaseTransform localToSceneTx = BaseTransform.IDENTITY_TRANSFORM;
+
+    /**
+     * This flag is used to indicate that the localToParentTx or the parent of
+     * this node has changed, so localToSceneTx needs to be recomputed.
+     */
+    private boolean localToSceneTxDirty = true;
+
+    /**
+     * Whether the localToParentTx of this node and of all of its ancestors
+     * are 2D transforms, in which case localToSceneTx maps 2D points exactly
+     * as applying each of them in turn does.
+     */
+    private boolean localToSceneTx2D = true;
+
+    /**
+     * Incremented each time localToSceneTx is recomputed. Children remember
+     * the stamp of their parent to find out whether the transform they have
+     * concatenated with is still current. A change of parent marks the
+     * transform dirty, so only the stamp of the parent needs to be kept.
+     */
+    private long localToSceneTxStamp;
+    private long localToSceneTxParentStamp;
+
     /**
      * The cached transformed bounds. This is never null, but is frequently set
      * to be invalid whenever the bounds for the node have changed. These are
@@ -4968,6 +5000,7 @@ public abstract class Node implements EventTarget, Styleable {
             transformedBoundsChanged();
         }
         invalidateLocalToParentTransform();
+        invalidateLocalToSceneTx();
         invalidateLocalToSceneTransform();
     }
 
@@ -5078,31 +5111,78 @@ public abstract class Node implements EventTarget, Styleable {
     }
 
     void sceneToLocal(com.sun.javafx.geom.Point2D pt) throws NoninvertibleTransformException {
-        if (getParent() != null) {
-            getParent().sceneToLocal(pt);
+        if (getLocalToSceneTx2D()) {
+            getLocalToSceneTx().inverseTransform(pt, pt);
+        } else {
+            // Each level drops the z coordinate of the 2D point
+            if (getParent() != null) {
+                getParent().sceneToLocal(pt);
+            }
+            parentToLocal(pt);
         }
-        parentToLocal(pt);
     }
 
     void sceneToLocal(com.sun.javafx.geom.Vec3d pt) throws NoninvertibleTransformException {
-        if (getParent() != null) {
-            getParent().sceneToLocal(pt);
-        }
-        parentToLocal(pt);
+        getLocalToSceneTx().inverseTransform(pt, pt);
     }
 
     void localToScene(com.sun.javafx.geom.Point2D pt) {
-        localToParent(pt);
-        if (getParent() != null) {
-            getParent().localToScene(pt);
+        if (getLocalToSceneTx2D()) {
+            getLocalToSceneTx().transform(pt, pt);
+        } else {
+            // Each level drops the z coordinate of the 2D point
+            localToParent(pt);
+            if (getParent() != null) {
+                getParent().localToScene(pt);
+            }
         }
     }
 
     void localToScene(com.sun.javafx.geom.Vec3d pt) {
-        localToParent(pt);
-        if (getParent() != null) {
-            getParent().localToScene(pt);
+        getLocalToSceneTx().transform(pt, pt);
+    }
+
+    /*
+     * Marks the cached localToSceneTx of this node as dirty. The descendants
+     * find out about the change through the stamps when they are validated.
+     */
+    private void invalidateLocalToSceneTx() {
+        localToSceneTxDirty = true;
+    }
+
+    private boolean getLocalToSceneTx2D() {
+        getLocalToSceneTx();
+        return localToSceneTx2D;
+    }
+
+    /**
+     * Returns the cached local-to-scene transform, recomputing it only if
+     * the localToParentTx of this node or of any of its ancestors, or the
+     * parent of any of them, has changed since the last call. The returned
+     * transform must not be modified by the caller.
+     */
+    BaseTransform getLocalToSceneTx() {
+        final Node parentNode = getParent();
+        if (parentNode != null) {
+            final BaseTransform parentTx = parentNode.getLocalToSceneTx();
+            if (localToSceneTxDirty
+                    || localToSceneTxParentStamp != parentNode.localToSceneTxStamp) {
+                updateLocalToParentTransform();
+                localToSceneTx = localToSceneTx.deriveWithNewTransform(parentTx)
+                        .deriveWithConcatenation(localToParentTx);
+                localToSceneTx2D = parentNode.localToSceneTx2D && localToParentTx.is2D();
+                localToSceneTxParentStamp = parentNode.localToSceneTxStamp;
+                localToSceneTxStamp++;
+            }
+        } else if (localToSceneTxDirty) {
+            updateLocalToParentTransform();
+            localToSceneTx = localToSceneTx.deriveWithNewTransform(localToParentTx);
+            localToSceneTx2D = localToParentTx.is2D();
+            localToSceneTxStamp++;
         }
+
+        localToSceneTxDirty = false;
+        return localToSceneTx;
     }
 
     /* *************************************************************************
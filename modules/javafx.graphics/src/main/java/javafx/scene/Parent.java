@@ -586,6 +586,13 @@ public abstract class Parent extends Node {
                 //do not populate too many children in removed list
                 removedChildrenOptimizationDisabled = true;
             }
+            // If all of the children are being removed (typically through
+            // clear() or setAll()), drop the bounds tracking state at once
+            // rather than excluding the children one by one.
+            final boolean removingAll = removedLength > 0 && removedLength == children.size();
+            if (removingAll) {
+                resetCachedBounds();
+            }
             for (int i = 0; i < toBeRemoved.length; i += 2) {
                 for (int j = toBeRemoved[i]; j < toBeRemoved[i + 1]; j++) {
                     Node old = children.get(j);
@@ -593,12 +600,11 @@ public abstract class Parent extends Node {
                     if (oldScene != null) {
                         oldScene.generateMouseExited(old);
                     }
-                    if (dirtyChildren != null) {
-                        dirtyChildren.remove(old);
-                    }
                     if (old.isVisible()) {
                         geomChanged = true;
-                        childExcluded(old);
+                        if (!removingAll) {
+                            childExcluded(old);
+                        }
                     }
                     if (old.getParent() == Parent.this) {
                         old.setParent(null);
@@ -1477,6 +1483,12 @@ public abstract class Parent extends Node {
      * important speed boost. For the sake of memory consumption, this is
      * null unless the number of children ever crosses the threshold where
      * it will be activated.
+     * <p>
+     * Nodes are not removed from this list when they stop being dirty, as
+     * that would make bulk removals quadratic. Instead the list may contain
+     * stale entries (nodes which are no longer dirty, or no longer children
+     * of this parent) which are skipped when the list is processed, and
+     * compacted away once they outnumber the dirty children.
      */
     private ArrayList<Node> dirtyChildren;
 
@@ -1570,17 +1582,55 @@ public abstract class Parent extends Node {
         node.boundsChanged = dirty;
         if (dirty) {
             if (dirtyChildren != null) {
+                if (dirtyChildren.size() > 2 * dirtyChildrenCount + DIRTY_CHILDREN_THRESHOLD) {
+                    compactDirtyChildren();
+                }
                 dirtyChildren.add(node);
             }
             ++dirtyChildrenCount;
         } else {
-            if (dirtyChildren != null) {
-                dirtyChildren.remove(node);
-            }
+            // the node stays in dirtyChildren as a stale entry
             --dirtyChildrenCount;
         }
     }
 
+    /**
+     * Removes the stale and duplicate entries from dirtyChildren, leaving
+     * exactly one entry per dirty child.
+     */
+    private void compactDirtyChildren() {
+        int count = 0;
+        for (int i = 0, max = dirtyChildren.size(); i < max; i++) {
+            final Node node = dirtyChildren.get(i);
+            if (node.boundsChanged && node.getParent() == this) {
+                // temporarily clear the flag so that duplicates are dropped
+                node.boundsChanged = false;
+                dirtyChildren.set(count++, node);
+            }
+        }
+        dirtyChildren.subList(count, dirtyChildren.size()).clear();
+        for (int i = 0; i < count; i++) {
+            dirtyChildren.get(i).boundsChanged = true;
+        }
+    }
+
+    /**
+     * Forgets all of the bounds tracking state. Used when all of the
+     * children are about to be removed.
+     */
+    private void resetCachedBounds() {
+        for (int i = 0, max = children.size(); i < max; i++) {
+            children.get(i).boundsChanged = false;
+        }
+        if (dirtyChildren != null) {
+            dirtyChildren.clear();
+        }
+        dirtyChildrenCount = 0;
+        top = left = bottom = right = near = far = null;
+        cachedBounds.makeEmpty();
+        cachedBoundsInvalid = true;
+    }
+
     private void childIncluded(final Node node) {
         // assert node.isVisible();
         cachedBoundsInvalid = true;
@@ -1702,7 +1752,7 @@ public abstract class Parent extends Node {
         // whole children list, we can end early
         for (int i = dirtyNodes.size() - 1; remainingDirtyNodes > 0; --i) {
             final Node node = dirtyNodes.get(i);
-            if (node.boundsChanged) {
+            if (node.boundsChanged && node.getParent() == this) {
                 // assert node.isVisible();
                 node.boundsChanged = false;
                 --remainingDirtyNodes;
@@ -1769,9 +1819,13 @@ public abstract class Parent extends Node {
         final int nodeCount = fromNodes.size();
         int i;
 
-        // handle first visible non-empty node
+        // handle first visible non-empty node, skipping stale entries in
+        // case fromNodes is the dirtyChildren list
         for (i = 0; i < nodeCount; ++i) {
             final Node node = fromNodes.get(i);
+            if (node.getParent() != this) {
+                continue;
+            }
             node.boundsChanged = false;
             if (node.isVisible()) {
                 tmp = node.getTransformedBounds(
@@ -1799,6 +1853,9 @@ public abstract class Parent extends Node {
         // handle remaining visible non-empty nodes
         for (++i; i < nodeCount; ++i) {
             final Node node = fromNodes.get(i);
+            if (node.getParent() != this) {
+                continue;
+            }
             node.boundsChanged = false;
             if (node.isVisible()) {
                 tmp = node.getTransformedBounds(
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -526,11 +526,11 @@ JNIEXPORT jint JNICALL Java_com_sun_prism_es2_GLContext_nCreateFBO
 /*
  * Class:     com_sun_prism_es2_GLContext
  * Method:    nCreateProgram
- * Signature: (JI[II[Ljava/lang/String;[I)I
+ * Signature: (JI[II[Ljava/lang/String;[IZ)I
  */
 JNIEXPORT jint JNICALL Java_com_sun_prism_es2_GLContext_nCreateProgram
 (JNIEnv *env, jclass class, jlong nativeCtxInfo, jint vertID, jintArray fragIDArr,
-        jint numAttrs, jobjectArray attrs, jintArray indexs) {
+        jint numAttrs, jobjectArray attrs, jintArray indexs, jboolean retrievable) {
     GLuint shaderProgram;
     GLint success;
     int i;
@@ -575,6 +575,12 @@ JNIEXPORT jint JNICALL Java_com_sun_prism_es2_GLContext_nCreateProgram
         free(attrNameString);
     }
 
+    // ask for a binary which can be saved once the program is linked
+    if (retrievable && (ctxInfo->glProgramParameteri != NULL)) {
+        ctxInfo->glProgramParameteri(shaderProgram,
+                GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL_TRUE);
+    }
+
     // link the program
     ctxInfo->glLinkProgram(shaderProgram);
     ctxInfo->glGetProgramiv(shaderProgram, GL_LINK_STATUS, &success);
@@ -607,6 +613,113 @@ JNIEXPORT jint JNICALL Java_com_sun_prism_es2_GLContext_nCreateProgram
     return shaderProgram;
 }
 
+/*
+ * Class:     com_sun_prism_es2_GLContext
+ * Method:    nIsProgramBinarySupported
+ * Signature: (J)Z
+ */
+JNIEXPORT jboolean JNICALL Java_com_sun_prism_es2_GLContext_nIsProgramBinarySupported
+(JNIEnv *env, jclass class, jlong nativeCtxInfo) {
+    GLint numFormats = 0;
+    ContextInfo *ctxInfo = (ContextInfo *) jlong_to_ptr(nativeCtxInfo);
+    if ((ctxInfo == NULL) || (ctxInfo->glGetProgramBinary == NULL)
+            || (ctxInfo->glProgramBinary == NULL)) {
+        return JNI_FALSE;
+    }
+
+    // The entry points may be exported by drivers which support no format
+    glGetIntegerv(GL_NUM_PROGRAM_BINARY_FORMATS, &numFormats);
+    if (glGetError() != GL_NO_ERROR) {
+        return JNI_FALSE;
+    }
+    return numFormats > 0 ? JNI_TRUE : JNI_FALSE;
+}
+
+/*
+ * Class:     com_sun_prism_es2_GLContext
+ * Method:    nGetProgramBinary
+ * Signature: (JI[I)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_com_sun_prism_es2_GLContext_nGetProgramBinary
+(JNIEnv *env, jclass class, jlong nativeCtxInfo, jint programID, jintArray formatArr) {
+    GLint length = 0;
+    GLsizei written = 0;
+    GLenum format = 0;
+    jint jformat;
+    void *binary;
+    jbyteArray result;
+    ContextInfo *ctxInfo = (ContextInfo *) jlong_to_ptr(nativeCtxInfo);
+    if ((ctxInfo == NULL) || (formatArr == NULL)
+            || (ctxInfo->glGetProgramiv == NULL)
+            || (ctxInfo->glGetProgramBinary == NULL)) {
+        return NULL;
+    }
+
+    ctxInfo->glGetProgramiv(programID, GL_PROGRAM_BINARY_LENGTH, &length);
+    if (length <= 0) {
+        return NULL;
+    }
+    binary = malloc(length);
+    if (binary == NULL) {
+        return NULL;
+    }
+    ctxInfo->glGetProgramBinary(programID, length, &written, &format, binary);
+    if ((glGetError() != GL_NO_ERROR) || (written <= 0)) {
+        free(binary);
+        return NULL;
+    }
+
+    result = (*env)->NewByteArray(env, written);
+    if (result != NULL) {
+        (*env)->SetByteArrayRegion(env, result, 0, written, (jbyte *) binary);
+        jformat = (jint) format;
+        (*env)->SetIntArrayRegion(env, formatArr, 0, 1, &jformat);
+    }
+    free(binary);
+    return result;
+}
+
+/*
+ * Class:     com_sun_prism_es2_GLContext
+ * Method:    nCreateProgramFromBinary
+ * Signature: (JI[B)I
+ */
+JNIEXPORT jint JNICALL Java_com_sun_prism_es2_GLContext_nCreateProgramFromBinary
+(JNIEnv *env, jclass class, jlong nativeCtxInfo, jint format, jbyteArray binaryArr) {
+    GLuint shaderProgram;
+    GLint success = GL_FALSE;
+    jbyte *binary;
+    jsize length;
+    ContextInfo *ctxInfo = (ContextInfo *) jlong_to_ptr(nativeCtxInfo);
+    if ((ctxInfo == NULL) || (binaryArr == NULL)
+            || (ctxInfo->glCreateProgram == NULL)
+            || (ctxInfo->glProgramBinary == NULL)
+            || (ctxInfo->glGetProgramiv == NULL)
+            || (ctxInfo->glDeleteProgram == NULL)) {
+        return 0;
+    }
+
+    length = (*env)->GetArrayLength(env, binaryArr);
+    binary = (*env)->GetByteArrayElements(env, binaryArr, NULL);
+    if (binary == NULL) {
+        return 0;
+    }
+    shaderProgram = ctxInfo->glCreateProgram();
+    ctxInfo->glProgramBinary(shaderProgram, (GLenum) format, binary, length);
+    (*env)->ReleaseByteArrayElements(env, binaryArr, binary, JNI_ABORT);
+
+    // A binary is rejected, without any error to report, when it was saved
+    // by a different driver, so the caller falls back to the source
+    ctxInfo->glGetProgramiv(shaderProgram, GL_LINK_STATUS, &success);
+    if (success == GL_FALSE) {
+        // clear the GL_INVALID_ENUM raised for an unknown format
+        glGetError();
+        ctxInfo->glDeleteProgram(shaderProgram);
+        return 0;
+    }
+    return shaderProgram;
+}
+
 /*
  * Class:     com_sun_prism_es2_GLContext
  * Method:    nCompileShader
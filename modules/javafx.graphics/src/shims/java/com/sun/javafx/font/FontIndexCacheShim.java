@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import com.sun.javafx.font.FontConfigManager.FcCompFont;
+import com.sun.javafx.font.FontConfigManager.FontConfigFont;
+
+public class FontIndexCacheShim {
+
+    public static File getCacheDir() {
+        return FontIndexCache.cacheDir;
+    }
+
+    public static void setCacheDir(File dir) {
+        FontIndexCache.cacheDir = dir;
+    }
+
+    /**
+     * Stores logical fonts named after the given files, each of which maps
+     * to a single font in that file.
+     */
+    public static void storeLogicalFonts(String key, String[] files) {
+        FcCompFont[] fonts = new FcCompFont[files.length];
+        for (int i = 0; i < files.length; i++) {
+            FontConfigFont font = new FontConfigFont();
+            font.familyName = "Family" + i;
+            font.styleStr = "Regular";
+            font.fullName = "Family" + i + " Regular";
+            font.fontFile = files[i];
+            fonts[i] = new FcCompFont();
+            fonts[i].fcName = "font" + i + ":regular";
+            fonts[i].fcFamily = "font" + i;
+            fonts[i].style = i % 4;
+            fonts[i].firstFont = font;
+            fonts[i].allFonts = new FontConfigFont[] { font };
+        }
+        FontIndexCache.storeLogicalFonts(key, fonts);
+    }
+
+    /**
+     * Returns the file of the first font of each cached logical font, or
+     * null if there is no valid cache.
+     */
+    public static String[] loadLogicalFontFiles(String key) {
+        FcCompFont[] fonts = FontIndexCache.loadLogicalFonts(key);
+        if (fonts == null) {
+            return null;
+        }
+        String[] files = new String[fonts.length];
+        for (int i = 0; i < fonts.length; i++) {
+            files[i] = fonts[i].firstFont.fontFile;
+        }
+        return files;
+    }
+
+    public static boolean loadMaps(String key,
+                                   HashMap<String,String> fontToFileMap,
+                                   HashMap<String,String> fontToFamilyNameMap,
+                                   HashMap<String,ArrayList<String>> familyToFontListMap) {
+        return FontIndexCache.loadMaps(key, fontToFileMap,
+                                       fontToFamilyNameMap, familyToFontListMap);
+    }
+
+    public static void storeMaps(String key,
+                                 HashMap<String,String> fontToFileMap,
+                                 HashMap<String,String> fontToFamilyNameMap,
+                                 HashMap<String,ArrayList<String>> familyToFontListMap) {
+        FontIndexCache.storeMaps(key, fontToFileMap,
+                                 fontToFamilyNameMap, familyToFontListMap);
+    }
+
+    public static Set<String> getStampedPaths(List<String> fontFiles) {
+        return FontIndexCache.getStamps(fontFiles).keySet();
+    }
+
+    public static List<String> getFontDirs(String config) {
+        return FontIndexCache.getFontDirs(config);
+    }
+}
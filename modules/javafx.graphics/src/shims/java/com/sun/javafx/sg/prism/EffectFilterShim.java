@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.scenario.effect.Filterable;
+import com.sun.scenario.effect.ImageData;
+
+public class EffectFilterShim {
+
+    /**
+     * Keeps an output for the effect of the node, as if the effect had been
+     * rendered with the given transform.
+     */
+    public static void setCached(NGNode node, BaseTransform xform) {
+        EffectFilter filter = node.getEffectFilter();
+        filter.setCachedTransform(xform);
+        filter.setCached(new ImageData(null, new TestFilterable(), new Rectangle(0, 0, 1, 1)),
+                         null);
+    }
+
+    public static boolean isCached(NGNode node) {
+        return node.getEffectFilter().isCached();
+    }
+
+    /**
+     * Returns true if the output kept for the effect of the node would be
+     * drawn with the given transform.
+     */
+    public static boolean isCachedFor(NGNode node, BaseTransform xform) {
+        return node.getEffectFilter().isCachedFor(null, xform);
+    }
+
+    public static void invalidateCacheByTranslation(NGNode node, double dx, double dy) {
+        DirtyHint hint = new DirtyHint();
+        hint.translateXDelta = dx;
+        hint.translateYDelta = dy;
+        node.invalidateCacheByTranslation(hint);
+    }
+
+    private static class TestFilterable implements Filterable {
+        @Override public Object getData() { return null; }
+        @Override public int getContentWidth() { return 1; }
+        @Override public int getContentHeight() { return 1; }
+        @Override public void setContentWidth(int contentW) { }
+        @Override public void setContentHeight(int contentH) { }
+        @Override public int getMaxContentWidth() { return 1; }
+        @Override public int getMaxContentHeight() { return 1; }
+        @Override public int getPhysicalWidth() { return 1; }
+        @Override public int getPhysicalHeight() { return 1; }
+        @Override public float getPixelScale() { return 1f; }
+        @Override public void flush() { }
+        @Override public void lock() { }
+        @Override public void unlock() { }
+        @Override public boolean isLost() { return false; }
+    }
+}
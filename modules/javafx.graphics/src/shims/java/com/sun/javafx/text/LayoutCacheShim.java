@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.text;
+
+import com.sun.javafx.font.FontResource;
+import com.sun.javafx.font.PGFont;
+
+public class LayoutCacheShim {
+
+    public static Object createKey(String text, PGFont font, int flags,
+                                   float wrapWidth, float spacing, int tabSize) {
+        return new LayoutCache.Key(text.toCharArray(), font, flags,
+                                   wrapWidth, spacing, tabSize);
+    }
+
+    public static Object createSharedLayouts(int maxSize) {
+        return new LayoutCache.SharedLayouts(maxSize);
+    }
+
+    public static void put(Object sharedLayouts, Object key) {
+        ((LayoutCache.SharedLayouts) sharedLayouts).put((LayoutCache.Key) key, new LayoutCache());
+    }
+
+    public static boolean contains(Object sharedLayouts, Object key) {
+        return ((LayoutCache.SharedLayouts) sharedLayouts).get((LayoutCache.Key) key) != null;
+    }
+
+    public static int getSize(Object sharedLayouts) {
+        return ((LayoutCache.SharedLayouts) sharedLayouts).getSize();
+    }
+
+    public static Object createShaping(int[] glyphs, float[] advances) {
+        LayoutCache cache = new LayoutCache();
+        cache.glyphs = glyphs;
+        cache.advances = advances;
+        cache.valid = true;
+        return cache;
+    }
+
+    public static Object reuseShaping(Object oldCache, String oldText, String text,
+                                      FontResource fr, float fontSize) {
+        return LayoutCache.reuseShaping((LayoutCache) oldCache, oldText.toCharArray(),
+                                        text.toCharArray(), fr, fontSize);
+    }
+
+    public static int[] getGlyphs(Object cache) {
+        return ((LayoutCache) cache).glyphs;
+    }
+
+    public static float[] getAdvances(Object cache) {
+        return ((LayoutCache) cache).advances;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl;
+
+import com.sun.javafx.geom.Rectangle;
+
+public class GlyphCacheShim {
+
+    public static int getPageCount() {
+        return PrismSettings.glyphCachePages;
+    }
+
+    public static Object createPages(BaseContext context) {
+        return new GlyphCache.Pages(context, false);
+    }
+
+    /**
+     * Starts a new call to prepare, the pages used by the previous calls
+     * may be evicted.
+     */
+    public static void nextCall(Object pages) {
+        ((GlyphCache.Pages) pages).stamp++;
+    }
+
+    /**
+     * Marks the page as used by the current call to prepare.
+     */
+    public static void use(Object pages, int index) {
+        GlyphCache.Pages p = (GlyphCache.Pages) pages;
+        p.get(index).lastUsed = p.stamp;
+    }
+
+    /**
+     * Adds a glyph of the given size, and marks its page as used.
+     *
+     * @return the index of the page of the glyph, or -1 if there is no room
+     */
+    public static int add(Object pages, int width, int height) {
+        GlyphCache.Pages p = (GlyphCache.Pages) pages;
+        GlyphCache.Page page = p.add(new Rectangle(0, 0, width, height));
+        if (page == null) {
+            return -1;
+        }
+        page.lastUsed = p.stamp;
+        return page.index;
+    }
+
+    public static int getGeneration(Object pages, int index) {
+        return ((GlyphCache.Pages) pages).get(index).generation;
+    }
+
+    public static long getEvictions(Object pages) {
+        return ((GlyphCache.Pages) pages).evictions;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+
+public class CachingShapeRepShim {
+
+    public static Object createMaskCache() {
+        return new CachingShapeRepState.MaskCache();
+    }
+
+    /**
+     * Returns the mask of the shape from the cache, which rasterizes it
+     * with a texture of the given factory if it has no equal mask.
+     */
+    public static Object get(Object cache, ResourceFactory factory, Shape shape,
+                             BasicStroke stroke, BaseTransform xform, boolean antialiasedShape)
+    {
+        CachingShapeRepState.MaskTexData texData = new CachingShapeRepState.MaskTexData();
+        RectBounds xformBounds = (RectBounds) xform.transform(shape.getBounds(), new RectBounds());
+        ((CachingShapeRepState.MaskCache) cache).get(factory, texData, shape, stroke, xform,
+                xformBounds, true, antialiasedShape);
+        return texData;
+    }
+
+    public static Texture getTexture(Object texData) {
+        return ((CachingShapeRepState.MaskTexData) texData).maskTex;
+    }
+
+    public static void unref(Object cache, Object texData) {
+        ((CachingShapeRepState.MaskCache) cache).unref((CachingShapeRepState.MaskTexData) texData);
+    }
+}
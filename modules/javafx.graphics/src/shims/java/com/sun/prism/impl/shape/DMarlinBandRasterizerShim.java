@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.DMarlinRenderingEngine;
+import com.sun.marlin.MarlinRenderer;
+import com.sun.marlin.MaskMarlinAlphaConsumer;
+import com.sun.marlin.RendererContext;
+import com.sun.prism.BasicStroke;
+
+public class DMarlinBandRasterizerShim {
+
+    /**
+     * Returns the alphas of the shape within the clip, rasterized by a
+     * single renderer.
+     */
+    public static byte[] getAlphas(Shape shape, BasicStroke stroke, BaseTransform xform,
+                                   Rectangle clip, boolean antialiasedShape)
+    {
+        final RendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+        MarlinRenderer renderer = null;
+        try {
+            renderer = DMarlinPrismUtils.setupRenderer(rdrCtx, shape, stroke, xform, clip,
+                    antialiasedShape);
+            final int x = renderer.getOutpixMinX();
+            final int y = renderer.getOutpixMinY();
+            final int w = renderer.getOutpixMaxX() - x;
+            final int h = renderer.getOutpixMaxY() - y;
+            if ((w <= 0) || (h <= 0)) {
+                return new byte[clip.width * clip.height];
+            }
+            final MaskMarlinAlphaConsumer consumer = new MaskMarlinAlphaConsumer(w * h);
+            consumer.setBoundsNoClone(x, y, w, h);
+            renderer.produceAlphas(consumer);
+            return getAlphas(consumer.getMaskData(), clip);
+        } finally {
+            if (renderer != null) {
+                renderer.dispose();
+            }
+            DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+        }
+    }
+
+    /**
+     * Returns the alphas of the shape within the clip, rasterized in the
+     * given number of bands.
+     */
+    public static byte[] getAlphas(Shape shape, BasicStroke stroke, BaseTransform xform,
+                                   Rectangle clip, boolean antialiasedShape, int bands)
+    {
+        final MaskData mask = DMarlinBandRasterizer.getMaskData(shape, stroke, xform,
+                clip, antialiasedShape, bands);
+        return (mask != null) ? getAlphas(mask, clip) : new byte[clip.width * clip.height];
+    }
+
+    private static byte[] getAlphas(MaskData mask, Rectangle clip) {
+        final byte[] alphas = new byte[clip.width * clip.height];
+        final byte[] src = mask.getMaskBuffer().array();
+        for (int row = 0; row < mask.getHeight(); row++) {
+            System.arraycopy(src, row * mask.getWidth(), alphas,
+                    (mask.getOriginY() - clip.y + row) * clip.width + (mask.getOriginX() - clip.x),
+                    mask.getWidth());
+        }
+        return alphas;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import com.sun.javafx.font.FontFileReaderShim;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+public class FontFileReaderTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("FontFileReaderTest", ".ttf");
+        // A mapped file cannot be deleted on Windows until it is collected
+        file.deleteOnExit();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            for (int i = 0; i < 2048; i++) {
+                raf.writeInt(i);
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testSystemFontFileIsMapped() throws Exception {
+        assumeFalse("false".equals(System.getProperty("prism.mapfonts")));
+        Object reader = FontFileReaderShim.createReader(file.getPath(), true);
+        assertTrue(FontFileReaderShim.openFile(reader));
+        assertTrue(FontFileReaderShim.isMapped(reader));
+        assertEquals(1000, FontFileReaderShim.readInt(reader, 4000));
+        FontFileReaderShim.closeFile(reader);
+        // The mapping is kept after the file is closed
+        assertEquals(2000, FontFileReaderShim.readInt(reader, 8000));
+    }
+
+    @Test
+    public void testUserFontFileIsNotMapped() throws Exception {
+        Object reader = FontFileReaderShim.createReader(file.getPath(), false);
+        assertTrue(FontFileReaderShim.openFile(reader));
+        assertFalse(FontFileReaderShim.isMapped(reader));
+        assertEquals(1000, FontFileReaderShim.readInt(reader, 4000));
+        FontFileReaderShim.closeFile(reader);
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testUserFontFileTruncatedWhileOpen() throws Exception {
+        Object reader = FontFileReaderShim.createReader(file.getPath(), false);
+        assertTrue(FontFileReaderShim.openFile(reader));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(16);
+        }
+        // The missing bytes cannot be read, which fails without a fault
+        FontFileReaderShim.readInt(reader, 4000);
+        FontFileReaderShim.closeFile(reader);
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Stream;
+import com.sun.javafx.font.FontIndexCacheShim;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FontIndexCacheTest {
+
+    private static final String KEY = "en_US-fc";
+
+    private File oldCacheDir;
+    private String oldFontDir;
+    private File root;
+    private File cacheDir;
+    private File fontDir;
+    private String[] fontFiles;
+
+    @Before
+    public void setUp() throws IOException {
+        oldCacheDir = FontIndexCacheShim.getCacheDir();
+        oldFontDir = System.getProperty("prism.fontdir");
+        root = Files.createTempDirectory("FontIndexCacheTest").toFile();
+        cacheDir = new File(root, "cache");
+        fontDir = new File(root, "fonts");
+        assertTrue(fontDir.mkdir());
+        File regular = new File(fontDir, "Regular.ttf");
+        File bold = new File(fontDir, "Bold.ttf");
+        assertTrue(regular.createNewFile());
+        assertTrue(bold.createNewFile());
+        fontFiles = new String[] { regular.getPath(), bold.getPath() };
+        FontIndexCacheShim.setCacheDir(cacheDir);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FontIndexCacheShim.setCacheDir(oldCacheDir);
+        if (oldFontDir == null) {
+            System.clearProperty("prism.fontdir");
+        } else {
+            System.setProperty("prism.fontdir", oldFontDir);
+        }
+        try (Stream<Path> paths = Files.walk(root.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private File getCacheFile() {
+        File[] files = cacheDir.listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        return files[0];
+    }
+
+    private static void touch(File file) {
+        assertTrue(file.setLastModified(file.lastModified() - 10000));
+    }
+
+    @Test
+    public void testLogicalFontsRoundTrip() {
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+        FontIndexCacheShim.storeLogicalFonts(KEY, fontFiles);
+        assertArrayEquals(fontFiles, FontIndexCacheShim.loadLogicalFontFiles(KEY));
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles("en_US"));
+    }
+
+    @Test
+    public void testMapsRoundTrip() {
+        HashMap<String,String> files = new HashMap<>();
+        HashMap<String,String> families = new HashMap<>();
+        HashMap<String,ArrayList<String>> lists = new HashMap<>();
+        files.put("family regular", fontFiles[0]);
+        files.put("family bold", fontFiles[1]);
+        families.put("family regular", "Family");
+        families.put("family bold", "Family");
+        lists.put("family", new ArrayList<>(Arrays.asList("Family Regular", "Family Bold")));
+        FontIndexCacheShim.storeMaps(KEY, files, families, lists);
+
+        HashMap<String,String> cachedFiles = new HashMap<>();
+        HashMap<String,String> cachedFamilies = new HashMap<>();
+        HashMap<String,ArrayList<String>> cachedLists = new HashMap<>();
+        assertTrue(FontIndexCacheShim.loadMaps(KEY, cachedFiles, cachedFamilies, cachedLists));
+        assertEquals(files, cachedFiles);
+        assertEquals(families, cachedFamilies);
+        assertEquals(lists, cachedLists);
+    }
+
+    @Test
+    public void testCacheIsStaleWhenFontDirectoryChanges() {
+        FontIndexCacheShim.storeLogicalFonts(KEY, fontFiles);
+        touch(fontDir);
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+    }
+
+    @Test
+    public void testCacheIsStaleWhenConfiguredDirectoryChanges() {
+        // A font added below a configured directory, where none of the
+        // cached fonts are, must be found by the next run
+        File configured = new File(root, "configured");
+        File sub = new File(configured, "sub");
+        assertTrue(sub.mkdirs());
+        System.setProperty("prism.fontdir", configured.getPath());
+        FontIndexCacheShim.storeLogicalFonts(KEY, fontFiles);
+        assertArrayEquals(fontFiles, FontIndexCacheShim.loadLogicalFontFiles(KEY));
+        touch(sub);
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+    }
+
+    @Test
+    public void testTruncatedFileIsIgnored() throws IOException {
+        FontIndexCacheShim.storeLogicalFonts(KEY, fontFiles);
+        File file = getCacheFile();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 8);
+        }
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+    }
+
+    @Test
+    public void testCorruptFileIsIgnored() throws IOException {
+        FontIndexCacheShim.storeLogicalFonts(KEY, fontFiles);
+        File file = getCacheFile();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        // The last font now claims to have a longer name than there is data
+        Arrays.fill(bytes, bytes.length - 16, bytes.length, (byte) 0xff);
+        Files.write(file.toPath(), bytes);
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+
+        Files.write(file.toPath(), "not a font cache".getBytes(StandardCharsets.UTF_8));
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+        assertFalse(FontIndexCacheShim.loadMaps(KEY, new HashMap<>(), new HashMap<>(), new HashMap<>()));
+    }
+
+    @Test
+    public void testFontWithoutFileIsIgnored() {
+        FontIndexCacheShim.storeLogicalFonts(KEY, new String[] { fontFiles[0], null });
+        assertNull(FontIndexCacheShim.loadLogicalFontFiles(KEY));
+    }
+
+    @Test
+    public void testFontDirsAreReadFromConfiguration() throws IOException {
+        File confDir = new File(root, "conf.d");
+        assertTrue(confDir.mkdir());
+        File config = new File(root, "fonts.conf");
+        Files.write(config.toPath(), List.of(
+                "<fontconfig>",
+                "  <dir>/usr/share/fonts</dir>",
+                "  <dir prefix=\"default\">local</dir>",
+                "  <include ignore_missing=\"yes\">conf.d</include>",
+                "  <include ignore_missing=\"yes\">missing.conf</include>",
+                "</fontconfig>"));
+        Files.write(new File(confDir, "10-user.conf").toPath(), List.of(
+                "<fontconfig>",
+                "  <dir>~/.fonts</dir>",
+                "  <include>../fonts.conf</include>",
+                "</fontconfig>"));
+        Files.write(new File(confDir, "README").toPath(), List.of(
+                "<dir>/ignored</dir>"));
+
+        List<String> dirs = FontIndexCacheShim.getFontDirs(config.getPath());
+        assertEquals(List.of(
+                "/usr/share/fonts",
+                new File(root, "local").getPath(),
+                System.getProperty("user.home") + "/.fonts"), dirs);
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import com.sun.javafx.font.CharToGlyphMapper;
+import com.sun.javafx.font.FontResource;
+import com.sun.javafx.font.FontStrike;
+import com.sun.javafx.font.FontStrikeDesc;
+import com.sun.javafx.font.Glyph;
+import com.sun.javafx.font.GlyphPrewarmerShim;
+import com.sun.javafx.font.Metrics;
+import com.sun.javafx.font.PGFont;
+import com.sun.javafx.geom.Point2D;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.text.GlyphList;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GlyphPrewarmerTest {
+
+    @Test
+    public void testGlyphsArePrewarmedAtEachSize() throws Exception {
+        TestFontResource fr = new TestFontResource();
+        GlyphPrewarmerShim.prewarm(new TestFont(fr), "abca", new float[] { 12, 24 });
+        GlyphPrewarmerShim.waitForPrewarm();
+
+        assertEquals(2, fr.strikes.size());
+        for (TestFontStrike strike : fr.strikes.values()) {
+            assertEquals(Set.of(glyphCode('a'), glyphCode('b'), glyphCode('c')), strike.glyphs);
+        }
+    }
+
+    @Test
+    public void testInvalidSizesAreIgnored() throws Exception {
+        TestFontResource fr = new TestFontResource();
+        GlyphPrewarmerShim.prewarm(new TestFont(fr), "abc", new float[] { 0, -1, Float.NaN });
+        GlyphPrewarmerShim.waitForPrewarm();
+
+        assertTrue(fr.strikes.isEmpty());
+    }
+
+    @Test
+    public void testRetainedStrikesAreBounded() throws Exception {
+        TestFontResource fr = new TestFontResource();
+        float[] sizes = new float[100];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = i + 1;
+        }
+        GlyphPrewarmerShim.prewarm(new TestFont(fr), "a", sizes);
+        GlyphPrewarmerShim.waitForPrewarm();
+
+        assertEquals(sizes.length, fr.strikes.size());
+        assertEquals(32, GlyphPrewarmerShim.getRetainedStrikeCount());
+    }
+
+    private static int glyphCode(char c) {
+        return c + 1;
+    }
+
+    private static class TestFont implements PGFont {
+        private final FontResource fontResource;
+
+        TestFont(FontResource fontResource) {
+            this.fontResource = fontResource;
+        }
+
+        @Override public String getFullName() { return "Test"; }
+        @Override public String getFamilyName() { return "Test"; }
+        @Override public String getStyleName() { return "Regular"; }
+        @Override public String getName() { return "Test"; }
+        @Override public float getSize() { return 12; }
+        @Override public FontResource getFontResource() { return fontResource; }
+        @Override public FontStrike getStrike(BaseTransform transform) { return null; }
+        @Override public FontStrike getStrike(BaseTransform transform, int smoothingType) { return null; }
+        @Override public int getFeatures() { return 0; }
+    }
+
+    private static class TestFontResource implements FontResource {
+        // The strikes are created on the prewarm thread
+        final Map<Float, TestFontStrike> strikes = new ConcurrentHashMap<>();
+
+        private final CharToGlyphMapper mapper = new CharToGlyphMapper() {
+            @Override public int getGlyphCode(int charCode) {
+                return glyphCode((char) charCode);
+            }
+        };
+
+        @Override public String getFullName() { return "Test"; }
+        @Override public String getPSName() { return "Test"; }
+        @Override public String getFamilyName() { return "Test"; }
+        @Override public String getFileName() { return null; }
+        @Override public String getStyleName() { return "Regular"; }
+        @Override public String getLocaleFullName() { return "Test"; }
+        @Override public String getLocaleFamilyName() { return "Test"; }
+        @Override public String getLocaleStyleName() { return "Regular"; }
+        @Override public int getFeatures() { return 0; }
+        @Override public boolean isBold() { return false; }
+        @Override public boolean isItalic() { return false; }
+        @Override public float getAdvance(int gc, float size) { return 0; }
+        @Override public float[] getGlyphBoundingBox(int gc, float size, float[] retArr) { return retArr; }
+        @Override public int getDefaultAAMode() { return AA_GREYSCALE; }
+        @Override public CharToGlyphMapper getGlyphMapper() { return mapper; }
+        @Override public Map<FontStrikeDesc, WeakReference<FontStrike>> getStrikeMap() { return null; }
+        @Override public FontStrike getStrike(float size, BaseTransform transform) {
+            return getStrike(size, transform, AA_GREYSCALE);
+        }
+        @Override public FontStrike getStrike(float size, BaseTransform transform, int aaMode) {
+            return strikes.computeIfAbsent(size, s -> new TestFontStrike(this, s));
+        }
+        @Override public Object getPeer() { return null; }
+        @Override public void setPeer(Object peer) { }
+        @Override public boolean isEmbeddedFont() { return false; }
+    }
+
+    private static class TestFontStrike implements FontStrike {
+        private final FontResource fontResource;
+        private final float size;
+        final Set<Integer> glyphs = ConcurrentHashMap.newKeySet();
+
+        TestFontStrike(FontResource fontResource, float size) {
+            this.fontResource = fontResource;
+            this.size = size;
+        }
+
+        @Override public FontResource getFontResource() { return fontResource; }
+        @Override public float getSize() { return size; }
+        @Override public BaseTransform getTransform() { return BaseTransform.IDENTITY_TRANSFORM; }
+        @Override public boolean drawAsShapes() { return false; }
+        @Override public int getQuantizedPosition(Point2D point) { return 0; }
+        @Override public Metrics getMetrics() { return null; }
+        @Override public Glyph getGlyph(char symbol) { return null; }
+        @Override public Glyph getGlyph(int glyphCode) { return null; }
+        @Override public void clearDesc() { }
+        @Override public int getAAMode() { return FontResource.AA_GREYSCALE; }
+        @Override public float getCharAdvance(char ch) { return 0; }
+        @Override public Shape getOutline(GlyphList gl, BaseTransform transform) { return null; }
+        @Override public void prewarmGlyph(int glyphCode) {
+            glyphs.add(glyphCode);
+        }
+    }
+}
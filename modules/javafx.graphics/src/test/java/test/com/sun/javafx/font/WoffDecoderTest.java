@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import com.sun.javafx.font.WoffDecoderShim;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.fail;
+
+public class WoffDecoderTest {
+
+    private static final int[] TAGS = {
+        0x61626364, // 'abcd'
+        0x68656164, // 'head'
+        0x6E616D65, // 'name'
+    };
+
+    private static byte[][] createTables() {
+        byte[] abcd = { 1, 2, 3, 4, 5 };
+        byte[] head = new byte[54];
+        for (int i = 0; i < head.length; i++) {
+            head[i] = (byte) (i * 7);
+        }
+        byte[] name = new byte[200];
+        Arrays.fill(name, (byte) 'a');
+        return new byte[][] { abcd, head, name };
+    }
+
+    private static int padded(int length) {
+        return (length + 3) & ~3;
+    }
+
+    /*
+     * Creates a TrueType font with the tables of the given data, stored in
+     * the file in the given order while the directory is ordered by tag.
+     */
+    private static byte[] createSfnt(byte[][] tables, int[] order) {
+        int size = 12 + 16 * tables.length;
+        for (byte[] table : tables) {
+            size += padded(table.length);
+        }
+        ByteBuffer sfnt = ByteBuffer.allocate(size);
+        sfnt.putInt(0x00010000);
+        sfnt.putShort((short) tables.length);
+        sfnt.putShort((short) 32);  // searchRange
+        sfnt.putShort((short) 1);   // entrySelector
+        sfnt.putShort((short) 16);  // rangeShift
+        int[] offsets = new int[tables.length];
+        int offset = 12 + 16 * tables.length;
+        for (int i : order) {
+            offsets[i] = offset;
+            offset += padded(tables[i].length);
+        }
+        for (int i = 0; i < tables.length; i++) {
+            sfnt.putInt(TAGS[i]);
+            sfnt.putInt(0x1000 + i); // checksum
+            sfnt.putInt(offsets[i]);
+            sfnt.putInt(tables[i].length);
+        }
+        for (int i : order) {
+            sfnt.position(offsets[i]);
+            sfnt.put(tables[i]);
+        }
+        return sfnt.array();
+    }
+
+    private static byte[] compress(byte[] data) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    /*
+     * Encodes the font as the WOFF 1.0 specification does, compressing the
+     * tables which get smaller, with the data in the order of the sfnt.
+     */
+    private static byte[] createWoff(byte[][] tables, int[] order,
+                                     int totalSfntSize) {
+        byte[][] data = new byte[tables.length][];
+        int size = 44 + 20 * tables.length;
+        for (int i = 0; i < tables.length; i++) {
+            byte[] compressed = compress(tables[i]);
+            data[i] = compressed.length < tables[i].length ? compressed : tables[i];
+            size += padded(data[i].length);
+        }
+        ByteBuffer woff = ByteBuffer.allocate(size);
+        woff.putInt(0x774F4646);
+        woff.putInt(0x00010000);
+        woff.putInt(size);
+        woff.putShort((short) tables.length);
+        woff.putShort((short) 0);
+        woff.putInt(totalSfntSize);
+        woff.putShort((short) 1);
+        woff.putShort((short) 0);
+        woff.putInt(0).putInt(0).putInt(0).putInt(0).putInt(0);
+        int[] offsets = new int[tables.length];
+        int offset = 44 + 20 * tables.length;
+        for (int i : order) {
+            offsets[i] = offset;
+            offset += padded(data[i].length);
+        }
+        for (int i = 0; i < tables.length; i++) {
+            woff.putInt(TAGS[i]);
+            woff.putInt(offsets[i]);
+            woff.putInt(data[i].length);
+            woff.putInt(tables[i].length);
+            woff.putInt(0x1000 + i);
+        }
+        for (int i : order) {
+            woff.position(offsets[i]);
+            woff.put(data[i]);
+        }
+        return woff.array();
+    }
+
+    @Test
+    public void testDecodeRestoresTheFont() throws Exception {
+        byte[][] tables = createTables();
+        int[] order = { 0, 1, 2 };
+        byte[] sfnt = createSfnt(tables, order);
+        byte[] woff = createWoff(tables, order, sfnt.length);
+        assertArrayEquals(sfnt, WoffDecoderShim.decode(woff));
+    }
+
+    @Test
+    public void testDecodeKeepsTheOrderOfTheTables() throws Exception {
+        byte[][] tables = createTables();
+        int[] order = { 2, 0, 1 };
+        byte[] sfnt = createSfnt(tables, order);
+        byte[] woff = createWoff(tables, order, sfnt.length);
+        assertArrayEquals(sfnt, WoffDecoderShim.decode(woff));
+    }
+
+    @Test
+    public void testDecodeRejectsInvalidTotalSfntSize() throws Exception {
+        byte[][] tables = createTables();
+        int[] order = { 0, 1, 2 };
+        byte[] sfnt = createSfnt(tables, order);
+        byte[] woff = createWoff(tables, order, sfnt.length + 4);
+        try {
+            WoffDecoderShim.decode(woff);
+            fail("Expected an exception");
+        } catch (Exception e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDecodeRejectsCorruptTables() throws Exception {
+        byte[][] tables = createTables();
+        int[] order = { 0, 1, 2 };
+        byte[] sfnt = createSfnt(tables, order);
+        byte[] woff = createWoff(tables, order, sfnt.length);
+        // Truncate the compressed 'name' table, the last one in the file
+        byte[] truncated = Arrays.copyOf(woff, woff.length - 8);
+        try {
+            WoffDecoderShim.decode(truncated);
+            fail("Expected an exception");
+        } catch (Exception e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.geom;
+
+import com.sun.javafx.geom.Area;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.RoundRectangle2D;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AreaTest {
+    private static Area rect(int x, int y, int w, int h) {
+        return new Area(new RoundRectangle2D(x, y, w, h, 0, 0));
+    }
+
+    // A square ring, with a square island in its hole if island > 0
+    private static Area ring(int x, int y, int size, int hole, int island) {
+        Area a = rect(x, y, size, size);
+        int d = (size - hole) / 2;
+        a.subtract(rect(x + d, y + d, hole, hole));
+        if (island > 0) {
+            d = (size - island) / 2;
+            a.add(rect(x + d, y + d, island, island));
+        }
+        return a;
+    }
+
+    // Checks the area with both the crossings of the area itself and the
+    // non-zero winding rule used to fill its outline
+    private static void checkContains(Area a, float x, float y, boolean expected) {
+        assertEquals(expected, a.contains(x, y));
+        Path2D p = new Path2D(a);
+        p.setWindingRule(Path2D.WIND_NON_ZERO);
+        assertEquals(expected, p.contains(x, y));
+    }
+
+    @Test
+    public void testDisjointAreas() {
+        Area a = rect(0, 0, 10, 10);
+        a.add(rect(100, 0, 10, 10));
+        checkContains(a, 5, 5, true);
+        checkContains(a, 105, 5, true);
+        checkContains(a, 50, 5, false);
+
+        a = rect(0, 0, 10, 10);
+        a.exclusiveOr(rect(100, 0, 10, 10));
+        checkContains(a, 5, 5, true);
+        checkContains(a, 105, 5, true);
+
+        a = rect(0, 0, 10, 10);
+        a.subtract(rect(100, 0, 10, 10));
+        checkContains(a, 5, 5, true);
+        checkContains(a, 105, 5, false);
+
+        a = rect(0, 0, 10, 10);
+        a.intersect(rect(100, 0, 10, 10));
+        assertTrue(a.isEmpty());
+    }
+
+    @Test
+    public void testUntouchedSubPathsAreKept() {
+        Area a = ring(0, 0, 100, 40, 20);
+        a.add(rect(200, 0, 10, 10));
+        a.add(rect(205, 5, 10, 10));
+        checkContains(a, 10, 10, true);
+        checkContains(a, 35, 35, false);
+        checkContains(a, 50, 50, true);
+        checkContains(a, 202, 2, true);
+        checkContains(a, 212, 12, true);
+
+        a.subtract(rect(200, 0, 3, 3));
+        checkContains(a, 10, 10, true);
+        checkContains(a, 35, 35, false);
+        checkContains(a, 50, 50, true);
+        checkContains(a, 201, 1, false);
+
+        a.intersect(rect(195, -5, 30, 30));
+        checkContains(a, 10, 10, false);
+        checkContains(a, 50, 50, false);
+        checkContains(a, 212, 12, true);
+    }
+
+    @Test
+    public void testNestedSubPaths() {
+        // The operand only meets the bounds of the outer square of the ring,
+        // its hole and its island are kept as is
+        Area a = ring(0, 0, 100, 60, 20);
+        a.add(rect(-5, -5, 10, 10));
+        checkContains(a, -2, -2, true);
+        checkContains(a, 10, 10, true);
+        checkContains(a, 30, 30, false);
+        checkContains(a, 50, 50, true);
+
+        a = ring(0, 0, 100, 60, 20);
+        a.exclusiveOr(rect(-5, -5, 10, 10));
+        checkContains(a, -2, -2, true);
+        checkContains(a, 2, 2, false);
+        checkContains(a, 30, 30, false);
+        checkContains(a, 50, 50, true);
+    }
+}
@@ -191,6 +191,105 @@ public class DirtyRegionContainerTest {
         Assert.assertEquals(new RectBounds(0, 0, 50, 50), drc.getDirtyRegion(2));
     }
 
+    @Test
+    public void test_tiles_scatteredRegionsAreNotMerged() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(2);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(1, 1, 3, 3));
+        drc.addDirtyRegion(new RectBounds(91, 1, 93, 3));
+        drc.addDirtyRegion(new RectBounds(1, 91, 3, 93));
+        drc.addDirtyRegion(new RectBounds(91, 91, 93, 93));
+        Assert.assertEquals(4, drc.getDirtyTileCount());
+
+        Assert.assertEquals(4, drc.computeTileRegions(100, 100));
+        Assert.assertEquals(new RectBounds(0, 0, 10, 10), drc.getDirtyRegion(0));
+        Assert.assertEquals(new RectBounds(90, 0, 100, 10), drc.getDirtyRegion(1));
+        Assert.assertEquals(new RectBounds(0, 90, 10, 100), drc.getDirtyRegion(2));
+        Assert.assertEquals(new RectBounds(90, 90, 100, 100), drc.getDirtyRegion(3));
+    }
+
+    @Test
+    public void test_tiles_blockOfTilesIsOneRegion() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(15, 15, 35, 35));
+        Assert.assertEquals(9, drc.getDirtyTileCount());
+
+        Assert.assertEquals(1, drc.computeTileRegions(100, 100));
+        Assert.assertEquals(new RectBounds(10, 10, 40, 40), drc.getDirtyRegion(0));
+    }
+
+    @Test
+    public void test_tiles_regionOnTileEdge() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(10, 10, 20, 20));
+        Assert.assertEquals(1, drc.getDirtyTileCount());
+    }
+
+    @Test
+    public void test_tiles_regionsAreClippedToGrid() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(16, 50, 40);
+        drc.addDirtyRegion(new RectBounds(-20, 30, 200, 200));
+
+        Assert.assertEquals(1, drc.computeTileRegions(50, 40));
+        Assert.assertEquals(new RectBounds(0, 16, 50, 40), drc.getDirtyRegion(0));
+    }
+
+    @Test
+    public void test_tiles_regionsOutsideOfGridMarkNoTile() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(-20, -20, 0, 50));
+        drc.addDirtyRegion(new RectBounds(-20, -20, 50, 0));
+        drc.addDirtyRegion(new RectBounds(-5, -5, -1, -1));
+        drc.addDirtyRegion(new RectBounds(100, 0, 120, 50));
+        Assert.assertEquals(0, drc.getDirtyTileCount());
+        Assert.assertEquals(0, drc.computeTileRegions(100, 100));
+    }
+
+    @Test
+    public void test_tiles_nonRectangularArea() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(0, 0, 20, 10));
+        drc.addDirtyRegion(new RectBounds(0, 10, 30, 20));
+
+        Assert.assertEquals(2, drc.computeTileRegions(100, 100));
+        Assert.assertEquals(new RectBounds(0, 0, 20, 10), drc.getDirtyRegion(0));
+        Assert.assertEquals(new RectBounds(0, 10, 30, 20), drc.getDirtyRegion(1));
+    }
+
+    @Test
+    public void test_tiles_moreRegionsThanMaxSpace() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(2);
+        drc.setTileGrid(10, 100, 100);
+        for (int i = 0; i < 5; i++) {
+            drc.addDirtyRegion(new RectBounds(i * 20, i * 20, i * 20 + 5, i * 20 + 5));
+        }
+        Assert.assertEquals(5, drc.computeTileRegions(100, 100));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(new RectBounds(i * 20, i * 20, i * 20 + 10, i * 20 + 10), drc.getDirtyRegion(i));
+        }
+
+        DirtyRegionContainer batch = new DirtyRegionContainer(2);
+        batch.deriveWithNewContainer(drc, 3, 2);
+        Assert.assertEquals(2, batch.size());
+        Assert.assertEquals(new RectBounds(60, 60, 70, 70), batch.getDirtyRegion(0));
+        Assert.assertEquals(new RectBounds(80, 80, 90, 90), batch.getDirtyRegion(1));
+    }
+
+    @Test
+    public void test_tiles_reset() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.setTileGrid(10, 100, 100);
+        drc.addDirtyRegion(new RectBounds(0, 0, 50, 50));
+        drc.reset();
+        Assert.assertEquals(0, drc.getDirtyTileCount());
+        Assert.assertEquals(0, drc.computeTileRegions(100, 100));
+    }
+
     private DirtyRegionContainer getDRC_initialized() {
         DirtyRegionContainer drc = new DirtyRegionContainer(4);
         return drc.deriveWithNewRegions(nonIntersecting_3_Regions);
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package test.com.sun.javafx.sg.prism;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.sg.prism.NGNode;
+import com.sun.javafx.sg.prism.NGRectangleShim;
+import com.sun.prism.Graphics;
+import com.sun.prism.paint.Color;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the order in which NGGroup renders its children when it batches
+ * the children of the same kind.
+ */
+public class BatchingTest extends NGTestBase {
+
+    private final List<BatchNode> renderOrder = new ArrayList<>();
+
+    @Test
+    public void testDisjointSiblingsAreGroupedByKind() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 20, 0);
+        BatchNode s2 = createNode(true, 40, 0);
+        BatchNode t3 = createNode(false, 60, 0);
+        createGroup(s0, t1, s2, t3).render(new TestGraphics());
+        assertRenderOrder(s0, s2, t1, t3);
+    }
+
+    @Test
+    public void testOverlappingSiblingsKeepTheirOrder() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 5, 0);
+        BatchNode s2 = createNode(true, 10, 0);
+        createGroup(s0, t1, s2).render(new TestGraphics());
+        assertRenderOrder(s0, t1, s2);
+    }
+
+    @Test
+    public void testOverlappingSiblingsOfTheSameKindAreGrouped() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 40, 0);
+        BatchNode s2 = createNode(true, 5, 5);
+        BatchNode t3 = createNode(false, 80, 0);
+        createGroup(s0, t1, s2, t3).render(new TestGraphics());
+        assertRenderOrder(s0, s2, t1, t3);
+    }
+
+    @Test
+    public void testSiblingWithOpacityIsNotBatched() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 20, 0);
+        BatchNode s2 = createNode(true, 40, 0);
+        BatchNode t3 = createNode(false, 60, 0);
+        s2.setOpacity(0.5f);
+        createGroup(s0, t1, s2, t3).render(new TestGraphics());
+        // Not batched with the other shape, but still free to move since it
+        // does not overlap any sibling
+        assertRenderOrder(s2, s0, t1, t3);
+    }
+
+    @Test
+    public void testAllSiblingsAreRendered() {
+        final BatchNode[] nodes = new BatchNode[100];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = createNode(i % 3 == 0, (i * 7) % 50, (i * 13) % 50);
+        }
+        createGroup(nodes).render(new TestGraphics());
+        assertEquals(nodes.length, renderOrder.size());
+        for (BatchNode node : nodes) {
+            assertTrue(renderOrder.contains(node));
+        }
+        // Any two overlapping siblings of different kinds keep their order
+        for (int i = 0; i < nodes.length; i++) {
+            for (int j = i + 1; j < nodes.length; j++) {
+                if (nodes[i].shape != nodes[j].shape &&
+                        nodes[i].bounds.intersects(nodes[j].bounds)) {
+                    assertTrue(renderOrder.indexOf(nodes[i]) < renderOrder.indexOf(nodes[j]));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNestedGroupDoesNotPreventBatching() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 20, 0);
+        BatchNode s2 = createNode(true, 100, 0);
+        BatchNode t3 = createNode(false, 120, 0);
+        BatchNode s4 = createNode(true, 140, 0);
+        BatchNode s5 = createNode(true, 40, 0);
+        BatchNode t6 = createNode(false, 60, 0);
+        createGroup(s0, t1, createGroup(s2, t3, s4), s5, t6).render(new TestGraphics());
+        // The nested group batches its own children
+        assertRenderOrder(s2, s4, t3, s0, s5, t1, t6);
+    }
+
+    @Test
+    public void testNestedGroupKeepsItsOrderWithOverlappingSiblings() {
+        BatchNode s0 = createNode(true, 0, 0);
+        BatchNode t1 = createNode(false, 5, 0);
+        BatchNode s2 = createNode(true, 10, 0);
+        BatchNode t3 = createNode(false, 80, 0);
+        createGroup(s0, createGroup(t1), s2, t3).render(new TestGraphics());
+        assertRenderOrder(s0, t3, t1, s2);
+    }
+
+    @Test
+    public void testLargeGroupIsRenderedInOrder() {
+        // Too many siblings to test all of their overlaps on each frame
+        final BatchNode[] nodes = new BatchNode[150];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = createNode(i % 2 == 0, (i % 15) * 20, (i / 15) * 20);
+        }
+        createGroup(nodes).render(new TestGraphics());
+        assertRenderOrder(nodes);
+    }
+
+    private void assertRenderOrder(BatchNode... expected) {
+        assertEquals(List.of(expected), renderOrder);
+    }
+
+    private BatchNode createNode(boolean shape, int x, int y) {
+        BatchNode node = new BatchNode(shape);
+        node.updateRectangle(x, y, 10, 10, 0, 0);
+        node.bounds = new RectBounds(x, y, x + 10, y + 10);
+        node.setContentBounds(node.bounds);
+        // Translucent, so that none of the siblings is occluded
+        node.setFillPaint(new Color(0, 0, 0, 0.5f));
+        node.setTransformMatrix(BaseTransform.IDENTITY_TRANSFORM);
+        node.setTransformedBounds(node.bounds, false);
+        return node;
+    }
+
+    private final class BatchNode extends NGRectangleShim {
+        private final boolean shape;
+        private RectBounds bounds;
+
+        BatchNode(boolean shape) {
+            this.shape = shape;
+        }
+
+        @Override
+        protected int getBatchKind() {
+            return shape ? NGNode.BATCH_SHAPE : NGNode.BATCH_TEXT;
+        }
+
+        @Override
+        protected void renderContent(Graphics g) {
+            renderOrder.add(this);
+        }
+    }
+}
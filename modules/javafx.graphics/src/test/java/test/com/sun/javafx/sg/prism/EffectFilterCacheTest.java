@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.sg.prism;
+
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.sg.prism.EffectFilterShim;
+import com.sun.javafx.sg.prism.NGGroup;
+import com.sun.javafx.sg.prism.NGRectangle;
+import com.sun.scenario.effect.DropShadow;
+import com.sun.scenario.effect.GaussianBlur;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests when the output of the effect of a node kept from a previous frame
+ * is dropped, and when it is drawn again.
+ */
+public class EffectFilterCacheTest extends NGTestBase {
+
+    private NGRectangle rect;
+    private NGGroup group;
+
+    @Before
+    public void setUp() {
+        rect = createRectangle(0, 0, 50, 50);
+        rect.setEffect(new DropShadow());
+        group = createGroup(createRectangle(10, 10, 20, 20));
+        group.setEffect(new GaussianBlur());
+        // as after rendering a frame
+        rect.clearDirtyTree();
+        group.clearDirtyTree();
+        EffectFilterShim.setCached(rect, BaseTransform.getTranslateInstance(10.25, 3.5));
+        EffectFilterShim.setCached(group, BaseTransform.IDENTITY_TRANSFORM);
+    }
+
+    @Test
+    public void testContentChangeDropsOutput() {
+        rect.updateRectangle(0, 0, 60, 50, 0, 0);
+        assertFalse(EffectFilterShim.isCached(rect));
+    }
+
+    @Test
+    public void testEffectChangeDropsOutput() {
+        rect.effectChanged();
+        assertFalse(EffectFilterShim.isCached(rect));
+    }
+
+    @Test
+    public void testChildChangeDropsOutput() {
+        ((NGRectangle) group.getChildren().get(0)).updateRectangle(10, 10, 30, 20, 0, 0);
+        assertFalse(EffectFilterShim.isCached(group));
+    }
+
+    @Test
+    public void testChildTranslationDropsOutput() {
+        group.getChildren().get(0).setTransformMatrix(BaseTransform.getTranslateInstance(5, 0));
+        assertFalse(EffectFilterShim.isCached(group));
+    }
+
+    @Test
+    public void testChildTranslationHintDropsOutput() {
+        // as with -Dprism.scrollcacheopt=true when the group is also cached
+        EffectFilterShim.invalidateCacheByTranslation(group, 5, 0);
+        assertFalse(EffectFilterShim.isCached(group));
+    }
+
+    @Test
+    public void testNodeTranslationKeepsOutput() {
+        rect.setTransformMatrix(BaseTransform.getTranslateInstance(32, -11));
+        assertTrue(EffectFilterShim.isCached(rect));
+    }
+
+    @Test
+    public void testWholePixelMoveReusesOutput() {
+        assertTrue(EffectFilterShim.isCachedFor(rect, BaseTransform.getTranslateInstance(10.25, 3.5)));
+        assertTrue(EffectFilterShim.isCachedFor(rect, BaseTransform.getTranslateInstance(42.25, -7.5)));
+    }
+
+    @Test
+    public void testSubpixelMoveDoesNotReuseOutput() {
+        assertFalse(EffectFilterShim.isCachedFor(rect, BaseTransform.getTranslateInstance(10.5, 3.5)));
+        assertFalse(EffectFilterShim.isCachedFor(rect, BaseTransform.getTranslateInstance(10.25, 3.75)));
+    }
+
+    @Test
+    public void testScaleDoesNotReuseOutput() {
+        Affine2D xform = new Affine2D();
+        xform.translate(10.25, 3.5);
+        xform.scale(2, 2);
+        assertFalse(EffectFilterShim.isCachedFor(rect, xform));
+    }
+}
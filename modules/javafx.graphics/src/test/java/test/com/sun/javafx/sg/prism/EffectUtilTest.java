@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.sg.prism;
+
+import com.sun.javafx.sg.prism.EffectUtilShim;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the rounded corner drop shadow of EffectUtil
+ */
+public class EffectUtilTest {
+    private static final int DIM = 64;
+
+    private static int[] corner(float r, float arc) {
+        byte[] pixels = new byte[DIM * DIM];
+        EffectUtilShim.fillRoundCornerGaussian(pixels, DIM, r, arc);
+        int[] alpha = new int[pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            alpha[i] = pixels[i] & 0xff;
+        }
+        return alpha;
+    }
+
+    /**
+     * The shadow vanishes one radius outside of the corner, and is opaque
+     * one radius inside of the straight edges
+     */
+    @Test
+    public void testShadowEnds() {
+        int[] alpha = corner(10, 20);
+        assertEquals(0, alpha[0]);
+        assertEquals(255, alpha[DIM * DIM - 1]);
+    }
+
+    /**
+     * The shadow is symmetric about the diagonal of the corner and grows
+     * towards the inside of the corner
+     */
+    @Test
+    public void testShadowIsSymmetricAndMonotonic() {
+        int[] alpha = corner(8, 12);
+        for (int y = 0; y < DIM; y++) {
+            for (int x = 0; x < DIM; x++) {
+                assertEquals(alpha[y * DIM + x], alpha[x * DIM + y]);
+                if (x > 0) {
+                    assertTrue(alpha[y * DIM + x] >= alpha[y * DIM + x - 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * At the corner of the rectangle, the shadow of a square corner is a
+     * quarter of the shadow color, while a rounded corner lies further away
+     */
+    @Test
+    public void testRoundCornerIsLighterThanSquareCorner() {
+        // With 65 texels, texel 32 of the square corner and texel 16 of
+        // the rounded corner are both at the corner of the rectangle
+        byte[] pixels = new byte[65 * 65];
+        EffectUtilShim.fillRoundCornerGaussian(pixels, 65, 10, 0);
+        int square = pixels[32 * 65 + 32] & 0xff;
+        EffectUtilShim.fillRoundCornerGaussian(pixels, 65, 10, 20);
+        int round = pixels[16 * 65 + 16] & 0xff;
+        assertTrue("square corner: " + square, square > 60 && square < 72);
+        assertTrue("round corner: " + round, round < square / 2);
+    }
+
+    /**
+     * A corner texture is reused for the same radius and arc, but only by
+     * the resource factory that created it
+     */
+    @Test
+    public void testCornerTextureIsKeptPerFactory() {
+        ResourceFactory f1 = new TestGraphics.TestContext().getResourceFactory();
+        ResourceFactory f2 = new TestGraphics.TestContext().getResourceFactory();
+        Texture t1 = EffectUtilShim.getCornerTexture(f1, 10, 20);
+        assertNotNull(t1);
+        assertSame(t1, EffectUtilShim.getCornerTexture(f1, 10, 20));
+        assertNotSame(t1, EffectUtilShim.getCornerTexture(f1, 10, 21));
+        Texture t2 = EffectUtilShim.getCornerTexture(f2, 10, 20);
+        assertNotSame(t1, t2);
+        assertSame(t1, EffectUtilShim.getCornerTexture(f1, 10, 20));
+        assertSame(t2, EffectUtilShim.getCornerTexture(f2, 10, 20));
+    }
+
+    /**
+     * Up to 16 corner textures are kept for a factory, the least recently
+     * used one is replaced, and the textures of another factory are kept
+     */
+    @Test
+    public void testLeastRecentlyUsedCornerTextureIsReplaced() {
+        ResourceFactory f1 = new TestGraphics.TestContext().getResourceFactory();
+        ResourceFactory f2 = new TestGraphics.TestContext().getResourceFactory();
+        Texture other = EffectUtilShim.getCornerTexture(f2, 5, 0);
+        Texture[] textures = new Texture[16];
+        for (int i = 0; i < textures.length; i++) {
+            textures[i] = EffectUtilShim.getCornerTexture(f1, 5, i);
+        }
+        // Use the first one again, the second one is now the oldest
+        assertSame(textures[0], EffectUtilShim.getCornerTexture(f1, 5, 0));
+        EffectUtilShim.getCornerTexture(f1, 5, 16);
+        assertSame(textures[0], EffectUtilShim.getCornerTexture(f1, 5, 0));
+        for (int i = 2; i < textures.length; i++) {
+            assertSame(textures[i], EffectUtilShim.getCornerTexture(f1, 5, i));
+        }
+        assertNotSame(textures[1], EffectUtilShim.getCornerTexture(f1, 5, 1));
+        assertSame(other, EffectUtilShim.getCornerTexture(f2, 5, 0));
+    }
+}
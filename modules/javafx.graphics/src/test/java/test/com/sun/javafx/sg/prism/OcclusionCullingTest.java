@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2015, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,14 +26,19 @@
 package test.com.sun.javafx.sg.prism;
 
 import test.com.sun.javafx.sg.prism.TestGraphics;
+import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.javafx.sg.prism.NGNode;
 import com.sun.javafx.sg.prism.NGNodeShim;
+import com.sun.javafx.sg.prism.NGRectangleShim;
 import com.sun.javafx.sg.prism.NodePath;
+import com.sun.prism.Graphics;
+import com.sun.prism.paint.Color;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -185,6 +190,127 @@ public class OcclusionCullingTest extends NGTestBase {
         assertRoot(rootPath, root);
     }
 
+    @Test
+    public void testHiddenSiblingIsNotRendered() {
+        final TestNGRectangle hidden = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(hidden, cover);
+        group.render(new TestGraphics());
+        assertFalse(hidden.rendered());
+        assertTrue(cover.rendered());
+    }
+
+    @Test
+    public void testPartiallyHiddenSiblingIsRendered() {
+        final TestNGRectangle partial = createRectangle(50, 50, 100, 100);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(partial, cover);
+        group.render(new TestGraphics());
+        assertTrue(partial.rendered());
+        assertTrue(cover.rendered());
+    }
+
+    @Test
+    public void testSiblingAboveHiddenNodeIsRendered() {
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        final TestNGRectangle above = createRectangle(10, 10, 50, 50);
+        TestNGGroup group = createGroup(cover, above);
+        group.render(new TestGraphics());
+        assertTrue(cover.rendered());
+        assertTrue(above.rendered());
+    }
+
+    @Test
+    public void testDescendantsOfHiddenGroupAreNotRendered() {
+        final TestNGRectangle hidden1 = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle partial = createRectangle(90, 90, 20, 20);
+        final TestNGGroup layer = createGroup(hidden1, partial);
+        final TestNGRegion overlay = createRegion(100, 100);
+        TestNGGroup root = createGroup(layer, overlay);
+        root.render(new TestGraphics());
+        assertTrue(layer.rendered());
+        assertFalse(hidden1.rendered());
+        assertTrue(partial.rendered());
+        assertTrue(overlay.rendered());
+    }
+
+    @Test
+    public void testTranslucentCoverDoesNotHide() {
+        final TestNGRectangle behind = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        cover.setOpacity(0.5f);
+        TestNGGroup group = createGroup(behind, cover);
+        group.render(new TestGraphics());
+        assertTrue(behind.rendered());
+    }
+
+    @Test
+    public void testInvisibleCoverDoesNotHide() {
+        final TestNGRectangle behind = createRectangle(10, 10, 50, 50);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        cover.setVisible(false);
+        TestNGGroup group = createGroup(behind, cover);
+        group.render(new TestGraphics());
+        assertTrue(behind.rendered());
+    }
+
+    @Test
+    public void testRotatedCoverDoesNotHide() {
+        final TestNGRectangle behind = createRectangle(40, 40, 20, 20);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        transform(cover, BaseTransform.getRotateInstance(Math.PI / 8, 50, 50));
+        TestNGGroup group = createGroup(behind, cover);
+        group.render(new TestGraphics());
+        assertTrue(behind.rendered());
+    }
+
+    @Test
+    public void testSiblingPaddedOutsideOfCoverIsRendered() {
+        // Hidden by its bounds, but its padding, as for the overhang of
+        // text, touches pixels outside of the cover
+        final PaddedRectangle padded = new PaddedRectangle(1, 1, 98, 98, 2);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(padded, cover);
+        group.render(new TestGraphics());
+        assertTrue(padded.rendered);
+        assertTrue(cover.rendered());
+    }
+
+    @Test
+    public void testSiblingPaddedInsideOfCoverIsNotRendered() {
+        final PaddedRectangle padded = new PaddedRectangle(10, 10, 50, 50, 2);
+        final TestNGRectangle cover = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(padded, cover);
+        group.render(new TestGraphics());
+        assertFalse(padded.rendered);
+    }
+
+    private static final class PaddedRectangle extends NGRectangleShim {
+        private final float pad;
+        boolean rendered;
+
+        PaddedRectangle(int x, int y, int width, int height, float pad) {
+            this.pad = pad;
+            updateRectangle(x, y, width, height, 0, 0);
+            final RectBounds bounds = new RectBounds(x, y, x + width, y + height);
+            setContentBounds(bounds);
+            setFillPaint(new Color(0, 0, 0, 1.0f));
+            setTransformMatrix(BaseTransform.IDENTITY_TRANSFORM);
+            setTransformedBounds(bounds, false);
+        }
+
+        @Override
+        protected BaseBounds computePadding(BaseBounds region) {
+            return region.deriveWithNewBounds(region.getMinX() - pad, region.getMinY() - pad, region.getMinZ(),
+                                              region.getMaxX() + pad, region.getMaxY() + pad, region.getMaxZ());
+        }
+
+        @Override
+        protected void renderContent(Graphics g) {
+            rendered = true;
+        }
+    }
+
     private void checkRootRendering(TestNGNode node, NodePath root) {
         assertTrue(node.rendered());
         if (node instanceof TestNGGroup) {
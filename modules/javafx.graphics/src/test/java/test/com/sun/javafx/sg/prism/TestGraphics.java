@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2012, 2021, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2012, 2023, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -29,6 +29,7 @@ import java.nio.Buffer;
 import com.sun.glass.ui.Screen;
 import com.sun.javafx.font.FontStrike;
 import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.scene.text.GlyphList;
@@ -145,7 +146,7 @@ public class TestGraphics extends BaseGraphics {
     public void blit(RTTexture srcTex, RTTexture dstTex, int srcX0, int srcY0, int srcX1, int srcY1, int dstX0, int dstY0, int dstX1, int dstY1) {
     }
 
-    private static class TestContext extends BaseContext {
+    public static class TestContext extends BaseContext {
 
         public TestContext() {
             super(null, new TestResourceFactory(), 32);
@@ -182,7 +183,10 @@ public class TestGraphics extends BaseGraphics {
         @Override public boolean isDisposed() { return false; }
 
         @Override public TextureResourcePool getTextureResourcePool() { return null; }
-        @Override public Texture createTexture(Image image, Texture.Usage usageHint, WrapMode wrapMode) { return null; }
+        @Override public Texture createTexture(Image image, Texture.Usage usageHint, WrapMode wrapMode) {
+            return image.getPixelFormat() == PixelFormat.BYTE_ALPHA ?
+                    createTestTexture(image.getWidth(), image.getHeight(), PixelFormat.BYTE_ALPHA) : null;
+        }
         @Override public Texture createTexture(Image image, Texture.Usage usageHint, Texture.WrapMode wrapMode, boolean useMipmap) { return null; }
         @Override public Texture createTexture(PixelFormat formatHint, Texture.Usage usageHint, WrapMode wrapMode, int w, int h) { return null; }
         @Override public Texture createTexture(PixelFormat formatHint, Texture.Usage usageHint, Texture.WrapMode wrapMode, int w, int h, boolean useMipmap) { return null; }
@@ -191,9 +195,12 @@ public class TestGraphics extends BaseGraphics {
         @Override public boolean isWrapModeSupported(Texture.WrapMode mode) { return true; }
         @Override public Texture getCachedTexture(Image image, WrapMode wrapMode) { return null; }
         @Override public Texture getCachedTexture(Image image, WrapMode wrapMode, boolean useMipmap) { return null; }
+        @Override public Texture getCachedAtlasTexture(Image image, Rectangle bounds) { return null; }
         @Override public boolean isFormatSupported(PixelFormat format) { return false; }
         @Override public int getMaximumTextureSize() { return 0; }
-        @Override public Texture createMaskTexture(int width, int height, Texture.WrapMode wrapMode) { return null; }
+        @Override public Texture createMaskTexture(int width, int height, Texture.WrapMode wrapMode) {
+            return createTestTexture(width, height, PixelFormat.BYTE_ALPHA);
+        }
         @Override public Texture createFloatTexture(int width, int height) { return null; }
         @Override public int getRTTWidth(int w, WrapMode wrapMode) { return w; }
         @Override public int getRTTHeight(int h, WrapMode wrapMode) { return h; }
@@ -201,6 +208,9 @@ public class TestGraphics extends BaseGraphics {
             return createRTTexture(width, height, wrapMode, false);
         }
         @Override public RTTexture createRTTexture(final int width, final int height, Texture.WrapMode wrapMode, boolean msaa) {
+            return createTestTexture(width, height, null);
+        }
+        private RTTexture createTestTexture(final int width, final int height, final PixelFormat format) {
             return new RTTexture() {
                 @Override public int[] getPixels() { return new int[0]; }
                 @Override public boolean readPixels(Buffer pixels, int x, int y, int width, int height) { return false; }
@@ -214,7 +224,7 @@ public class TestGraphics extends BaseGraphics {
 
                 @Override public Texture getSharedTexture(WrapMode altMode) { return null; }
                 @Override public boolean isOpaque() { return false; }
-                @Override public PixelFormat getPixelFormat() { return null; }
+                @Override public PixelFormat getPixelFormat() { return format; }
                 @Override public int getPhysicalWidth() { return width; }
                 @Override public int getPhysicalHeight() { return height; }
                 @Override public int getContentX() { return 0; }
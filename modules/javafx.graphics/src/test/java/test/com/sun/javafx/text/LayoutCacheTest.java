@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.text;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import com.sun.javafx.font.CharToGlyphMapper;
+import com.sun.javafx.font.FontResource;
+import com.sun.javafx.font.FontStrike;
+import com.sun.javafx.font.FontStrikeDesc;
+import com.sun.javafx.font.PGFont;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.text.LayoutCacheShim;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LayoutCacheTest {
+
+    private final PGFont font = new TestFont();
+
+    private Object key(String text) {
+        return LayoutCacheShim.createKey(text, font, 0, 0, 0, 8);
+    }
+
+    @Test
+    public void testEqualKeys() {
+        Object key1 = LayoutCacheShim.createKey("hello", font, 1, 100, 2, 4);
+        Object key2 = LayoutCacheShim.createKey("hello", font, 1, 100, 2, 4);
+        assertEquals(key1, key2);
+        assertEquals(key1.hashCode(), key2.hashCode());
+    }
+
+    @Test
+    public void testKeysDifferByEveryProperty() {
+        Object key = LayoutCacheShim.createKey("hello", font, 1, 100, 2, 4);
+        assertNotEquals(key, LayoutCacheShim.createKey("hellO", font, 1, 100, 2, 4));
+        assertNotEquals(key, LayoutCacheShim.createKey("hello", new TestFont(), 1, 100, 2, 4));
+        assertNotEquals(key, LayoutCacheShim.createKey("hello", font, 2, 100, 2, 4));
+        assertNotEquals(key, LayoutCacheShim.createKey("hello", font, 1, 101, 2, 4));
+        assertNotEquals(key, LayoutCacheShim.createKey("hello", font, 1, 100, 3, 4));
+        assertNotEquals(key, LayoutCacheShim.createKey("hello", font, 1, 100, 2, 5));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedLayoutIsEvicted() {
+        Object layouts = LayoutCacheShim.createSharedLayouts(10);
+        LayoutCacheShim.put(layouts, key("abcd"));
+        LayoutCacheShim.put(layouts, key("efgh"));
+        assertEquals(8, LayoutCacheShim.getSize(layouts));
+
+        // Makes "efgh" the least recently used layout
+        assertTrue(LayoutCacheShim.contains(layouts, key("abcd")));
+        LayoutCacheShim.put(layouts, key("ijkl"));
+
+        assertTrue(LayoutCacheShim.contains(layouts, key("abcd")));
+        assertFalse(LayoutCacheShim.contains(layouts, key("efgh")));
+        assertTrue(LayoutCacheShim.contains(layouts, key("ijkl")));
+        assertEquals(8, LayoutCacheShim.getSize(layouts));
+    }
+
+    @Test
+    public void testReplacedLayoutIsCountedOnce() {
+        Object layouts = LayoutCacheShim.createSharedLayouts(10);
+        LayoutCacheShim.put(layouts, key("abcd"));
+        LayoutCacheShim.put(layouts, key("abcd"));
+        assertEquals(4, LayoutCacheShim.getSize(layouts));
+        assertTrue(LayoutCacheShim.contains(layouts, key("abcd")));
+    }
+
+    @Test
+    public void testLayoutLargerThanTheCacheIsNotKept() {
+        Object layouts = LayoutCacheShim.createSharedLayouts(10);
+        LayoutCacheShim.put(layouts, key("abcd"));
+        LayoutCacheShim.put(layouts, key("0123456789a"));
+        assertFalse(LayoutCacheShim.contains(layouts, key("abcd")));
+        assertFalse(LayoutCacheShim.contains(layouts, key("0123456789a")));
+        assertEquals(0, LayoutCacheShim.getSize(layouts));
+    }
+
+    private static final String LONG_TEXT;
+    static {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            sb.append("Line ").append(i).append(" of a long text \uD83D\uDE00 to edit\n");
+        }
+        LONG_TEXT = sb.toString();
+    }
+
+    private final TestFontResource fontResource = new TestFontResource();
+
+    private Object shape(String text) {
+        char[] chars = text.toCharArray();
+        int[] glyphs = new int[chars.length];
+        float[] advances = new float[chars.length];
+        fontResource.getGlyphMapper().charsToGlyphs(0, chars.length, chars, glyphs, 0);
+        for (int i = 0; i < glyphs.length; i++) {
+            advances[i] = fontResource.getAdvance(glyphs[i], 12);
+        }
+        return LayoutCacheShim.createShaping(glyphs, advances);
+    }
+
+    private void assertEdit(String oldText, String newText, int mappedChars) {
+        Object oldShaping = shape(oldText);
+        fontResource.mappedChars = 0;
+        Object shaping = LayoutCacheShim.reuseShaping(oldShaping, oldText, newText,
+                                                      fontResource, 12);
+        assertEquals(mappedChars, fontResource.mappedChars);
+        Object expected = shape(newText);
+        assertArrayEquals(LayoutCacheShim.getGlyphs(expected), LayoutCacheShim.getGlyphs(shaping));
+        assertArrayEquals(LayoutCacheShim.getAdvances(expected), LayoutCacheShim.getAdvances(shaping), 0f);
+    }
+
+    @Test
+    public void testInsertionInsideLongText() {
+        int at = LONG_TEXT.length() / 2;
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(0, at) + "xyz" + LONG_TEXT.substring(at), 3);
+    }
+
+    @Test
+    public void testDeletionInsideLongText() {
+        int at = LONG_TEXT.length() / 2;
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(0, at) + LONG_TEXT.substring(at + 10), 0);
+    }
+
+    @Test
+    public void testReplacementInsideLongText() {
+        int at = LONG_TEXT.length() / 2;
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(0, at) + "\n\n" + LONG_TEXT.substring(at + 1), 2);
+    }
+
+    @Test
+    public void testEditsAtTheEndsOfLongText() {
+        assertEdit(LONG_TEXT, "xy" + LONG_TEXT, 2);
+        assertEdit(LONG_TEXT, LONG_TEXT + "xy", 2);
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(3), 0);
+    }
+
+    @Test
+    public void testEditInsideSurrogatePair() {
+        int at = LONG_TEXT.indexOf("\uDE00", LONG_TEXT.length() / 2);
+        // Keeps the high surrogate, which is mapped again with the new low one
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(0, at) + "\uDE01" + LONG_TEXT.substring(at + 1), 1);
+        // Splits the pair, both halves are mapped again on their own
+        assertEdit(LONG_TEXT, LONG_TEXT.substring(0, at) + "x" + LONG_TEXT.substring(at), 3);
+    }
+
+    @Test
+    public void testTextsWithNothingInCommonAreNotReused() {
+        Object oldShaping = shape("abc" + LONG_TEXT + "def");
+        assertNull(LayoutCacheShim.reuseShaping(oldShaping, "abc" + LONG_TEXT + "def",
+                                                "xyz" + LONG_TEXT + "uvw", fontResource, 12));
+    }
+
+    private static class TestFont implements PGFont {
+        @Override public String getFullName() { return "Test"; }
+        @Override public String getFamilyName() { return "Test"; }
+        @Override public String getStyleName() { return "Regular"; }
+        @Override public String getName() { return "Test"; }
+        @Override public float getSize() { return 12; }
+        @Override public FontResource getFontResource() { return null; }
+        @Override public FontStrike getStrike(BaseTransform transform) { return null; }
+        @Override public FontStrike getStrike(BaseTransform transform, int smoothingType) { return null; }
+        @Override public int getFeatures() { return 0; }
+    }
+
+    private static class TestFontResource implements FontResource {
+        // The number of code points mapped to glyphs
+        int mappedChars;
+
+        private final CharToGlyphMapper mapper = new CharToGlyphMapper() {
+            @Override public int getGlyphCode(int charCode) {
+                mappedChars++;
+                return charCode * 2;
+            }
+        };
+
+        @Override public String getFullName() { return "Test"; }
+        @Override public String getPSName() { return "Test"; }
+        @Override public String getFamilyName() { return "Test"; }
+        @Override public String getFileName() { return null; }
+        @Override public String getStyleName() { return "Regular"; }
+        @Override public String getLocaleFullName() { return "Test"; }
+        @Override public String getLocaleFamilyName() { return "Test"; }
+        @Override public String getLocaleStyleName() { return "Regular"; }
+        @Override public int getFeatures() { return 0; }
+        @Override public boolean isBold() { return false; }
+        @Override public boolean isItalic() { return false; }
+        @Override public float getAdvance(int gc, float size) { return (gc % 7 + 1) * size / 10; }
+        @Override public float[] getGlyphBoundingBox(int gc, float size, float[] retArr) { return retArr; }
+        @Override public int getDefaultAAMode() { return AA_GREYSCALE; }
+        @Override public CharToGlyphMapper getGlyphMapper() { return mapper; }
+        @Override public Map<FontStrikeDesc, WeakReference<FontStrike>> getStrikeMap() { return null; }
+        @Override public FontStrike getStrike(float size, BaseTransform transform) { return null; }
+        @Override public FontStrike getStrike(float size, BaseTransform transform, int aaMode) { return null; }
+        @Override public Object getPeer() { return null; }
+        @Override public void setPeer(Object peer) { }
+        @Override public boolean isEmbeddedFont() { return false; }
+    }
+}
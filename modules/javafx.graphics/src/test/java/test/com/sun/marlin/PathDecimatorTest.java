@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.marlin;
+
+import com.sun.marlin.DPathConsumer2D;
+import com.sun.marlin.PathDecimatorShim;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the points which the PathDecimator keeps from a path.
+ */
+public class PathDecimatorTest {
+
+    private final List<String> out = new ArrayList<>();
+    private DPathConsumer2D decimator;
+
+    @Before
+    public void setUp() {
+        out.clear();
+        decimator = PathDecimatorShim.create(new DPathConsumer2D() {
+            @Override public void moveTo(double x0, double y0) {
+                out.add("M " + x0 + " " + y0);
+            }
+            @Override public void lineTo(double x1, double y1) {
+                out.add("L " + x1 + " " + y1);
+            }
+            @Override public void quadTo(double xc, double yc, double x1, double y1) {
+                out.add("Q " + x1 + " " + y1);
+            }
+            @Override public void curveTo(double xc0, double yc0, double xc1, double yc1,
+                                          double x1, double y1) {
+                out.add("C " + x1 + " " + y1);
+            }
+            @Override public void closePath() {
+                out.add("Z");
+            }
+            @Override public void pathDone() {
+                out.add("D");
+            }
+        });
+    }
+
+    private void assertPath(String... expected) {
+        assertEquals(Arrays.asList(expected), out);
+    }
+
+    @Test
+    public void testPointsInDistinctColumnsAreKept() {
+        decimator.moveTo(0.5, 0.0);
+        decimator.lineTo(1.5, 3.0);
+        decimator.lineTo(2.5, 1.0);
+        decimator.lineTo(-0.5, 2.0);
+        decimator.pathDone();
+        assertPath("M 0.5 0.0", "L 1.5 3.0", "L 2.5 1.0", "L -0.5 2.0", "D");
+    }
+
+    @Test
+    public void testRunKeepsExtremaInOrder() {
+        decimator.moveTo(0.5, 0.0);
+        decimator.lineTo(0.6, 5.0);
+        decimator.lineTo(0.1, 2.0);
+        decimator.lineTo(0.7, -3.0);
+        decimator.lineTo(0.2, 1.0);
+        decimator.lineTo(0.9, 2.0);
+        decimator.lineTo(1.5, 0.0);
+        decimator.pathDone();
+        assertPath("M 0.5 0.0", "L 0.6 5.0", "L 0.7 -3.0", "L 0.9 2.0", "L 1.5 0.0", "D");
+    }
+
+    @Test
+    public void testRunMinimumBeforeMaximum() {
+        decimator.moveTo(3.0, 0.0);
+        decimator.lineTo(3.5, 4.0);
+        decimator.lineTo(3.2, -1.0);
+        decimator.lineTo(3.4, 6.0);
+        decimator.lineTo(3.1, 2.0);
+        decimator.pathDone();
+        assertPath("M 3.0 0.0", "L 3.2 -1.0", "L 3.4 6.0", "L 3.1 2.0", "D");
+    }
+
+    @Test
+    public void testExtremumAtEndOfRunIsEmittedOnce() {
+        decimator.moveTo(0.0, 0.0);
+        decimator.lineTo(0.5, 1.0);
+        decimator.lineTo(0.7, 10.0);
+        decimator.pathDone();
+        assertPath("M 0.0 0.0", "L 0.7 10.0", "D");
+    }
+
+    @Test
+    public void testRunStartedByLineTo() {
+        decimator.moveTo(0.5, 0.0);
+        decimator.lineTo(1.1, 1.0);
+        decimator.lineTo(1.2, 9.0);
+        decimator.lineTo(1.3, -9.0);
+        decimator.lineTo(1.4, 2.0);
+        decimator.lineTo(2.1, 0.0);
+        decimator.pathDone();
+        assertPath("M 0.5 0.0", "L 1.1 1.0", "L 1.2 9.0", "L 1.3 -9.0", "L 1.4 2.0",
+                   "L 2.1 0.0", "D");
+    }
+
+    @Test
+    public void testCloseAndMoveEndTheRun() {
+        decimator.moveTo(0.1, 0.0);
+        decimator.lineTo(0.2, 5.0);
+        decimator.lineTo(0.3, 1.0);
+        decimator.closePath();
+        decimator.moveTo(0.4, 0.0);
+        decimator.lineTo(0.5, -5.0);
+        decimator.lineTo(0.6, 1.0);
+        decimator.moveTo(5.0, 5.0);
+        decimator.pathDone();
+        assertPath("M 0.1 0.0", "L 0.2 5.0", "L 0.3 1.0", "Z",
+                   "M 0.4 0.0", "L 0.5 -5.0", "L 0.6 1.0",
+                   "M 5.0 5.0", "D");
+    }
+
+    @Test
+    public void testCurvesEndTheRun() {
+        decimator.moveTo(0.1, 0.0);
+        decimator.lineTo(0.2, 5.0);
+        decimator.lineTo(0.3, 1.0);
+        decimator.quadTo(0.5, 3.0, 0.4, 2.0);
+        decimator.lineTo(0.45, 7.0);
+        decimator.curveTo(1.0, 1.0, 2.0, 2.0, 0.5, 0.5);
+        decimator.pathDone();
+        assertPath("M 0.1 0.0", "L 0.2 5.0", "L 0.3 1.0", "Q 0.4 2.0",
+                   "L 0.45 7.0", "C 0.5 0.5", "D");
+    }
+}
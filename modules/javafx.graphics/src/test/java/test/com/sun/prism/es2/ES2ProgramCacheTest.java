@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.es2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import com.sun.prism.es2.ES2ProgramCacheShim;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ES2ProgramCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File dir;
+
+    @Before
+    public void setUp() {
+        dir = new File(folder.getRoot(), "shaders");
+    }
+
+    private File write(String key, int size, long lastModified) {
+        assertTrue(ES2ProgramCacheShim.write(dir, key, "driver", new byte[size]));
+        File file = new File(dir, key + ".bin");
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+
+    @Test
+    public void testWrittenBinaryIsRead() {
+        byte[] data = { 1, 2, 3, 4 };
+        assertTrue(ES2ProgramCacheShim.write(dir, "a", "driver", data));
+        Map<String, byte[]> entries = ES2ProgramCacheShim.readAll(dir, Long.MAX_VALUE);
+        assertEquals(1, entries.size());
+        assertArrayEquals(data, entries.get("a"));
+    }
+
+    @Test
+    public void testInvalidFileIsIgnored() throws IOException {
+        write("a", 16, System.currentTimeMillis());
+        Files.write(new File(dir, "b.bin").toPath(), new byte[] { 1, 2, 3 });
+        Map<String, byte[]> entries = ES2ProgramCacheShim.readAll(dir, Long.MAX_VALUE);
+        assertEquals(1, entries.size());
+        assertTrue(entries.containsKey("a"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesArePruned() {
+        long now = System.currentTimeMillis();
+        File a = write("a", 1000, now - 3000);
+        File b = write("b", 1000, now - 1000);
+        File c = write("c", 1000, now - 2000);
+        long size = a.length();
+        assertEquals(2, ES2ProgramCacheShim.prune(dir, 2 * size));
+        assertFalse(a.exists());
+        assertTrue(b.exists());
+        assertTrue(c.exists());
+        Map<String, byte[]> entries = ES2ProgramCacheShim.readAll(dir, size);
+        assertEquals(1, entries.size());
+        assertTrue(entries.containsKey("b"));
+        assertFalse(c.exists());
+    }
+
+    @Test
+    public void testOnlyKeptEntriesCountTowardsTheBudget() {
+        long now = System.currentTimeMillis();
+        File a = write("a", 1000, now - 1000);
+        File big = write("big", 5000, now - 2000);
+        File c = write("c", 1000, now - 3000);
+        assertEquals(2, ES2ProgramCacheShim.prune(dir, 2 * a.length()));
+        assertTrue(a.exists());
+        assertFalse(big.exists());
+        assertTrue(c.exists());
+    }
+
+    @Test
+    public void testStaleTemporaryFilesAreDeleted() throws IOException {
+        assertTrue(dir.mkdirs());
+        File stale = new File(dir, "program1.tmp");
+        File recent = new File(dir, "program2.tmp");
+        Files.write(stale.toPath(), new byte[1]);
+        Files.write(recent.toPath(), new byte[1]);
+        assertTrue(stale.setLastModified(System.currentTimeMillis() - 2L * 24 * 60 * 60 * 1000));
+        ES2ProgramCacheShim.prune(dir, Long.MAX_VALUE);
+        assertFalse(stale.exists());
+        // May be written by another running application
+        assertTrue(recent.exists());
+    }
+
+    @Test
+    public void testMissingDirectoryIsEmpty() {
+        assertEquals(0, ES2ProgramCacheShim.readAll(dir, Long.MAX_VALUE).size());
+    }
+}
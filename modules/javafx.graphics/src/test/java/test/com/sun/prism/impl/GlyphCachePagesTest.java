@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl;
+
+import test.com.sun.javafx.sg.prism.TestGraphics;
+import com.sun.prism.impl.GlyphCacheShim;
+import com.sun.prism.impl.PrismSettings;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests the allocation and the eviction of the pages of the glyph cache.
+ */
+public class GlyphCachePagesTest {
+
+    private static final int W = PrismSettings.glyphCacheWidth;
+    private static final int H = PrismSettings.glyphCacheHeight;
+    private static final int PAGES = GlyphCacheShim.getPageCount();
+
+    private Object pages;
+
+    @Before
+    public void setUp() {
+        assumeTrue(PAGES >= 2);
+        pages = GlyphCacheShim.createPages(new TestGraphics.TestContext());
+    }
+
+    @Test
+    public void testPagesAreCreatedOnDemand() {
+        for (int i = 0; i < PAGES; i++) {
+            GlyphCacheShim.nextCall(pages);
+            assertEquals(i, GlyphCacheShim.add(pages, W, H));
+        }
+        assertEquals(0, GlyphCacheShim.getEvictions(pages));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPageIsEvicted() {
+        for (int i = 0; i < PAGES; i++) {
+            GlyphCacheShim.nextCall(pages);
+            GlyphCacheShim.add(pages, W, H);
+        }
+        GlyphCacheShim.nextCall(pages);
+        GlyphCacheShim.use(pages, 0);
+        GlyphCacheShim.nextCall(pages);
+        assertEquals(1, GlyphCacheShim.add(pages, W, H));
+        assertEquals(1, GlyphCacheShim.getEvictions(pages));
+        for (int i = 0; i < PAGES; i++) {
+            assertEquals(i == 1 ? 1 : 0, GlyphCacheShim.getGeneration(pages, i));
+        }
+
+        // Page 1 is now the most recently used one
+        GlyphCacheShim.nextCall(pages);
+        assertEquals(PAGES > 2 ? 2 : 0, GlyphCacheShim.add(pages, W, H));
+        assertEquals(2, GlyphCacheShim.getEvictions(pages));
+    }
+
+    @Test
+    public void testPagesOfTheCurrentCallAreNotEvicted() {
+        GlyphCacheShim.nextCall(pages);
+        for (int i = 0; i < PAGES; i++) {
+            assertEquals(i, GlyphCacheShim.add(pages, W, H));
+        }
+        assertEquals(-1, GlyphCacheShim.add(pages, W, H));
+        assertEquals(0, GlyphCacheShim.getEvictions(pages));
+        for (int i = 0; i < PAGES; i++) {
+            assertEquals(0, GlyphCacheShim.getGeneration(pages, i));
+        }
+    }
+
+    @Test
+    public void testGlyphsAreGroupedBySizeClass() {
+        GlyphCacheShim.nextCall(pages);
+        assertEquals(0, GlyphCacheShim.add(pages, 10, 10));
+        assertEquals(1, GlyphCacheShim.add(pages, 10, 100));
+        assertEquals(0, GlyphCacheShim.add(pages, 12, 12));
+        assertEquals(1, GlyphCacheShim.add(pages, 12, 120));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.Ellipse2D;
+import com.sun.javafx.geom.RoundRectangle2D;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+import com.sun.prism.impl.ps.CachingShapeRepShim;
+import test.com.sun.javafx.sg.prism.TestGraphics;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the lookup and the eviction of the masks kept by the cache of
+ * CachingShapeRep.
+ */
+public class CachingShapeRepTest {
+
+    private static final BasicStroke STROKE =
+            new BasicStroke(2f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 10f);
+
+    private ResourceFactory factory;
+    private Object cache;
+
+    @Before
+    public void setUp() {
+        factory = new TestGraphics.TestContext().getResourceFactory();
+        cache = CachingShapeRepShim.createMaskCache();
+    }
+
+    private Texture get(Shape shape, BasicStroke stroke, BaseTransform xform, boolean aa) {
+        return CachingShapeRepShim.getTexture(
+                CachingShapeRepShim.get(cache, factory, shape, stroke, xform, aa));
+    }
+
+    /*
+     * Rasterizes the shape, or finds its mask, and releases it at once.
+     */
+    private Texture getAndRelease(Shape shape) {
+        Object texData = CachingShapeRepShim.get(cache, factory, shape, null,
+                BaseTransform.IDENTITY_TRANSFORM, true);
+        Texture tex = CachingShapeRepShim.getTexture(texData);
+        CachingShapeRepShim.unref(cache, texData);
+        return tex;
+    }
+
+    @Test
+    public void testEqualShapeSharesMask() {
+        Texture tex = get(new Ellipse2D(0, 0, 40, 30), null, BaseTransform.IDENTITY_TRANSFORM, true);
+        assertSame(tex, get(new Ellipse2D(0, 0, 40, 30), null,
+                BaseTransform.getTranslateInstance(17.5, -3), true));
+    }
+
+    @Test
+    public void testUnusedMaskIsReused() {
+        Texture tex = getAndRelease(new RoundRectangle2D(0, 0, 40, 30, 5, 5));
+        assertSame(tex, getAndRelease(new RoundRectangle2D(0, 0, 40, 30, 5, 5)));
+    }
+
+    @Test
+    public void testDifferentGeometryDoesNotShareMask() {
+        Texture tex = get(new RoundRectangle2D(0, 0, 40, 30, 5, 5), null,
+                BaseTransform.IDENTITY_TRANSFORM, true);
+        assertNotSame(tex, get(new RoundRectangle2D(0, 0, 40, 30, 6, 6), null,
+                BaseTransform.IDENTITY_TRANSFORM, true));
+        assertNotSame(tex, get(new Ellipse2D(0, 0, 40, 30), null,
+                BaseTransform.IDENTITY_TRANSFORM, true));
+    }
+
+    @Test
+    public void testDifferentStrokeDoesNotShareMask() {
+        Shape shape = new Ellipse2D(0, 0, 40, 30);
+        Texture fill = get(shape, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        Texture draw = get(shape, STROKE, BaseTransform.IDENTITY_TRANSFORM, true);
+        assertNotSame(fill, draw);
+        assertNotSame(draw, get(shape, new BasicStroke(3f, BasicStroke.CAP_BUTT,
+                BasicStroke.JOIN_MITER, 10f), BaseTransform.IDENTITY_TRANSFORM, true));
+        assertSame(draw, get(shape, new BasicStroke(2f, BasicStroke.CAP_BUTT,
+                BasicStroke.JOIN_MITER, 10f), BaseTransform.IDENTITY_TRANSFORM, true));
+    }
+
+    @Test
+    public void testDifferentTransformDoesNotShareMask() {
+        Shape shape = new Ellipse2D(0, 0, 40, 30);
+        Texture tex = get(shape, null, BaseTransform.IDENTITY_TRANSFORM, true);
+        Affine2D rotate = new Affine2D();
+        rotate.rotate(Math.PI / 2);
+        assertNotSame(tex, get(shape, null, rotate, true));
+        assertNotSame(tex, get(shape, null, BaseTransform.IDENTITY_TRANSFORM, false));
+    }
+
+    @Test
+    public void testLeastRecentlyUnusedMaskIsEvicted() {
+        // 256 unused masks are kept at most
+        Texture[] textures = new Texture[257];
+        for (int i = 0; i < textures.length; i++) {
+            textures[i] = getAndRelease(new Ellipse2D(i, 0, 10, 10));
+        }
+        assertSame(textures[1], getAndRelease(new Ellipse2D(1, 0, 10, 10)));
+        assertSame(textures[256], getAndRelease(new Ellipse2D(256, 0, 10, 10)));
+        assertNotSame(textures[0], getAndRelease(new Ellipse2D(0, 0, 10, 10)));
+        // the mask of the second shape was used after the third one
+        assertNotSame(textures[2], getAndRelease(new Ellipse2D(2, 0, 10, 10)));
+        assertSame(textures[1], getAndRelease(new Ellipse2D(1, 0, 10, 10)));
+    }
+
+    @Test
+    public void testUnusedMaskIsEvictedForRoom() {
+        // 16 masks of this size fill the 4 MB of the cache
+        Texture[] textures = new Texture[16];
+        for (int i = 0; i < textures.length; i++) {
+            textures[i] = getAndRelease(new Ellipse2D(i, 0, 500, 500));
+        }
+        Texture used = get(new Ellipse2D(0, 0, 500, 500), null,
+                BaseTransform.IDENTITY_TRANSFORM, true);
+        assertSame(textures[0], used);
+        get(new Ellipse2D(100, 0, 500, 500), null, BaseTransform.IDENTITY_TRANSFORM, true);
+        assertSame(textures[2], getAndRelease(new Ellipse2D(2, 0, 500, 500)));
+        assertNotSame(textures[1], getAndRelease(new Ellipse2D(1, 0, 500, 500)));
+    }
+}
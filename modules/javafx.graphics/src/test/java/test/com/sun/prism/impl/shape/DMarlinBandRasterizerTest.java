@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.shape.DMarlinBandRasterizerShim;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that a path rasterized in bands has the same mask as the path
+ * rasterized by a single renderer.
+ */
+public class DMarlinBandRasterizerTest {
+
+    private static final int[] BANDS = { 2, 3, 7 };
+
+    private static Path2D createPolygon(int rule, int points, long seed) {
+        final Random random = new Random(seed);
+        final Path2D path = new Path2D(rule);
+        path.moveTo(200f, 10f);
+        for (int i = 1; i < points; i++) {
+            final double a = 2 * Math.PI * 7 * i / points;
+            final double r = 20 + 170 * random.nextDouble();
+            path.lineTo((float) (200 + r * Math.cos(a)), (float) (200 + r * Math.sin(a)));
+        }
+        path.closePath();
+        return path;
+    }
+
+    private static Path2D createCurves(int curves, long seed) {
+        final Random random = new Random(seed);
+        final Path2D path = new Path2D();
+        for (int i = 0; i < curves; i++) {
+            if (i % 50 == 0) {
+                path.moveTo(10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat());
+            }
+            if ((i & 1) == 0) {
+                path.quadTo(10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat(),
+                            10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat());
+            } else {
+                path.curveTo(10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat(),
+                             10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat(),
+                             10f + 380f * random.nextFloat(), 10f + 380f * random.nextFloat());
+            }
+        }
+        return path;
+    }
+
+    private static void assertSameMask(Path2D path, BasicStroke stroke,
+                                       BaseTransform xform, Rectangle clip)
+    {
+        for (boolean aa : new boolean[] { true, false }) {
+            final byte[] expected = DMarlinBandRasterizerShim.getAlphas(path, stroke,
+                    xform, clip, aa);
+            boolean empty = true;
+            for (byte alpha : expected) {
+                empty &= (alpha == 0);
+            }
+            assertTrue(!empty);
+            for (int bands : BANDS) {
+                assertArrayEquals("aa = " + aa + ", " + bands + " bands", expected,
+                        DMarlinBandRasterizerShim.getAlphas(path, stroke, xform, clip,
+                                                            aa, bands));
+            }
+        }
+    }
+
+    @Test
+    public void testEdgeAcrossBands() {
+        // the crossing of this edge at the top of the second band is within
+        // the rounding of its position computed from that row
+        final Path2D path = new Path2D();
+        path.moveTo(56.03125f, 0.25f);
+        path.lineTo(11.230469f, 63.875f);
+        path.lineTo(64f, 63.875f);
+        path.lineTo(64f, 0.25f);
+        path.closePath();
+        assertSameMask(path, null, BaseTransform.IDENTITY_TRANSFORM, new Rectangle(0, 0, 64, 64));
+    }
+
+    @Test
+    public void testFillNonZero() {
+        assertSameMask(createPolygon(Path2D.WIND_NON_ZERO, 5000, 1L), null,
+                       BaseTransform.IDENTITY_TRANSFORM, new Rectangle(0, 0, 400, 400));
+    }
+
+    @Test
+    public void testFillEvenOdd() {
+        assertSameMask(createPolygon(Path2D.WIND_EVEN_ODD, 5000, 2L), null,
+                       BaseTransform.IDENTITY_TRANSFORM, new Rectangle(0, 0, 400, 400));
+    }
+
+    @Test
+    public void testFillCurvesTransformed() {
+        final Affine2D xform = new Affine2D();
+        xform.translate(3.37, -20.81);
+        xform.rotate(0.3);
+        xform.scale(1.13, 0.97);
+        assertSameMask(createCurves(2000, 3L), null, xform, new Rectangle(0, 0, 500, 500));
+    }
+
+    @Test
+    public void testStroke() {
+        assertSameMask(createCurves(2000, 4L),
+                       new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 10f),
+                       BaseTransform.IDENTITY_TRANSFORM, new Rectangle(0, 0, 400, 400));
+    }
+
+    @Test
+    public void testDashedStroke() {
+        assertSameMask(createPolygon(Path2D.WIND_NON_ZERO, 3000, 5L),
+                       new BasicStroke(2f, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 10f,
+                                       new float[] { 7f, 3f }, 1f),
+                       BaseTransform.IDENTITY_TRANSFORM, new Rectangle(0, 0, 400, 400));
+    }
+
+    @Test
+    public void testClippedFill() {
+        // the path crosses the top and the bottom of the clip
+        assertSameMask(createPolygon(Path2D.WIND_NON_ZERO, 5000, 6L), null,
+                       BaseTransform.IDENTITY_TRANSFORM, new Rectangle(20, 37, 350, 301));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.scenario.effect.impl;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.scenario.effect.Effect.AccelType;
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.Filterable;
+import com.sun.scenario.effect.ImageData;
+import com.sun.scenario.effect.impl.EffectPeer;
+import com.sun.scenario.effect.impl.ImagePool;
+import com.sun.scenario.effect.impl.ImagePoolShim;
+import com.sun.scenario.effect.impl.PoolFilterable;
+import com.sun.scenario.effect.impl.Renderer;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the images checked in to the ImagePool are reused, and flushed
+ * once they are idle for too long or do not fit in the budget.
+ */
+public class ImagePoolTest {
+
+    private static final long SECOND = 1000000000L;
+    // The bytes held by a 64x64 image
+    private static final long IMAGE_BYTES = 4L * 64 * 64;
+
+    private final TestRenderer renderer = new TestRenderer();
+
+    private TestImage checkOut(ImagePool pool) {
+        return (TestImage) pool.checkOut(renderer, 64, 64);
+    }
+
+    @Test
+    public void testCheckedInImageIsReused() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, false);
+        TestImage image = checkOut(pool);
+        pool.checkIn(image);
+        assertSame(image, checkOut(pool));
+        assertFalse(image.flushed);
+    }
+
+    @Test
+    public void testIdleImageIsEvicted() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, false);
+        TestImage image = checkOut(pool);
+        pool.checkIn(image);
+        ImagePoolShim.evictIdle(pool, System.nanoTime() + 5 * SECOND);
+        assertFalse(image.flushed);
+        ImagePoolShim.evictIdle(pool, System.nanoTime() + 11 * SECOND);
+        assertTrue(image.flushed);
+        assertEquals(-1L, pool.evictIdle());
+        assertNotSame(image, checkOut(pool));
+    }
+
+    @Test
+    public void testEvictIdleReturnsTimeUntilNextEviction() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, false);
+        assertEquals(-1L, pool.evictIdle());
+        TestImage image = checkOut(pool);
+        assertEquals(-1L, pool.evictIdle());
+        pool.checkIn(image);
+        long delay = pool.evictIdle();
+        assertTrue("delay: " + delay, delay > 9 * SECOND && delay <= 10 * SECOND);
+        assertFalse(image.flushed);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedImageIsEvictedOverBudget() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, false);
+        TestImage image1 = checkOut(pool);
+        TestImage image2 = checkOut(pool);
+        pool.checkIn(image1);
+        assertFalse(image1.flushed);
+        pool.checkIn(image2);
+        assertTrue(image1.flushed);
+        assertFalse(image2.flushed);
+        assertSame(image2, checkOut(pool));
+    }
+
+    @Test
+    public void testPurgatoryImagesAreCountedOnceReleased() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, true);
+        TestImage image1 = checkOut(pool);
+        TestImage image2 = checkOut(pool);
+        pool.checkIn(image1);
+        pool.checkIn(image2);
+        ImagePoolShim.evictIdle(pool, System.nanoTime() + 11 * SECOND);
+        assertFalse(image1.flushed);
+        assertFalse(image2.flushed);
+
+        // The images in purgatory are not reused before they are released
+        TestImage image3 = checkOut(pool);
+        assertNotSame(image1, image3);
+        assertNotSame(image2, image3);
+        pool.checkIn(image3);
+
+        pool.releasePurgatory();
+        assertTrue(image1.flushed);
+        assertTrue(image2.flushed);
+        assertFalse(image3.flushed);
+        assertSame(image3, checkOut(pool));
+    }
+
+    @Test
+    public void testPurgatoryImageDoesNotEvictUnlockedImages() {
+        ImagePool pool = ImagePoolShim.createImagePool(IMAGE_BYTES, 10 * SECOND, true);
+        TestImage image1 = checkOut(pool);
+        TestImage image2 = checkOut(pool);
+        pool.checkIn(image1);
+        pool.releasePurgatory();
+        pool.checkIn(image2);
+        assertFalse(image1.flushed);
+        pool.releasePurgatory();
+        assertTrue(image1.flushed);
+        assertFalse(image2.flushed);
+    }
+
+    @Test
+    public void testReleasedPurgatoryImagesAreEvictedWhenIdle() {
+        ImagePool pool = ImagePoolShim.createImagePool(2 * IMAGE_BYTES, 10 * SECOND, true);
+        TestImage image = checkOut(pool);
+        pool.checkIn(image);
+        pool.releasePurgatory();
+        assertFalse(image.flushed);
+        ImagePoolShim.evictIdle(pool, System.nanoTime() + 11 * SECOND);
+        assertTrue(image.flushed);
+        assertEquals(-1L, pool.evictIdle());
+    }
+
+    private static final class TestImage implements PoolFilterable {
+        private final int width;
+        private final int height;
+        private ImagePool pool;
+        boolean flushed;
+
+        TestImage(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override public void setImagePool(ImagePool pool) { this.pool = pool; }
+        @Override public ImagePool getImagePool() { return pool; }
+        @Override public Object getData() { return null; }
+        @Override public int getContentWidth() { return width; }
+        @Override public int getContentHeight() { return height; }
+        @Override public void setContentWidth(int contentW) { }
+        @Override public void setContentHeight(int contentH) { }
+        @Override public int getMaxContentWidth() { return width; }
+        @Override public int getMaxContentHeight() { return height; }
+        @Override public int getPhysicalWidth() { return width; }
+        @Override public int getPhysicalHeight() { return height; }
+        @Override public float getPixelScale() { return 1f; }
+        @Override public void flush() { flushed = true; }
+        @Override public void lock() { }
+        @Override public void unlock() { }
+        @Override public boolean isLost() { return false; }
+    }
+
+    private static final class TestRenderer extends Renderer {
+        @Override public AccelType getAccelType() { return AccelType.NONE; }
+        @Override public int getCompatibleWidth(int w) { return w; }
+        @Override public int getCompatibleHeight(int h) { return h; }
+        @Override public PoolFilterable createCompatibleImage(int w, int h) { return new TestImage(w, h); }
+        @Override public void clearImage(Filterable image) { }
+        @Override public ImageData createImageData(FilterContext fctx, Filterable src) { return null; }
+        @Override public Filterable transform(FilterContext fctx, Filterable original,
+                                              BaseTransform transform,
+                                              Rectangle origBounds, Rectangle xformBounds) {
+            return null;
+        }
+        @Override public ImageData transform(FilterContext fctx, ImageData original,
+                                             BaseTransform transform,
+                                             Rectangle origBounds, Rectangle xformBounds) {
+            return null;
+        }
+        @Override public RendererState getRendererState() { return RendererState.OK; }
+        @Override protected EffectPeer createPeer(FilterContext fctx, String name, int unrollCount) { return null; }
+        @Override protected Renderer getBackupRenderer() { return this; }
+        @Override public boolean isImageDataCompatible(ImageData id) { return false; }
+    }
+}
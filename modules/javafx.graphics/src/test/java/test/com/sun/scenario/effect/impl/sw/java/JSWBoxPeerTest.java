@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2023, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.scenario.effect.impl.sw.java;
+
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.impl.sw.java.JSWBoxBlurPeer;
+import com.sun.scenario.effect.impl.sw.java.JSWBoxShadowPeer;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JSWBoxPeerTest {
+
+    private static final FilterContext FCTX = new FilterContext(JSWBoxPeerTest.class) {};
+
+    private static final int SRCW = 37;
+    private static final int SRCH = 23;
+    private static final int SRCSCAN = 41;
+
+    private static int[] createSource(long seed) {
+        Random r = new Random(seed);
+        int[] pixels = new int[SRCSCAN * SRCH];
+        for (int i = 0; i < pixels.length; i++) {
+            int a = r.nextInt(256);
+            int red = a == 0 ? 0 : r.nextInt(a + 1);
+            int green = a == 0 ? 0 : r.nextInt(a + 1);
+            int blue = a == 0 ? 0 : r.nextInt(a + 1);
+            pixels[i] = (a << 24) | (red << 16) | (green << 8) | blue;
+        }
+        return pixels;
+    }
+
+    static final class BlurPeer extends JSWBoxBlurPeer {
+        BlurPeer() {
+            super(FCTX, null, "BoxBlur");
+        }
+
+        void vertical(int[] dst, int dstw, int dsth, int dstscan, int[] src) {
+            filterVertical(dst, dstw, dsth, dstscan, src, SRCW, SRCH, SRCSCAN);
+        }
+    }
+
+    static final class ShadowPeer extends JSWBoxShadowPeer {
+        ShadowPeer() {
+            super(FCTX, null, "BoxShadow");
+        }
+
+        void verticalBlack(int[] dst, int dstw, int dsth, int dstscan, int[] src, float spread) {
+            filterVerticalBlack(dst, dstw, dsth, dstscan, src, SRCW, SRCH, SRCSCAN, spread);
+        }
+
+        void vertical(int[] dst, int dstw, int dsth, int dstscan, int[] src,
+                      float spread, float[] color)
+        {
+            filterVertical(dst, dstw, dsth, dstscan, src, SRCW, SRCH, SRCSCAN, spread, color);
+        }
+    }
+
+    // The vertical passes as they were written before they were changed to
+    // sum the columns a row at a time.
+
+    private static void referenceBlurVertical(int dstPixels[], int dstw, int dsth, int dstscan,
+                                              int srcPixels[], int srch, int srcscan)
+    {
+        int vsize = dsth - srch + 1;
+        int kscale = 0x7fffffff / (vsize * 255);
+        int voff = vsize * srcscan;
+        for (int x = 0; x < dstw; x++) {
+            int suma = 0, sumr = 0, sumg = 0, sumb = 0;
+            int srcoff = x;
+            int dstoff = x;
+            for (int y = 0; y < dsth; y++) {
+                int rgb = (srcoff >= voff) ? srcPixels[srcoff - voff] : 0;
+                suma -= (rgb >>> 24);
+                sumr -= (rgb >>  16) & 0xff;
+                sumg -= (rgb >>   8) & 0xff;
+                sumb -= (rgb       ) & 0xff;
+                rgb = (y < srch) ? srcPixels[srcoff] : 0;
+                suma += (rgb >>> 24);
+                sumr += (rgb >>  16) & 0xff;
+                sumg += (rgb >>   8) & 0xff;
+                sumb += (rgb       ) & 0xff;
+                dstPixels[dstoff] =
+                    (((suma * kscale) >> 23) << 24) +
+                    (((sumr * kscale) >> 23) << 16) +
+                    (((sumg * kscale) >> 23) <<  8) +
+                    (((sumb * kscale) >> 23)      );
+                srcoff += srcscan;
+                dstoff += dstscan;
+            }
+        }
+    }
+
+    private static void referenceShadowVertical(int dstPixels[], int dstw, int dsth, int dstscan,
+                                                int srcPixels[], int srch, int srcscan,
+                                                float spread, float shadowColor[])
+    {
+        int vsize = dsth - srch + 1;
+        int amax = vsize * 255;
+        amax += (255 - amax) * spread;
+        int kscalea = 0x7fffffff / amax;
+        int kscaler = (int) (kscalea * shadowColor[0]);
+        int kscaleg = (int) (kscalea * shadowColor[1]);
+        int kscaleb = (int) (kscalea * shadowColor[2]);
+        kscalea *= shadowColor[3];
+        int amin = (amax / 255);
+        int voff = vsize * srcscan;
+        int shadowRGB =
+            (((int) (shadowColor[0] * 255)) << 16) |
+            (((int) (shadowColor[1] * 255)) <<  8) |
+            (((int) (shadowColor[2] * 255))      ) |
+            (((int) (shadowColor[3] * 255)) << 24);
+        for (int x = 0; x < dstw; x++) {
+            int suma = 0;
+            int srcoff = x;
+            int dstoff = x;
+            for (int y = 0; y < dsth; y++) {
+                int rgb = (srcoff >= voff) ? srcPixels[srcoff - voff] : 0;
+                suma -= (rgb >>> 24);
+                rgb = (y < srch) ? srcPixels[srcoff] : 0;
+                suma += (rgb >>> 24);
+                dstPixels[dstoff] =
+                    ((suma < amin) ? 0
+                     : ((suma >= amax) ? shadowRGB
+                        : ((((suma * kscalea) >> 23) << 24) |
+                           (((suma * kscaler) >> 23) << 16) |
+                           (((suma * kscaleg) >> 23) <<  8) |
+                           (((suma * kscaleb) >> 23)      ))));
+                srcoff += srcscan;
+                dstoff += dstscan;
+            }
+        }
+    }
+
+    @Test
+    public void testBoxBlurVertical() {
+        BlurPeer peer = new BlurPeer();
+        int[] src = createSource(1);
+        for (int grow : new int[] { 0, 1, 4, 9, 30 }) {
+            int dsth = SRCH + grow;
+            int dstscan = SRCW + 3;
+            int[] expected = new int[dstscan * dsth];
+            int[] actual = new int[dstscan * dsth];
+            referenceBlurVertical(expected, SRCW, dsth, dstscan, src, SRCH, SRCSCAN);
+            peer.vertical(actual, SRCW, dsth, dstscan, src);
+            assertArrayEquals("grow " + grow, expected, actual);
+        }
+    }
+
+    @Test
+    public void testBoxShadowVertical() {
+        ShadowPeer peer = new ShadowPeer();
+        int[] src = createSource(2);
+        float[] black = { 0f, 0f, 0f, 1f };
+        float[] color = { 0.2f, 0.4f, 0.1f, 0.5f };
+        for (float spread : new float[] { 0f, 0.3f, 1f }) {
+            for (int grow : new int[] { 0, 2, 7, 30 }) {
+                int dsth = SRCH + grow;
+                int dstscan = SRCW + 5;
+                int[] expected = new int[dstscan * dsth];
+                int[] actual = new int[dstscan * dsth];
+                referenceShadowVertical(expected, SRCW, dsth, dstscan, src, SRCH, SRCSCAN,
+                                        spread, black);
+                peer.verticalBlack(actual, SRCW, dsth, dstscan, src, spread);
+                assertArrayEquals("black, spread " + spread + ", grow " + grow, expected, actual);
+
+                referenceShadowVertical(expected, SRCW, dsth, dstscan, src, SRCH, SRCSCAN,
+                                        spread, color);
+                peer.vertical(actual, SRCW, dsth, dstscan, src, spread, color);
+                assertArrayEquals("color, spread " + spread + ", grow " + grow, expected, actual);
+            }
+        }
+    }
+}
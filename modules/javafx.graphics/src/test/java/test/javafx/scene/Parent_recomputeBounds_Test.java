@@ -38,6 +38,8 @@ import javafx.scene.ParentShim;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.shape.Circle;
 import javafx.scene.transform.Translate;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -563,6 +565,115 @@ public class Parent_recomputeBounds_Test {
                 parent.getBoundsInParent());
     }
 
+    @Test
+    public void shouldRecomputeBoundsWhenManyDirtyNodesRemoved() {
+        final Group g = new Group();
+        final List<Rectangle> inner = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            inner.add(new Rectangle(100 + i, 100 + i, 10, 10));
+        }
+        final Rectangle lt = new Rectangle(50, 50, 10, 10);
+        final Rectangle rb = new Rectangle(300, 300, 10, 10);
+        g.getChildren().addAll(inner);
+        g.getChildren().addAll(lt, rb);
+
+        // remove the children while their bounds are still dirty
+        g.getChildren().removeAll(inner);
+        g.getChildren().remove(rb);
+
+        Bounds b = g.getBoundsInLocal();
+        assertEquals(50, b.getMinX(), 0.0001);
+        assertEquals(50, b.getMinY(), 0.0001);
+        assertEquals(10, b.getWidth(), 0.0001);
+        assertEquals(10, b.getHeight(), 0.0001);
+    }
+
+    @Test
+    public void shouldIgnoreRemovedDirtyNodesMovedToOtherParent() {
+        final Group g = new Group();
+        final Group other = new Group();
+        final Rectangle r = new Rectangle(500, 500, 10, 10);
+        for (int i = 0; i < 20; i++) {
+            g.getChildren().add(new Rectangle(100 + i, 100 + i, 10, 10));
+        }
+        g.getChildren().add(r);
+        g.getBoundsInLocal();
+
+        r.setX(600);
+        other.getChildren().add(r);
+        r.setX(700);
+
+        Bounds b = g.getBoundsInLocal();
+        assertEquals(100, b.getMinX(), 0.0001);
+        assertEquals(100, b.getMinY(), 0.0001);
+        assertEquals(29, b.getWidth(), 0.0001);
+        assertEquals(29, b.getHeight(), 0.0001);
+
+        b = other.getBoundsInLocal();
+        assertEquals(700, b.getMinX(), 0.0001);
+        assertEquals(10, b.getWidth(), 0.0001);
+    }
+
+    @Test
+    public void shouldRecomputeBoundsAfterSetAll() {
+        final Group g = new Group();
+        for (int i = 0; i < 50; i++) {
+            g.getChildren().add(new Rectangle(i, i, 10, 10));
+        }
+
+        Bounds b = g.getBoundsInLocal();
+        assertEquals(0, b.getMinX(), 0.0001);
+        assertEquals(59, b.getWidth(), 0.0001);
+
+        final List<Rectangle> replacement = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            replacement.add(new Rectangle(200 + i, 100, 10, 10));
+        }
+        g.getChildren().setAll(replacement);
+
+        b = g.getBoundsInLocal();
+        assertEquals(200, b.getMinX(), 0.0001);
+        assertEquals(100, b.getMinY(), 0.0001);
+        assertEquals(59, b.getWidth(), 0.0001);
+        assertEquals(10, b.getHeight(), 0.0001);
+
+        g.getChildren().setAll(replacement.get(10), replacement.get(0));
+
+        b = g.getBoundsInLocal();
+        assertEquals(200, b.getMinX(), 0.0001);
+        assertEquals(20, b.getWidth(), 0.0001);
+
+        g.getChildren().clear();
+        assertTrue(g.getBoundsInLocal().isEmpty());
+    }
+
+    @Test
+    public void shouldRecomputeBoundsWhenNodesRepeatedlyHiddenAndShown() {
+        final Group g = new Group();
+        final Rectangle edge = new Rectangle(0, 0, 10, 10);
+        for (int i = 0; i < 20; i++) {
+            g.getChildren().add(new Rectangle(100 + i, 100, 10, 10));
+        }
+        g.getChildren().add(edge);
+        g.getBoundsInLocal();
+
+        // toggling leaves stale entries in the dirty children list
+        for (int i = 0; i < 100; i++) {
+            edge.setVisible(false);
+            edge.setVisible(true);
+        }
+        edge.setX(-10);
+
+        Bounds b = g.getBoundsInLocal();
+        assertEquals(-10, b.getMinX(), 0.0001);
+        assertEquals(139, b.getWidth(), 0.0001);
+
+        edge.setVisible(false);
+        b = g.getBoundsInLocal();
+        assertEquals(100, b.getMinX(), 0.0001);
+        assertEquals(29, b.getWidth(), 0.0001);
+    }
+
     private static Bounds boundsOfRotatedRect(
             final double x, final double y,
             final double width, final double height,
@@ -30,6 +30,7 @@ import static test.com.sun.javafx.test.TestHelper.assertSimilar;
 import static test.com.sun.javafx.test.TestHelper.box;
 import static org.junit.Assert.assertEquals;
 import javafx.geometry.BoundingBox;
+import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.transform.Rotate;
@@ -331,4 +332,61 @@ public class TransformedBoundsTest {
         assertBoundsEqual(box(50, 50, 100, 30), rect.getBoundsInParent());
     }
 
+    public @Test
+    void testLocalToSceneAfterAncestorTransformChange() {
+        Rectangle rect = new Rectangle(3, 7, 17, 19);
+        Group inner = new Group(rect);
+        Group outer = new Group(inner);
+
+        assertSimilar(box(3, 7, 17, 19), rect.localToScene(rect.getBoundsInLocal()));
+
+        outer.setTranslateX(100);
+        assertSimilar(box(103, 7, 17, 19), rect.localToScene(rect.getBoundsInLocal()));
+
+        inner.getTransforms().add(new Scale(2, 2));
+        assertSimilar(box(106, 14, 34, 38), rect.localToScene(rect.getBoundsInLocal()));
+        assertSimilar(box(3, 7, 17, 19),
+                rect.sceneToLocal(box(106, 14, 34, 38)));
+
+        outer.setTranslateX(0);
+        assertSimilar(box(6, 14, 34, 38), rect.localToScene(rect.getBoundsInLocal()));
+    }
+
+    public @Test
+    void testLocalToSceneAfterReparenting() {
+        Rectangle rect = new Rectangle(3, 7, 17, 19);
+        Group first = new Group(rect);
+        first.setTranslateX(10);
+        Group second = new Group();
+        second.setTranslateY(20);
+
+        assertSimilar(box(13, 7, 17, 19), rect.localToScene(rect.getBoundsInLocal()));
+
+        second.getChildren().add(rect);
+        assertSimilar(box(3, 27, 17, 19), rect.localToScene(rect.getBoundsInLocal()));
+
+        second.getChildren().clear();
+        assertSimilar(box(3, 7, 17, 19), rect.localToScene(rect.getBoundsInLocal()));
+    }
+
+    public @Test
+    void testLocalToScene2DDropsZAtEachLevelUnder3DRotations() {
+        Rectangle rect = new Rectangle(3, 7, 17, 19);
+        rect.getTransforms().add(new Rotate(30, Rotate.Y_AXIS));
+        Group inner = new Group(rect);
+        inner.getTransforms().add(new Rotate(-30, Rotate.Y_AXIS));
+        inner.setTranslateX(5);
+        Group outer = new Group(inner);
+        outer.setRotate(10);
+
+        Point2D expected = outer.localToParent(inner.localToParent(rect.localToParent(11, 13)));
+        Point2D actual = rect.localToScene(11, 13);
+        assertEquals(expected.getX(), actual.getX(), 1e-9);
+        assertEquals(expected.getY(), actual.getY(), 1e-9);
+
+        expected = rect.parentToLocal(inner.parentToLocal(outer.parentToLocal(11, 13)));
+        actual = rect.sceneToLocal(11, 13);
+        assertEquals(expected.getX(), actual.getX(), 1e-9);
+        assertEquals(expected.getY(), actual.getY(), 1e-9);
+    }
 }